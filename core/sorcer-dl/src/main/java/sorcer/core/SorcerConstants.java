@@ -274,6 +274,14 @@ public interface SorcerConstants {
 
 	String S_PROVIDER_CACHE_NAME = "provider.cache";
 
+	String S_PROVIDER_CACHE_LIVENESS = "provider.cache.liveness";
+
+	String S_PROVIDER_CACHE_SIZE = "provider.cache.size";
+
+	String S_PROVIDER_SELECTOR_NAME = "provider.selector";
+
+	String S_PROVIDER_SELECTOR_REFRESH = "provider.selector.refresh";
+
 	String SORCER_HOME = "sorcer.home";
 
 	// discovery and lookup
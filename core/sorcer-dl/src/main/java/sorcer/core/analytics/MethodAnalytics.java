@@ -18,6 +18,7 @@ package sorcer.core.analytics;
 import net.jini.core.lookup.ServiceID;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * @author Dennis Reedy
@@ -27,6 +28,7 @@ public class MethodAnalytics implements Serializable {
     private int numActiveOperations;
     private int completed;
     private int failed;
+    private int rejected;
     private int totalOperationCalls;
     private long totalCallTime;
     private ServiceID serviceID;
@@ -34,6 +36,7 @@ public class MethodAnalytics implements Serializable {
     private String activeOperations;
     private String methodName;
     private double averageExecTime;
+    private long[] recentExecTimes;
 
     public MethodAnalytics(String activeOperations,
                            double averageExecTime,
@@ -65,6 +68,23 @@ public class MethodAnalytics implements Serializable {
         return averageExecTime;
     }
 
+    /**
+     * Returns the exec time at the given percentile (0.0 - 1.0) of the most
+     * recent calls, in nanoseconds, or -1 if no calls were recorded.
+     */
+    public long getExecTimePercentile(double percentile) {
+        if (recentExecTimes == null || recentExecTimes.length == 0)
+            return -1;
+        long[] sorted = recentExecTimes.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public void setRecentExecTimes(long[] recentExecTimes) {
+        this.recentExecTimes = recentExecTimes;
+    }
+
     public int getTotalOperationCalls() {
         return totalOperationCalls;
     }
@@ -93,15 +113,27 @@ public class MethodAnalytics implements Serializable {
         return failed;
     }
 
+    /**
+     * @return the number of invocations rejected by admission control
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
     public long getTotalCallTime() {
         return totalCallTime;
     }
 
     @Override public String toString() {
-        return String.format("%s, completed: %s, numActiveOps: %s, averageExecTime: %s, " +
+        return String.format("%s, completed: %s, rejected: %s, numActiveOps: %s, averageExecTime: %s, " +
                              "totalOperationCalls: %s, activeOperations: %s, totalCallTime: %s",
                              methodName,
                              getCompleted(),
+                             getRejected(),
                              getNumActiveOperations(),
                              getAverageExecTime(),
                              getTotalOperationCalls(),
@@ -0,0 +1,43 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.service;
+
+import net.jini.core.transaction.Transaction;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+
+/**
+ * Executes a batch of mograms with one remote call. Used by dispatchers to
+ * coalesce many small tasks for the same provider.
+ */
+public interface BatchExertion extends Remote {
+	/**
+	 * Exerts all mograms, possibly in parallel.
+	 *
+	 * @param mograms  input mograms
+	 * @param txn      The transaction (if any) under which to provide service.
+	 * @return resulting mograms in the order of the input ones, each with its
+	 * own status and exceptions
+	 * @throws ServiceException if the batch can not be executed
+	 * @throws RemoteException
+	 */
+	List<Contextion> exertAll(List<? extends Contextion> mograms, Transaction txn, Arg... args)
+			throws ServiceException, RemoteException;
+
+}
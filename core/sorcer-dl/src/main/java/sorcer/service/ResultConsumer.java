@@ -0,0 +1,38 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.service;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Receives the results of component exertions of a job as they complete,
+ * before the job is done. Set in the job's control context; a requestor
+ * outside the dispatching provider sets the proxy of its exported consumer.
+ */
+public interface ResultConsumer extends Remote {
+	/**
+	 * Called once per completed component exertion, done or failed, in the
+	 * order of completion. Results are not taken from the space while a call
+	 * is in progress.
+	 *
+	 * @param result the completed component exertion
+	 * @throws RemoteException
+	 */
+	void consume(Routine result) throws RemoteException;
+
+}
@@ -10,12 +10,16 @@ import sorcer.arithmetic.tester.provider.impl.MultiplierImpl;
 import sorcer.arithmetic.tester.provider.impl.SubtractorImpl;
 import sorcer.co.operator;
 import sorcer.core.dispatch.ExertionSorter;
+import sorcer.core.provider.rendezvous.ServiceConcatenator;
 import sorcer.core.provider.rendezvous.ServiceJobber;
 import sorcer.service.*;
 import sorcer.service.Strategy.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static sorcer.co.operator.*;
 import static sorcer.eo.operator.*;
@@ -201,4 +205,64 @@ public class ExertionSorterTest {
         Assert.assertArrayEquals(expList.toArray(), es.getSortedJob().getMograms().toArray());
     }
 
+    @Test
+    public void testSorterDependencies() throws Exception {
+        Job job = createComplexJob();
+        ExertionSorter es = new ExertionSorter(job);
+        Job sorted = (Job) es.getSortedJob();
+        Assert.assertTrue(sorted.getControlContext().isDataflow());
+        Map<Contextion, Set<Contextion>> deps = es.getDependencies(sorted);
+        final Contextion f3 = job.getMogram("Task_f3");
+        final Contextion j2 = job.getMogram("Job_f2");
+        final Contextion j8 = job.getMogram("Job_f8");
+        final Contextion j20 = job.getMogram("Job_f20");
+        Assert.assertEquals(Collections.singleton(j2), deps.get(f3));
+        Assert.assertEquals(Collections.singleton(j2), deps.get(j8));
+        Assert.assertTrue(deps.get(j2).isEmpty());
+        Assert.assertTrue(deps.get(j20).isEmpty());
+    }
+
+    @Test
+    public void testSorterInnerJobSequential() throws Exception {
+        Task t4 = task("t4", sig("multiply", MultiplierImpl.class),
+                cxt("multiply", inVal("arg/x1", 10.0), inVal("arg/x2", 50.0),
+                        outVal("result/y")));
+        Task t5 = task("t5", sig("add", AdderImpl.class),
+                cxt("add", inVal("arg/x1", 20.0), inVal("arg/x2", 80.0),
+                        outVal("result/y")));
+        Task t6 = task("t6", sig("add", AdderImpl.class),
+                cxt("add", inVal("arg/x1", 30.0), inVal("arg/x2", 90.0),
+                        outVal("result/y")));
+        Job job = job("j1", t6, job("j2", t4, t5));
+        ExertionSorter es = new ExertionSorter(job);
+        Job sorted = (Job) es.getSortedJob();
+        // SEQ only because of the inner job, no pipes to follow in a dataflow
+        Assert.assertEquals(Strategy.Flow.SEQ, sorted.getFlowType());
+        Assert.assertFalse(sorted.getControlContext().isDataflow());
+    }
+
+    @Test
+    public void testSorterBlockComponent() throws Exception {
+        Task t3 = task("t3", sig("subtract", SubtractorImpl.class),
+                cxt("subtract", inVal("arg/x1"), inVal("arg/x2", 10.0),
+                        outVal("result/y")));
+        Task t4 = task("t4", sig("multiply", MultiplierImpl.class),
+                cxt("multiply", inVal("arg/x1", 10.0), inVal("arg/x2", 50.0),
+                        outVal("result/y")));
+        Task t5 = task("t5", sig("add", AdderImpl.class),
+                cxt("add", inVal("arg/x1", 20.0), inVal("arg/x2", 80.0),
+                        outVal("result/y")));
+        Block b1 = block("b1", sig("exert", ServiceConcatenator.class), t5);
+        Job job = job("j1", t3, b1, t4,
+                pipe(outPoint(t4, "result/y"), inPoint(t3, "arg/x1")));
+        ExertionSorter es = new ExertionSorter(job);
+        Job sorted = (Job) es.getSortedJob();
+        Assert.assertTrue(sorted.getControlContext().isDataflow());
+        Map<Contextion, Set<Contextion>> deps = es.getDependencies(sorted);
+        Assert.assertEquals(Collections.singleton((Contextion) t4), deps.get(t3));
+        Assert.assertTrue(deps.get(b1).isEmpty());
+        Assert.assertTrue(deps.get(t4).isEmpty());
+        Assert.assertTrue(sorted.getMograms().indexOf(t4) < sorted.getMograms().indexOf(t3));
+    }
+
 }
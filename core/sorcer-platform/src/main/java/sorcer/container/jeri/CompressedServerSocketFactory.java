@@ -0,0 +1,100 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.container.jeri;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server socket factory of compressed Jeri endpoints accepting
+ * {@link CompressedSocket}s. Keeps the statistics of all accepted
+ * connections and of each open one.
+ */
+public class CompressedServerSocketFactory extends ServerSocketFactory {
+    private final int threshold;
+    private final int level;
+    private final CompressionStatistics statistics = new CompressionStatistics("server");
+    private final Set<CompressedSocket> connections = ConcurrentHashMap.newKeySet();
+
+    public CompressedServerSocketFactory(CompressedSocketFactory socketFactory) {
+        this.threshold = socketFactory.getThreshold();
+        this.level = socketFactory.getLevel();
+    }
+
+    /**
+     * @return statistics of all connections accepted by this factory
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return statistics of open connections accepted by this factory
+     */
+    public List<CompressionStatistics> getConnectionStatistics() {
+        List<CompressionStatistics> list = new ArrayList<>();
+        for (CompressedSocket connection : connections)
+            list.add(connection.getStatistics());
+        return list;
+    }
+
+    @Override
+    public ServerSocket createServerSocket() throws IOException {
+        return new CompressedServerSocket();
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        return new CompressedServerSocket(port, 50, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+        return new CompressedServerSocket(port, backlog, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+        return new CompressedServerSocket(port, backlog, address);
+    }
+
+    private class CompressedServerSocket extends ServerSocket {
+
+        CompressedServerSocket() throws IOException {
+        }
+
+        CompressedServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            super(port, backlog, address);
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            CompressedSocket socket = new CompressedSocket(threshold, level,
+                    new CompressionStatistics("server", statistics), connections);
+            implAccept(socket);
+            connections.add(socket);
+            return socket;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.container.jeri;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Collection;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Socket sending its data in frames, each deflated when it is at least the
+ * threshold long and deflating makes it shorter, otherwise sent as is. A
+ * frame is what is written in between flushes, up to {@link #FRAME_SIZE}
+ * bytes, so the messages of the Jeri multiplexing protocol are framed as
+ * they are flushed by the connection. Both directions start with a magic
+ * number, so a peer not speaking the frame protocol fails on its first read.
+ */
+public class CompressedSocket extends Socket {
+
+    static final int FRAME_SIZE = 64 * 1024;
+
+    private static final int MAGIC = 0x534A5A01;
+    private static final int PLAIN = 0;
+    private static final int DEFLATED = 1;
+
+    private final int threshold;
+    private final int level;
+    private final CompressionStatistics statistics;
+    private final Collection<CompressedSocket> connections;
+
+    private FrameInputStream in;
+    private FrameOutputStream out;
+
+    /**
+     * @param connections open connections this socket is removed from when
+     *                    closed, may be null
+     */
+    CompressedSocket(int threshold, int level, CompressionStatistics statistics,
+                     Collection<CompressedSocket> connections) {
+        this.threshold = threshold;
+        this.level = level;
+        this.statistics = statistics;
+        this.connections = connections;
+    }
+
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (in == null)
+            in = new FrameInputStream(super.getInputStream());
+        return in;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (out == null)
+            out = new FrameOutputStream(super.getOutputStream());
+        return out;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (connections != null)
+                connections.remove(this);
+            // streams check the socket is open under their locks before using these
+            if (in != null) {
+                synchronized (in) {
+                    in.inflater.end();
+                }
+            }
+            if (out != null) {
+                synchronized (out) {
+                    out.deflater.end();
+                }
+            }
+        }
+    }
+
+    private static int writeVarint(byte[] buf, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    private class FrameOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final Deflater deflater = new Deflater(level, true);
+        private final byte[] buf = new byte[FRAME_SIZE];
+        private final byte[] zbuf = new byte[FRAME_SIZE];
+        private final byte[] header = new byte[16];
+        private int count;
+        private boolean started;
+
+        FrameOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            if (count == buf.length)
+                writeFrame();
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buf.length)
+                    writeFrame();
+                int n = Math.min(len, buf.length - count);
+                System.arraycopy(b, off, buf, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (count > 0)
+                writeFrame();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            out.close();
+        }
+
+        private void writeFrame() throws IOException {
+            if (isClosed())
+                throw new SocketException("Socket is closed");
+            int pos = 0;
+            if (!started) {
+                header[pos++] = (byte) (MAGIC >>> 24);
+                header[pos++] = (byte) (MAGIC >>> 16);
+                header[pos++] = (byte) (MAGIC >>> 8);
+                header[pos++] = (byte) MAGIC;
+                started = true;
+            }
+            long nanos = 0;
+            int length = -1;
+            if (count >= threshold) {
+                long start = System.nanoTime();
+                length = deflate();
+                nanos = System.nanoTime() - start;
+            }
+            if (length >= 0) {
+                header[pos++] = DEFLATED;
+                pos = writeVarint(header, pos, count);
+                pos = writeVarint(header, pos, length);
+                out.write(header, 0, pos);
+                out.write(zbuf, 0, length);
+                statistics.written(count, pos + length, true, nanos);
+            } else {
+                header[pos++] = PLAIN;
+                pos = writeVarint(header, pos, count);
+                out.write(header, 0, pos);
+                out.write(buf, 0, count);
+                statistics.written(count, pos + count, false, nanos);
+            }
+            count = 0;
+        }
+
+        /**
+         * @return the deflated length of the buffer or -1 if not shorter
+         */
+        private int deflate() {
+            deflater.reset();
+            deflater.setInput(buf, 0, count);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished() && length < count)
+                length += deflater.deflate(zbuf, length, count - length);
+            return deflater.finished() && length < count ? length : -1;
+        }
+    }
+
+    private class FrameInputStream extends InputStream {
+        private final InputStream in;
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] buf = new byte[FRAME_SIZE];
+        private final byte[] zbuf = new byte[FRAME_SIZE];
+        private int pos;
+        private int limit;
+        private boolean started;
+
+        FrameInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            if (pos == limit && !readFrame())
+                return -1;
+            return buf[pos++] & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (pos == limit && !readFrame())
+                return -1;
+            int n = Math.min(len, limit - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public synchronized int available() {
+            return limit - pos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * @return false at the end of the stream
+         */
+        private boolean readFrame() throws IOException {
+            do {
+                int wire = 0;
+                if (!started) {
+                    int magic = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int b = in.read();
+                        if (b < 0)
+                            return false;
+                        magic = magic << 8 | b;
+                    }
+                    if (magic != MAGIC)
+                        throw new StreamCorruptedException("Not a compressed Jeri connection");
+                    started = true;
+                    wire += 4;
+                }
+                int type = in.read();
+                if (type < 0)
+                    return false;
+                int length = readLength(FRAME_SIZE);
+                wire += 1 + varintSize(length);
+                if (type == PLAIN) {
+                    readFully(buf, length);
+                    statistics.read(length, wire + length, 0);
+                } else if (type == DEFLATED) {
+                    int zlength = readLength(FRAME_SIZE);
+                    readFully(zbuf, zlength);
+                    if (isClosed())
+                        throw new SocketException("Socket is closed");
+                    long start = System.nanoTime();
+                    inflate(zlength, length);
+                    statistics.read(length, wire + varintSize(zlength) + zlength, System.nanoTime() - start);
+                } else {
+                    throw new StreamCorruptedException("Unknown frame type: " + type);
+                }
+                pos = 0;
+                limit = length;
+            } while (limit == 0);
+            return true;
+        }
+
+        private void inflate(int zlength, int length) throws IOException {
+            inflater.reset();
+            inflater.setInput(zbuf, 0, zlength);
+            int n = 0;
+            try {
+                while (n < length && !inflater.finished()) {
+                    int k = inflater.inflate(buf, n, length - n);
+                    if (k == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        break;
+                    n += k;
+                }
+            } catch (DataFormatException e) {
+                throw new StreamCorruptedException("Corrupted frame: " + e.getMessage());
+            }
+            if (n != length)
+                throw new StreamCorruptedException("Frame inflated to " + n + " instead of " + length + " bytes");
+        }
+
+        private int readLength(int max) throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.read();
+                if (b < 0)
+                    throw new EOFException();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0 || value > max)
+                        throw new StreamCorruptedException("Invalid frame length: " + value);
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed frame length");
+        }
+
+        private void readFully(byte[] b, int len) throws IOException {
+            int n = 0;
+            while (n < len) {
+                int k = in.read(b, n, len - n);
+                if (k < 0)
+                    throw new EOFException();
+                n += k;
+            }
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
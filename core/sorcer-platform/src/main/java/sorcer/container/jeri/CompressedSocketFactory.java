@@ -0,0 +1,135 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.container.jeri;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.zip.Deflater;
+
+/**
+ * Client socket factory of compressed Jeri endpoints creating
+ * {@link CompressedSocket}s. Serialized with the endpoint to the clients of
+ * an exported service, so requests are compressed with the same threshold
+ * and level as responses.
+ */
+public class CompressedSocketFactory extends SocketFactory implements Serializable {
+    private static final long serialVersionUID = 4517304928306149221L;
+
+    /**
+     * Default size of frames below which they are sent as is
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final int threshold;
+    private final int level;
+    private transient CompressionStatistics statistics;
+
+    public CompressedSocketFactory() {
+        this(DEFAULT_THRESHOLD, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * @param threshold size of frames below which they are sent as is
+     * @param level     deflate level, {@link Deflater#BEST_SPEED} for the fast path
+     */
+    public CompressedSocketFactory(int threshold, int level) {
+        if (threshold < 0 || threshold > CompressedSocket.FRAME_SIZE)
+            throw new IllegalArgumentException("threshold not in [0, " + CompressedSocket.FRAME_SIZE + "]: " + threshold);
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return statistics of all connections created by this factory in this JVM
+     */
+    public synchronized CompressionStatistics getStatistics() {
+        if (statistics == null)
+            statistics = new CompressionStatistics("client");
+        return statistics;
+    }
+
+    @Override
+    public Socket createSocket() {
+        return new CompressedSocket(threshold, level, new CompressionStatistics("client", getStatistics()), null);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = createSocket();
+        socket.connect(new InetSocketAddress(host, port));
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        Socket socket = createSocket();
+        socket.bind(new InetSocketAddress(localHost, localPort));
+        socket.connect(new InetSocketAddress(host, port));
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        Socket socket = createSocket();
+        socket.connect(new InetSocketAddress(host, port));
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+        Socket socket = createSocket();
+        socket.bind(new InetSocketAddress(localAddress, localPort));
+        socket.connect(new InetSocketAddress(address, port));
+        return socket;
+    }
+
+    /*
+     * Endpoints are equal only with equal socket factories, equal factories
+     * let Jeri share connections among proxies to the same endpoint.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompressedSocketFactory that = (CompressedSocketFactory) o;
+        return threshold == that.threshold && level == that.level;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * threshold + level;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedSocketFactory[threshold=" + threshold + ", level=" + level + "]";
+    }
+}
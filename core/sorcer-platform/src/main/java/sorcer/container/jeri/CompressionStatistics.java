@@ -0,0 +1,122 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.container.jeri;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a compressed connection or, with connections reporting to
+ * it as their parent, of all connections of a socket factory. Wire bytes
+ * include frame headers.
+ */
+public class CompressionStatistics {
+    private final String name;
+    private final CompressionStatistics parent;
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong wireBytesWritten = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong wireBytesRead = new AtomicLong();
+    private final AtomicLong compressedFrames = new AtomicLong();
+    private final AtomicLong plainFrames = new AtomicLong();
+    private final AtomicLong compressNanos = new AtomicLong();
+    private final AtomicLong decompressNanos = new AtomicLong();
+
+    public CompressionStatistics(String name) {
+        this(name, null);
+    }
+
+    public CompressionStatistics(String name, CompressionStatistics parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    void written(int bytes, int wireBytes, boolean compressed, long nanos) {
+        bytesWritten.addAndGet(bytes);
+        wireBytesWritten.addAndGet(wireBytes);
+        (compressed ? compressedFrames : plainFrames).incrementAndGet();
+        compressNanos.addAndGet(nanos);
+        if (parent != null)
+            parent.written(bytes, wireBytes, compressed, nanos);
+    }
+
+    void read(int bytes, int wireBytes, long nanos) {
+        bytesRead.addAndGet(bytes);
+        wireBytesRead.addAndGet(wireBytes);
+        decompressNanos.addAndGet(nanos);
+        if (parent != null)
+            parent.read(bytes, wireBytes, nanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public long getWireBytesWritten() {
+        return wireBytesWritten.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getWireBytesRead() {
+        return wireBytesRead.get();
+    }
+
+    public long getCompressedFrames() {
+        return compressedFrames.get();
+    }
+
+    public long getPlainFrames() {
+        return plainFrames.get();
+    }
+
+    /**
+     * @return bytes not sent and not received over the wire due to compression
+     */
+    public long getBytesSaved() {
+        return getBytesWritten() - getWireBytesWritten() + getBytesRead() - getWireBytesRead();
+    }
+
+    /**
+     * @return nanoseconds spent compressing written frames
+     */
+    public long getCompressNanos() {
+        return compressNanos.get();
+    }
+
+    /**
+     * @return nanoseconds spent decompressing read frames
+     */
+    public long getDecompressNanos() {
+        return decompressNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [written: " + getBytesWritten() + "/" + getWireBytesWritten()
+                + ", read: " + getBytesRead() + "/" + getWireBytesRead()
+                + ", saved: " + getBytesSaved()
+                + ", frames: " + getCompressedFrames() + "/" + getPlainFrames()
+                + ", cpu ms: " + (getCompressNanos() + getDecompressNanos()) / 1000000 + "]";
+    }
+}
@@ -18,6 +18,8 @@ package sorcer.container.jeri;
 
 import net.jini.jeri.BasicJeriExporter;
 
+import java.util.zip.Deflater;
+
 /**
  * @author Rafał Krupiński
  */
@@ -37,6 +39,13 @@ public class ExporterFactories {
      */
     public static final HttpExporterFactory HTTP = new HttpExporterFactory();
 
+    /**
+     * ExporterFactory with BasicILFactory and TcpServerEndpoint compressing frames of at least
+     * {@link CompressedSocketFactory#DEFAULT_THRESHOLD} bytes at the fastest deflate level
+     */
+    public static final ExporterFactory COMPRESSED = ExporterFactory.compressed(
+            CompressedSocketFactory.DEFAULT_THRESHOLD, Deflater.BEST_SPEED);
+
     /**
      * @return BasicJeriExporter created by {@link #EXPORTER} {@link ExporterFactory}
      */
@@ -57,4 +66,11 @@ public class ExporterFactories {
     public static BasicJeriExporter getHttp() {
         return HTTP.get();
     }
+
+    /**
+     * @return BasicJeriExporter created with {@link #COMPRESSED} {@link ExporterFactory}
+     */
+    public static BasicJeriExporter getCompressedTcp() {
+        return COMPRESSED.get();
+    }
 }
@@ -49,6 +49,17 @@ public class ExporterFactory extends AbstractExporterFactory<BasicJeriExporter>
         return new ExporterFactory(new ProxyTrustILFactory(methodConstraints, permissionClass));
     }
 
+    /**
+     * @param threshold size of frames below which they are sent uncompressed
+     * @param level     deflate level of compressed frames
+     * @return ExporterFactory with BasicILFactory and TcpServerEndpoint compressing its connections
+     */
+    public static ExporterFactory compressed(int threshold, int level) {
+        CompressedSocketFactory socketFactory = new CompressedSocketFactory(threshold, level);
+        return new ExporterFactory(new TcpServerEndpointFactory(socketFactory,
+                new CompressedServerSocketFactory(socketFactory)));
+    }
+
     @Override
     protected BasicJeriExporter doGet(ServerEndpoint serverEndpoint, InvocationLayerFactory ilFactory) {
         return new BasicJeriExporter(serverEndpoint, ilFactory, enableDGC, keepAlive);
@@ -56,6 +56,25 @@ public class TcpServerEndpointFactory implements Provider<TcpServerEndpoint> {
         this.port = port;
     }
 
+    /**
+     * Construct TcpServerEndpointFactory with {@link SorcerEnv#getHostAddress()} as the listening address, port 0
+     * and the socket factories of the endpoints, such as {@link CompressedSocketFactory} and
+     * {@link CompressedServerSocketFactory}.
+     */
+    public TcpServerEndpointFactory(SocketFactory socketFactory, ServerSocketFactory serverSocketFactory) {
+        this();
+        this.socketFactory = socketFactory;
+        this.serverSocketFactory = serverSocketFactory;
+    }
+
+    public SocketFactory getSocketFactory() {
+        return socketFactory;
+    }
+
+    public ServerSocketFactory getServerSocketFactory() {
+        return serverSocketFactory;
+    }
+
     @Override
     public TcpServerEndpoint get() {
         return TcpServerEndpoint.getInstance(host, port, socketFactory, serverSocketFactory);
@@ -20,12 +20,20 @@ package sorcer.core;
 import net.jini.lease.LeaseRenewalManager;
 import sorcer.service.Arg;
 
+import java.util.concurrent.CompletableFuture;
+
  public interface Dispatcher {
 
     void exec(Arg... args);
 
     DispatchResult getResult();
 
+    /**
+     * @return future completed with the dispatch result when the dispatcher
+     * reaches the DONE or FAILED state
+     */
+    CompletableFuture<DispatchResult> getCompletion();
+
     LeaseRenewalManager getLrm();
 
     void setLrm(LeaseRenewalManager lrm);
@@ -96,6 +96,13 @@ public class AnalyticsRecorder {
         monitorAgent.update(Monitor.Status.FAILED, record.create(serviceID, hostName));
     }
 
+    /**
+     * Records an invocation rejected by admission control.
+     */
+    public void rejected(String m) {
+        getMethodInvocationRecord(m).rejected();
+    }
+
     public void terminate() {
         monitorAgent.terminate();
     }
@@ -28,14 +28,20 @@ import java.util.concurrent.atomic.AtomicLong;
  * @author Dennis Reedy
  */
 class MethodInvocationRecord {
+    static final int RECENT_CALLS = 128;
     AtomicInteger numActiveOperations = new AtomicInteger();
     private AtomicInteger idGenerator = new AtomicInteger();
     private AtomicInteger completed = new AtomicInteger();
     private AtomicInteger failed = new AtomicInteger();
+    private AtomicInteger rejected = new AtomicInteger();
     private final Map<Integer, Long> stopWatch = new ConcurrentHashMap<>();
     private AtomicInteger totalOperationCalls = new AtomicInteger();
     private AtomicLong totalCallTime = new AtomicLong();
     private volatile double averageExecTime;
+    // most recent call times for latency percentiles
+    private final long[] recentCallTimes = new long[RECENT_CALLS];
+    private int recentCalls;
+    private int nextRecentCall;
     private final String methodName;
     static Logger logger = LoggerFactory.getLogger(MethodInvocationRecord.class);
 
@@ -65,6 +71,10 @@ class MethodInvocationRecord {
         completed.incrementAndGet();
     }
 
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
     MethodAnalytics create(ServiceID serviceID, String hostName) {
         String activeOps = "";
         synchronized (stopWatch) {
@@ -78,7 +88,7 @@ class MethodInvocationRecord {
                 activeOps = b.toString();
             }
         }
-        return new MethodAnalytics(activeOps,
+        MethodAnalytics analytics = new MethodAnalytics(activeOps,
                                    averageExecTime,
                                    completed.get(),
                                    failed.get(),
@@ -88,6 +98,17 @@ class MethodInvocationRecord {
                                    serviceID,
                                    totalCallTime.get(),
                                    totalOperationCalls.get());
+        analytics.setRecentExecTimes(getRecentCallTimes());
+        analytics.setRejected(rejected.get());
+        return analytics;
+    }
+
+    private long[] getRecentCallTimes() {
+        synchronized (recentCallTimes) {
+            long[] times = new long[recentCalls];
+            System.arraycopy(recentCallTimes, 0, times, 0, times.length);
+            return times;
+        }
     }
 
     private void handleCallTime(long startTime) {
@@ -95,6 +116,12 @@ class MethodInvocationRecord {
         totalCallTime.addAndGet(callTime);
         int totalCalls = totalOperationCalls.incrementAndGet();
         averageExecTime = totalCallTime.get() / totalCalls;
+        synchronized (recentCallTimes) {
+            recentCallTimes[nextRecentCall] = callTime;
+            nextRecentCall = (nextRecentCall + 1) % RECENT_CALLS;
+            if (recentCalls < RECENT_CALLS)
+                recentCalls++;
+        }
         numActiveOperations.decrementAndGet();
     }
 
@@ -0,0 +1,420 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import net.jini.io.MarshalOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.DataTable;
+import sorcer.util.SorcerEnv;
+
+import java.io.*;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Side channel of large context values. When a context is marshalled as the
+ * result of a remote call, byte and double arrays and data tables larger than
+ * the {@link #BULK_THRESHOLD} are exported and replaced by a
+ * {@link BulkValue} handle. The receiving context fetches the values over a
+ * separate socket channel on first access, so the call does not carry them.
+ *
+ * The channel is neither authenticated nor encrypted, so values are only
+ * exported on the {@link #newResultStream result streams} of invocation
+ * dispatchers without security constraints. Marshalled instances, space
+ * entries and contexts persisted with plain object streams keep their values
+ * inline. Exported values are referenced, not copied, and released once
+ * fetched, once their handle is collected unfetched by the receiving JVM, or
+ * after {@link #BULK_LEASE} milliseconds since their export. The side channel
+ * is disabled unless the threshold is set.
+ */
+public final class BulkData {
+	private final static Logger logger = LoggerFactory.getLogger(BulkData.class);
+
+	/**
+	 * System property with the size in bytes above which values are sent
+	 * over the side channel, 0 to disable it
+	 */
+	public static final String BULK_THRESHOLD = "sorcer.bulk.threshold";
+
+	/**
+	 * System property with the time in milliseconds exported values can be
+	 * fetched for since their export, one minute by default
+	 */
+	public static final String BULK_LEASE = "sorcer.bulk.lease";
+
+	private static final long DEFAULT_LEASE = 60 * 1000L;
+
+	// time in milliseconds between sweeps of expired exports
+	private static final long SWEEP_INTERVAL = 10 * 1000L;
+
+	static final byte BYTES = 0;
+	static final byte DOUBLES = 1;
+	static final byte OBJECT = 2;
+
+	// requests of the side channel
+	private static final byte FETCH = 0;
+	private static final byte RELEASE = 1;
+
+	private static final int CHUNK = 64 * 1024;
+
+	static final Map<Uuid, Export> exports = new ConcurrentHashMap<>();
+
+	// handles read and not fetched, their values are released when they are collected
+	private static final Set<Handle> handles = ConcurrentHashMap.newKeySet();
+	private static final ReferenceQueue<BulkValue> collected = new ReferenceQueue<>();
+
+	private static InetSocketAddress address;
+	private static ExecutorService workers;
+	private static boolean reaping;
+	private static long lastSweep;
+
+	private BulkData() {
+	}
+
+	/**
+	 * @return true if the side channel is enabled
+	 */
+	public static boolean isEnabled() {
+		return Long.getLong(BULK_THRESHOLD, 0L) > 0;
+	}
+
+	/**
+	 * Returns a marshal stream writing the result of a remote call, on which
+	 * large context values are exported. Callers are responsible for using it
+	 * only for calls without security constraints.
+	 */
+	public static ObjectOutputStream newResultStream(OutputStream out, Collection context) throws IOException {
+		return new ResultOutputStream(out, context);
+	}
+
+	/**
+	 * Returns the handle of the value exported for the stream or null if the
+	 * value is to be written inline.
+	 */
+	static BulkValue export(ObjectOutputStream out, Object value) {
+		byte type;
+		long length;
+		if (value instanceof byte[]) {
+			type = BYTES;
+			length = ((byte[]) value).length;
+		} else if (value instanceof double[]) {
+			type = DOUBLES;
+			length = ((double[]) value).length * 8L;
+		} else if (value instanceof DataTable) {
+			type = OBJECT;
+			// estimated serialized size
+			length = (long) ((DataTable) value).getRowCount() * ((DataTable) value).getColumnCount() * 16L;
+		} else {
+			return null;
+		}
+		long threshold = Long.getLong(BULK_THRESHOLD, 0L);
+		if (threshold <= 0 || length <= threshold || !(out instanceof ResultOutputStream))
+			return null;
+		InetSocketAddress server = getAddress();
+		if (server == null)
+			return null;
+		long lease = Long.getLong(BULK_LEASE, DEFAULT_LEASE);
+		startReaper();
+		Uuid id = UuidFactory.generate();
+		exports.put(id, new Export(value, type, lease));
+		return new BulkValue(server.getHostString(), server.getPort(), id, type, length);
+	}
+
+	/**
+	 * Returns the value of the handle fetched from its server.
+	 */
+	static Object fetch(BulkValue handle) throws IOException, ClassNotFoundException {
+		try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(handle.getHost(), handle.getPort()))) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+			buffer.put(FETCH);
+			buffer.putLong(handle.getId().getMostSignificantBits());
+			buffer.putLong(handle.getId().getLeastSignificantBits());
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear().limit(8);
+			read(channel, buffer);
+			long length = buffer.getLong();
+			if (length < 0)
+				throw new FileNotFoundException("Bulk value expired: " + handle);
+			if (handle.getType() == DOUBLES) {
+				double[] doubles = new double[(int) (length / 8)];
+				int n = 0;
+				while (n < doubles.length) {
+					buffer.clear().limit(Math.min(CHUNK, (doubles.length - n) * 8));
+					read(channel, buffer);
+					int count = buffer.remaining() / 8;
+					buffer.asDoubleBuffer().get(doubles, n, count);
+					n += count;
+				}
+				return doubles;
+			}
+			byte[] bytes = new byte[(int) length];
+			ByteBuffer target = ByteBuffer.wrap(bytes);
+			read(channel, target);
+			if (handle.getType() == BYTES)
+				return bytes;
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+				@Override
+				protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+					try {
+						return Class.forName(desc.getName(), false, Thread.currentThread().getContextClassLoader());
+					} catch (ClassNotFoundException e) {
+						return super.resolveClass(desc);
+					}
+				}
+			}) {
+				return in.readObject();
+			}
+		}
+	}
+
+	/**
+	 * Tracks the handle read by this JVM, its value is released on its server
+	 * if the handle is collected before it is fetched or passed on.
+	 */
+	static Reference<BulkValue> track(BulkValue value) {
+		Handle handle = new Handle(value, collected);
+		handles.add(handle);
+		startReaper();
+		return handle;
+	}
+
+	static void untrack(Reference<BulkValue> handle) {
+		if (handle != null)
+			handles.remove(handle);
+	}
+
+	private static synchronized void startReaper() {
+		if (reaping)
+			return;
+		reaping = true;
+		getWorkers().execute(new Runnable() {
+			@Override
+			public void run() {
+				reap();
+			}
+		});
+	}
+
+	/**
+	 * Releases the values of collected handles and the expired exports.
+	 */
+	private static void reap() {
+		try {
+			while (true) {
+				Reference<? extends BulkValue> handle = collected.remove(SWEEP_INTERVAL);
+				if (handle != null && handles.remove(handle))
+					release((Handle) handle);
+				sweep();
+			}
+		} catch (InterruptedException e) {
+			synchronized (BulkData.class) {
+				reaping = false;
+			}
+		}
+	}
+
+	private static void release(Handle handle) {
+		try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(handle.host, handle.port))) {
+			ByteBuffer buffer = ByteBuffer.allocate(17);
+			buffer.put(RELEASE);
+			buffer.putLong(handle.id.getMostSignificantBits());
+			buffer.putLong(handle.id.getLeastSignificantBits());
+			buffer.flip();
+			write(channel, buffer);
+		} catch (IOException e) {
+			// expires on its server anyway
+			logger.debug("Could not release bulk value: {}", handle.id, e);
+		}
+	}
+
+	/**
+	 * Returns the pool running prefetches of bulk values.
+	 */
+	static synchronized ExecutorService getWorkers() {
+		if (workers == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setNameFormat("BulkData-%2$d");
+			factory.setDaemon(true);
+			workers = Executors.newCachedThreadPool(factory);
+		}
+		return workers;
+	}
+
+	private static void read(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0)
+				throw new EOFException("Bulk value truncated");
+		}
+		buffer.flip();
+	}
+
+	private static synchronized InetSocketAddress getAddress() {
+		if (address == null) {
+			try {
+				final ServerSocketChannel server = ServerSocketChannel.open();
+				server.bind(new InetSocketAddress(SorcerEnv.getHostAddress(), 0));
+				address = (InetSocketAddress) server.getLocalAddress();
+				getWorkers().execute(new Runnable() {
+					@Override
+					public void run() {
+						accept(server);
+					}
+				});
+				logger.info("Bulk data channel on: {}", address);
+			} catch (IOException e) {
+				logger.warn("Could not open bulk data channel, values are sent inline", e);
+			}
+		}
+		return address;
+	}
+
+	private static void accept(ServerSocketChannel server) {
+		while (server.isOpen()) {
+			try {
+				final SocketChannel channel = server.accept();
+				getWorkers().execute(new Runnable() {
+					@Override
+					public void run() {
+						serve(channel);
+					}
+				});
+			} catch (IOException e) {
+				logger.warn("Bulk data channel failed", e);
+			}
+		}
+	}
+
+	private static void serve(SocketChannel channel) {
+		try (SocketChannel c = channel) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK);
+			buffer.limit(17);
+			read(c, buffer);
+			byte request = buffer.get();
+			Uuid id = UuidFactory.create(buffer.getLong(), buffer.getLong());
+			if (request == RELEASE) {
+				exports.remove(id);
+				return;
+			}
+			Export export = exports.get(id);
+			if (export != null && export.expires < System.currentTimeMillis())
+				export = null;
+			buffer.clear();
+			if (export == null) {
+				buffer.putLong(-1).flip();
+				write(c, buffer);
+				return;
+			}
+			if (export.type == DOUBLES) {
+				double[] doubles = (double[]) export.value;
+				buffer.putLong(doubles.length * 8L).flip();
+				write(c, buffer);
+				for (int n = 0; n < doubles.length; ) {
+					int count = Math.min(CHUNK / 8, doubles.length - n);
+					buffer.clear();
+					buffer.asDoubleBuffer().put(doubles, n, count);
+					buffer.limit(count * 8);
+					write(c, buffer);
+					n += count;
+				}
+			} else {
+				byte[] bytes;
+				if (export.type == BYTES) {
+					bytes = (byte[]) export.value;
+				} else {
+					ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+					try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+						out.writeObject(export.value);
+					}
+					bytes = serialized.toByteArray();
+				}
+				buffer.putLong(bytes.length).flip();
+				write(c, buffer);
+				write(c, ByteBuffer.wrap(bytes));
+			}
+			// fetched once by the context that read the handle
+			exports.remove(id, export);
+		} catch (IOException e) {
+			logger.warn("Could not send bulk value", e);
+		}
+	}
+
+	private static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
+	private static synchronized void sweep() {
+		long now = System.currentTimeMillis();
+		if (now - lastSweep < SWEEP_INTERVAL)
+			return;
+		lastSweep = now;
+		Iterator<Export> i = exports.values().iterator();
+		while (i.hasNext()) {
+			if (i.next().expires < now)
+				i.remove();
+		}
+	}
+
+	private static class Export {
+		final Object value;
+		final byte type;
+		final long expires;
+
+		Export(Object value, byte type, long lease) {
+			this.value = value;
+			this.type = type;
+			this.expires = System.currentTimeMillis() + lease;
+		}
+	}
+
+	private static class Handle extends WeakReference<BulkValue> {
+		final String host;
+		final int port;
+		final Uuid id;
+
+		Handle(BulkValue value, ReferenceQueue<BulkValue> queue) {
+			super(value, queue);
+			host = value.getHost();
+			port = value.getPort();
+			id = value.getId();
+		}
+	}
+
+	private static class ResultOutputStream extends MarshalOutputStream {
+		ResultOutputStream(OutputStream out, Collection context) throws IOException {
+			super(out, context);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context;
+
+import net.jini.id.Uuid;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Handle of a context value exported to the {@link BulkData} side channel.
+ * Like a remote file, the value is fetched from the exporting JVM when
+ * first needed. Contexts replace their handles by the fetched values on
+ * access, a handle passed on unfetched still refers to the original value.
+ */
+public class BulkValue implements Serializable {
+	private static final long serialVersionUID = -6180927411383406571L;
+
+	private final String host;
+	private final int port;
+	private final Uuid id;
+	private final byte type;
+	private final long length;
+
+	private transient FutureTask<Object> fetch;
+
+	// tracks the handle read until its value is fetched or passed on
+	private transient Reference<BulkValue> reference;
+
+	BulkValue(String host, int port, Uuid id, byte type, long length) {
+		this.host = host;
+		this.port = port;
+		this.id = id;
+		this.type = type;
+		this.length = length;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public Uuid getId() {
+		return id;
+	}
+
+	byte getType() {
+		return type;
+	}
+
+	/**
+	 * @return the size of the value in bytes, estimated for data tables
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Starts fetching the value in the background unless already fetched.
+	 */
+	public void prefetch() {
+		FutureTask<Object> task;
+		synchronized (this) {
+			if (fetch != null)
+				return;
+			task = fetch = newFetch();
+		}
+		BulkData.getWorkers().execute(task);
+	}
+
+	/**
+	 * Returns the value, fetching it or waiting for its prefetch.
+	 */
+	public Object getData() throws IOException {
+		FutureTask<Object> task;
+		boolean run = false;
+		synchronized (this) {
+			if (fetch == null) {
+				fetch = newFetch();
+				run = true;
+			}
+			task = fetch;
+		}
+		if (run)
+			task.run();
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted fetching: " + this);
+		} catch (ExecutionException e) {
+			// fetched again on next access
+			synchronized (this) {
+				if (fetch == task)
+					fetch = null;
+			}
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException("Could not fetch: " + this, e.getCause());
+		}
+	}
+
+	private FutureTask<Object> newFetch() {
+		return new FutureTask<>(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				Object value = BulkData.fetch(BulkValue.this);
+				BulkData.untrack(reference);
+				return value;
+			}
+		});
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		reference = BulkData.track(this);
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// passed on unfetched, the receiver fetches or releases the value
+		BulkData.untrack(reference);
+		out.defaultWriteObject();
+	}
+
+	@Override
+	public String toString() {
+		return "BulkValue[" + host + ":" + port + "/" + id + ", " + length + " bytes]";
+	}
+}
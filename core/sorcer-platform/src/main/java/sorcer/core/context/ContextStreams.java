@@ -0,0 +1,283 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import sorcer.service.Context;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.*;
+
+/**
+ * Compact encoding of service context maps within object streams. Paths,
+ * metacontext attributes and their values are written once per stream and
+ * then referred to by varint indices of a per-stream dictionary, so paths
+ * shared by the contexts of a job are sent once. Doubles, integers, uuids
+ * and empty values are written as primitives, other values as objects or,
+ * when large, as {@link BulkValue} handles of the {@link BulkData} channel.
+ *
+ * The writer and the reader of a stream build the same dictionary as
+ * contexts are read in the order they are written. The dictionaries are kept
+ * per thread, an object stream is written and read by one thread at a time.
+ */
+final class ContextStreams {
+
+	private static final int T_OBJECT = 0;
+	private static final int T_DOUBLE = 1;
+	private static final int T_INTEGER = 2;
+	private static final int T_UUID = 3;
+	private static final int T_NONE = 4;
+
+	// version of the encoding, checked by the reader of a context
+	private static final int FORMAT = 1;
+
+	// dictionaries of the streams written and read by the current thread
+	private static final ThreadLocal<Map<ObjectOutputStream, Map<String, Integer>>> writeDictionaries =
+			new ThreadLocal<Map<ObjectOutputStream, Map<String, Integer>>>() {
+				@Override
+				protected Map<ObjectOutputStream, Map<String, Integer>> initialValue() {
+					return new WeakHashMap<>();
+				}
+			};
+
+	private static final ThreadLocal<Map<ObjectInputStream, List<String>>> readDictionaries =
+			new ThreadLocal<Map<ObjectInputStream, List<String>>>() {
+				@Override
+				protected Map<ObjectInputStream, List<String>> initialValue() {
+					return new WeakHashMap<>();
+				}
+			};
+
+	private ContextStreams() {
+	}
+
+	/**
+	 * Writes the format of the encoding and the size of the dictionary of the
+	 * stream ahead of the maps of a context. A stream continued by another
+	 * thread starts a new dictionary, the reader starts one too when it reads
+	 * an empty dictionary size.
+	 */
+	static void writeHeader(ObjectOutputStream out) throws IOException {
+		out.writeByte(FORMAT);
+		writeVarint(out, dictionary(out).size());
+	}
+
+	static void readHeader(ObjectInputStream in) throws IOException {
+		int format = in.readByte();
+		if (format != FORMAT)
+			throw new StreamCorruptedException("Unsupported context encoding: " + format);
+		int size = readVarint(in);
+		List<String> dictionary = dictionary(in);
+		if (size == 0)
+			dictionary.clear();
+		else if (size != dictionary.size())
+			throw new StreamCorruptedException("Context dictionary of " + size
+					+ " paths expected, " + dictionary.size() + " read");
+	}
+
+	private static Map<String, Integer> dictionary(ObjectOutputStream out) {
+		Map<ObjectOutputStream, Map<String, Integer>> dictionaries = writeDictionaries.get();
+		Map<String, Integer> dictionary = dictionaries.get(out);
+		if (dictionary == null) {
+			dictionary = new HashMap<>();
+			dictionaries.put(out, dictionary);
+		}
+		return dictionary;
+	}
+
+	private static List<String> dictionary(ObjectInputStream in) {
+		Map<ObjectInputStream, List<String>> dictionaries = readDictionaries.get();
+		List<String> dictionary = dictionaries.get(in);
+		if (dictionary == null) {
+			dictionary = new ArrayList<>();
+			dictionaries.put(in, dictionary);
+		}
+		return dictionary;
+	}
+
+	static void writeString(ObjectOutputStream out, String s) throws IOException {
+		if (s == null) {
+			writeVarint(out, 0);
+			return;
+		}
+		Map<String, Integer> dictionary = dictionary(out);
+		Integer index = dictionary.get(s);
+		if (index != null) {
+			writeVarint(out, index + 2);
+		} else {
+			dictionary.put(s, dictionary.size());
+			writeVarint(out, 1);
+			out.writeUTF(s);
+		}
+	}
+
+	static String readString(ObjectInputStream in) throws IOException {
+		int code = readVarint(in);
+		if (code == 0)
+			return null;
+		List<String> dictionary = dictionary(in);
+		if (code == 1) {
+			String s = in.readUTF();
+			dictionary.add(s);
+			return s;
+		}
+		if (code - 2 >= dictionary.size())
+			throw new StreamCorruptedException("Unknown context path index: " + (code - 2));
+		return dictionary.get(code - 2);
+	}
+
+	static void writeValue(ObjectOutputStream out, Object value) throws IOException {
+		if (value instanceof Double) {
+			out.writeByte(T_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(T_INTEGER);
+			int i = (Integer) value;
+			writeVarint(out, (i << 1) ^ (i >> 31));
+		} else if (value != null && value.getClass() == Uuid.class) {
+			out.writeByte(T_UUID);
+			out.writeLong(((Uuid) value).getMostSignificantBits());
+			out.writeLong(((Uuid) value).getLeastSignificantBits());
+		} else if (value instanceof Context.none) {
+			out.writeByte(T_NONE);
+		} else {
+			BulkValue handle = BulkData.export(out, value);
+			out.writeByte(T_OBJECT);
+			out.writeObject(handle != null ? handle : value);
+		}
+	}
+
+	static Object readValue(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		int tag = in.readByte();
+		switch (tag) {
+			case T_DOUBLE:
+				return in.readDouble();
+			case T_INTEGER:
+				int i = readVarint(in);
+				return (i >>> 1) ^ -(i & 1);
+			case T_UUID:
+				return UuidFactory.create(in.readLong(), in.readLong());
+			case T_NONE:
+				return Context.none;
+			case T_OBJECT:
+				return in.readObject();
+			default:
+				throw new StreamCorruptedException("Unknown context value tag: " + tag);
+		}
+	}
+
+	/**
+	 * Writes the map with its keys in the dictionary.
+	 */
+	static void writeMap(ObjectOutputStream out, Map<String, ?> map) throws IOException {
+		if (map == null) {
+			writeVarint(out, 0);
+			return;
+		}
+		// a concurrent map may change in between size and iteration
+		List<Map.Entry<String, ?>> entries = new ArrayList<Map.Entry<String, ?>>(map.entrySet());
+		writeVarint(out, entries.size() + 1);
+		for (Map.Entry<String, ?> entry : entries) {
+			writeString(out, entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	/**
+	 * Reads entries of a map written by {@link #writeMap} into the map.
+	 *
+	 * @return the map or null if written as null
+	 */
+	@SuppressWarnings("unchecked")
+	static <V> Map<String, V> readMap(ObjectInputStream in, Map<String, V> map)
+			throws IOException, ClassNotFoundException {
+		int size = readVarint(in) - 1;
+		if (size < 0)
+			return null;
+		for (int i = 0; i < size; i++) {
+			String key = readString(in);
+			map.put(key, (V) readValue(in));
+		}
+		return map;
+	}
+
+	static void writeMetacontext(ObjectOutputStream out, Map<String, LinkedHashMap<String, String>> metacontext)
+			throws IOException {
+		if (metacontext == null) {
+			writeVarint(out, 0);
+			return;
+		}
+		writeVarint(out, metacontext.size() + 1);
+		for (Map.Entry<String, LinkedHashMap<String, String>> attribute : metacontext.entrySet()) {
+			writeString(out, attribute.getKey());
+			LinkedHashMap<String, String> associations = attribute.getValue();
+			if (associations == null) {
+				writeVarint(out, 0);
+				continue;
+			}
+			writeVarint(out, associations.size() + 1);
+			for (Map.Entry<String, String> association : associations.entrySet()) {
+				writeString(out, association.getKey());
+				writeString(out, association.getValue());
+			}
+		}
+	}
+
+	static Map<String, LinkedHashMap<String, String>> readMetacontext(ObjectInputStream in) throws IOException {
+		int size = readVarint(in) - 1;
+		if (size < 0)
+			return null;
+		Map<String, LinkedHashMap<String, String>> metacontext = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			String attribute = readString(in);
+			int count = readVarint(in) - 1;
+			LinkedHashMap<String, String> associations = null;
+			if (count >= 0) {
+				associations = new LinkedHashMap<>();
+				for (int j = 0; j < count; j++) {
+					String path = readString(in);
+					associations.put(path, readString(in));
+				}
+			}
+			metacontext.put(attribute, associations);
+		}
+		return metacontext;
+	}
+
+	static void writeVarint(ObjectOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readVarint(ObjectInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new StreamCorruptedException("Malformed varint");
+	}
+}
@@ -52,6 +52,63 @@ public class ControlContext extends ServiceContext<Object> implements RoutineStr
 	 */
 	public final static String EXERTION_FLOW = "exertion" + CPS + "flow";
 
+	/**
+	 * Set for AUTO flow jobs with pipes between component domains. Such jobs
+	 * are dispatched as a dataflow: each component exertion starts as soon as
+	 * all exertions it depends on are done.
+	 */
+	public final static String EXERTION_DATAFLOW = "exertion" + CPS + "dataflow";
+
+	/**
+	 * Set for jobs with idempotent remote tasks. A task of a parallel job
+	 * that runs longer than the given latency percentile of its provider is
+	 * also submitted to another provider and the first result is used.
+	 */
+	public final static String EXERTION_SPECULATIVE = "exertion" + CPS + "speculative";
+
+	public final static String EXERTION_SPECULATIVE_PERCENTILE = "exertion" + CPS
+			+ "speculative" + CPS + "percentile";
+
+	public final static double DEFAULT_SPECULATIVE_PERCENTILE = 0.95;
+
+	/**
+	 * Maximum number of remote tasks of a parallel job with the same signature
+	 * sent to a provider with one call. Tasks are not batched if not set.
+	 */
+	public final static String EXERTION_BATCH_SIZE = "exertion" + CPS + "batch" + CPS + "size";
+
+	/**
+	 * {@link sorcer.service.ResultConsumer} receiving the results of component
+	 * exertions of a space job as they complete.
+	 */
+	public final static String EXERTION_RESULT_CONSUMER = "exertion" + CPS + "result" + CPS + "consumer";
+
+	/**
+	 * Set to drop the data contexts of done component exertions from the job
+	 * once consumed by its result consumer.
+	 */
+	public final static String EXERTION_DROP_CONSUMED = "exertion" + CPS + "drop" + CPS + "consumed";
+
+	/**
+	 * Key of large input data, e.g. a <code>sos://</code> URL, reused by
+	 * exertions dropped into a space. Space workers having the data cached
+	 * take exertions with their keys first.
+	 */
+	public final static String EXERTION_DATA_KEY = "exertion" + CPS + "data" + CPS + "key";
+
+	/**
+	 * Set for remote tasks to be returned by providers with only the paths
+	 * of their data contexts changed during execution, see {@link DeltaContext}.
+	 */
+	public final static String EXERTION_DELTA_RETURN = "exertion" + CPS + "delta" + CPS + "return";
+
+	/**
+	 * Set for tasks whose results may be reused for the same signature and
+	 * inputs. Providers reset it in results of operations that are not
+	 * cacheable.
+	 */
+	public final static String EXERTION_CACHEABLE = "exertion" + CPS + "cacheable";
+
 	public final static String EXERTION_PROVISIONABLE = "exertion" + CPS
 			+ "provisionable";
 
@@ -304,6 +361,83 @@ public class ControlContext extends ServiceContext<Object> implements RoutineStr
 		put(EXERTION_PROVISIONABLE, new Boolean(state));
 	}
 
+	public boolean isDataflow() {
+		return Boolean.TRUE.equals(get(EXERTION_DATAFLOW));
+	}
+
+	public void setDataflow(boolean state) {
+		put(EXERTION_DATAFLOW, new Boolean(state));
+	}
+
+	public boolean isSpeculative() {
+		return Boolean.TRUE.equals(get(EXERTION_SPECULATIVE));
+	}
+
+	public void setSpeculative(boolean state) {
+		put(EXERTION_SPECULATIVE, new Boolean(state));
+	}
+
+	public double getSpeculativePercentile() {
+		Object percentile = get(EXERTION_SPECULATIVE_PERCENTILE);
+		return percentile instanceof Number ? ((Number) percentile).doubleValue()
+				: DEFAULT_SPECULATIVE_PERCENTILE;
+	}
+
+	public void setSpeculativePercentile(double percentile) {
+		put(EXERTION_SPECULATIVE_PERCENTILE, percentile);
+	}
+
+	public int getBatchSize() {
+		Object size = get(EXERTION_BATCH_SIZE);
+		return size instanceof Number ? ((Number) size).intValue() : 0;
+	}
+
+	public void setBatchSize(int size) {
+		put(EXERTION_BATCH_SIZE, size);
+	}
+
+	public ResultConsumer getResultConsumer() {
+		Object consumer = get(EXERTION_RESULT_CONSUMER);
+		return consumer instanceof ResultConsumer ? (ResultConsumer) consumer : null;
+	}
+
+	public void setResultConsumer(ResultConsumer consumer) {
+		put(EXERTION_RESULT_CONSUMER, consumer);
+	}
+
+	public boolean isDropConsumed() {
+		return Boolean.TRUE.equals(get(EXERTION_DROP_CONSUMED));
+	}
+
+	public void setDropConsumed(boolean state) {
+		put(EXERTION_DROP_CONSUMED, new Boolean(state));
+	}
+
+	public String getDataKey() {
+		Object key = get(EXERTION_DATA_KEY);
+		return key instanceof String ? (String) key : null;
+	}
+
+	public void setDataKey(String key) {
+		put(EXERTION_DATA_KEY, key);
+	}
+
+	public boolean isDeltaReturn() {
+		return Boolean.TRUE.equals(get(EXERTION_DELTA_RETURN));
+	}
+
+	public void setDeltaReturn(boolean state) {
+		put(EXERTION_DELTA_RETURN, new Boolean(state));
+	}
+
+	public boolean isCacheable() {
+		return Boolean.TRUE.equals(get(EXERTION_CACHEABLE));
+	}
+
+	public void setCacheable(boolean state) {
+		put(EXERTION_CACHEABLE, new Boolean(state));
+	}
+
 	public boolean isShellRemote() {
 		return Boolean.TRUE.equals(get(SHELL_REMOTE));
 	}
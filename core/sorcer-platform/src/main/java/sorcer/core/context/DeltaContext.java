@@ -0,0 +1,169 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context;
+
+import net.jini.id.Uuid;
+import sorcer.service.Context;
+import sorcer.service.ContextException;
+import sorcer.service.Routine;
+import sorcer.service.Subroutine;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Data context of a task returned by a provider with only the paths whose
+ * values changed during the execution of the task. Requested with
+ * {@link ControlContext#setDeltaReturn(boolean)}, the provider takes a
+ * {@link Snapshot} of the task context before execution and replaces the
+ * context with its delta afterwards. The requestor patches the delta into
+ * the context of the task it sent.
+ *
+ * A value is considered unchanged if it is the same object with the same
+ * fingerprint as before the execution. Only immutable values, primitive
+ * arrays and arrays and collections of them are fingerprinted, other values
+ * are always returned. Paths removed by the provider are not removed from
+ * the requestor context.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class DeltaContext<T> extends ServiceContext<T> {
+
+	private static final long serialVersionUID = -2385418760184853417L;
+
+	public DeltaContext(String name) {
+		super(name);
+	}
+
+	/**
+	 * Returns the snapshot of the data context of the exertion taken before
+	 * its execution.
+	 */
+	public static Snapshot snapshot(Subroutine exertion) throws ContextException {
+		ServiceContext cxt = exertion.getDataContext();
+		return cxt != null ? new Snapshot(cxt) : null;
+	}
+
+	/**
+	 * Replaces the data context of the executed exertion by its delta to the
+	 * snapshot unless the exertion replaced its context by a context of a
+	 * different type.
+	 *
+	 * @return true if the data context was replaced by a delta
+	 */
+	public static boolean trim(Subroutine exertion, Snapshot snapshot) throws ContextException {
+		ServiceContext cxt = exertion.getDataContext();
+		if (snapshot == null || cxt == null || cxt.getClass() != snapshot.type)
+			return false;
+		DeltaContext delta = new DeltaContext(cxt.getName());
+		delta.mogramId = cxt.getId();
+		Iterator<Map.Entry> entries = cxt.entryIterator();
+		while (entries.hasNext()) {
+			Map.Entry entry = entries.next();
+			Object value = entry.getValue();
+			Object[] before = snapshot.values.get(entry.getKey());
+			if (before == null || before[0] != value || before[1] == null
+					|| !before[1].equals(fingerprint(value)))
+				delta.data.put(entry.getKey(), value);
+		}
+		exertion.setContext(delta);
+		return true;
+	}
+
+	/**
+	 * Patches the delta context of the returned exertion into the data
+	 * context of the sent one and sets the patched context to the returned
+	 * exertion. An exertion returned by a local provider is the sent one and
+	 * is left as it is.
+	 */
+	public static Routine patch(Routine sent, Routine returned) throws ContextException {
+		if (!(returned instanceof Subroutine) || !(sent instanceof Subroutine) || sent == returned)
+			return returned;
+		ServiceContext cxt = ((Subroutine) returned).getDataContext();
+		ServiceContext target = ((Subroutine) sent).getDataContext();
+		if (!(cxt instanceof DeltaContext) || target == null)
+			return returned;
+		Iterator<Map.Entry> entries = cxt.entryIterator();
+		while (entries.hasNext()) {
+			Map.Entry entry = entries.next();
+			target.put((String) entry.getKey(), entry.getValue());
+		}
+		((Subroutine) returned).setContext(target);
+		return returned;
+	}
+
+	/**
+	 * Returns a hash of the content of the value or null if the value can be
+	 * changed without changing its hash code.
+	 */
+	static Integer fingerprint(Object value) {
+		if (value == null)
+			return 0;
+		if (value instanceof String || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum || value instanceof Uuid
+				|| value instanceof Class || value == Context.none)
+			return value.hashCode();
+		if (value instanceof double[])
+			return Arrays.hashCode((double[]) value);
+		if (value instanceof int[])
+			return Arrays.hashCode((int[]) value);
+		if (value instanceof long[])
+			return Arrays.hashCode((long[]) value);
+		if (value instanceof float[])
+			return Arrays.hashCode((float[]) value);
+		if (value instanceof byte[])
+			return Arrays.hashCode((byte[]) value);
+		if (value instanceof short[])
+			return Arrays.hashCode((short[]) value);
+		if (value instanceof char[])
+			return Arrays.hashCode((char[]) value);
+		if (value instanceof boolean[])
+			return Arrays.hashCode((boolean[]) value);
+		if (value instanceof Object[])
+			return fingerprint(Arrays.asList((Object[]) value));
+		if (value instanceof Collection) {
+			int hash = 1;
+			for (Object element : (Collection) value) {
+				Integer fingerprint = fingerprint(element);
+				if (fingerprint == null)
+					return null;
+				hash = 31 * hash + fingerprint;
+			}
+			return hash;
+		}
+		return null;
+	}
+
+	/**
+	 * Values of a data context and their fingerprints before execution.
+	 */
+	public static class Snapshot {
+		private final Class<?> type;
+		private final Map<Object, Object[]> values = new HashMap<>();
+
+		Snapshot(ServiceContext cxt) {
+			type = cxt.getClass();
+			Iterator<Map.Entry> entries = cxt.entryIterator();
+			while (entries.hasNext()) {
+				Map.Entry entry = entries.next();
+				values.put(entry.getKey(), new Object[] { entry.getValue(), fingerprint(entry.getValue()) });
+			}
+		}
+	}
+}
@@ -47,6 +47,9 @@ import sorcer.util.ObjectCloner;
 import sorcer.util.Row;
 import sorcer.util.SorcerUtil;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.rmi.RemoteException;
@@ -65,8 +68,10 @@ import static sorcer.mo.operator.value;
 public class ServiceContext<T> extends ServiceMogram implements
 		Context<T>, AssociativeContext<T>, cxt<T>, SorcerConstants {
 
-	private static final long serialVersionUID = 3311956866023311727L;
+	private static final long serialVersionUID = 3311956866023311728L;
 	protected Map<String, T> data = new ConcurrentHashMap<>();
+	// set while data holds handles of bulk values not fetched yet
+	private transient volatile boolean bulk;
     protected Map<String, Path> paths = new ConcurrentHashMap<>();
     protected Map<String, Fidelity> multiFiPaths = new ConcurrentHashMap<>();
 	protected String subjectPath = "";
@@ -2893,6 +2898,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	public Entry entry(String path) {
 		Object obj = null;
 		if (path != null) {
+			resolveBulkValues();
 			obj = data.get(path);
 		}
 		if (obj instanceof Function) {
@@ -2904,12 +2910,37 @@ public class ServiceContext<T> extends ServiceMogram implements
 	@Override
 	public T get(String path) {
 		if (path != null){
+			resolveBulkValues();
 			return data.get(path);
 		} else {
 			return (T) Context.none;
 		}
 	}
 
+	/**
+	 * Replaces the handles of bulk values read with this context by the
+	 * values fetched in parallel from the side channel. Called on the paths
+	 * reading the data of this context, so no handle is seen or passed on.
+	 */
+	protected void resolveBulkValues() {
+		if (!bulk)
+			return;
+		for (T value : data.values()) {
+			if (value instanceof BulkValue)
+				((BulkValue) value).prefetch();
+		}
+		for (Map.Entry<String, T> entry : data.entrySet()) {
+			if (entry.getValue() instanceof BulkValue) {
+				try {
+					data.replace(entry.getKey(), entry.getValue(), (T) ((BulkValue) entry.getValue()).getData());
+				} catch (IOException e) {
+					throw new IllegalStateException("Could not fetch bulk value of: " + entry.getKey(), e);
+				}
+			}
+		}
+		bulk = false;
+	}
+
 	public Context setOutValues(Context<T> context) throws ContextException,
 			RemoteException {
 		List<String> pl = ((ServiceContext) context).getOutPaths();
@@ -3526,6 +3557,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public Collection<T> values() {
+		resolveBulkValues();
 		return data.values();
 	}
 
@@ -3569,14 +3601,17 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public Iterator<T> valueIterator() {
+		resolveBulkValues();
 		return data.values().iterator();
 	}
 
 	public Iterator<Map.Entry<String,T>> entryIterator() {
+		resolveBulkValues();
 		return data.entrySet().iterator();
 	}
 
 	public void putAll(Context<T> context) {
+		((ServiceContext) context).resolveBulkValues();
 		data.putAll((Map<? extends String, ? extends T>) ((ServiceContext) context).data);
 	}
 
@@ -3611,6 +3646,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public Function<T> getEntry(String path) {
+		resolveBulkValues();
 		return new Function(path, data.get(path));
 	}
 
@@ -3634,6 +3670,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 	public boolean compareTo(Object object, double delta) {
 		if (object instanceof Context) {
+			resolveBulkValues();
+			((ServiceContext) object).resolveBulkValues();
 			Iterator<String> ci = data.keySet().iterator();
 			while (ci.hasNext()) {
 				String path = ci.next();
@@ -3655,6 +3693,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 	@Override
 	public Contextion getChild(String name) {
+        resolveBulkValues();
         Object domain = data.get(name);
         if (domain instanceof Contextion) {
             return (Contextion) domain;
@@ -3807,6 +3846,7 @@ public class ServiceContext<T> extends ServiceMogram implements
         super.copyFrom(context);
 
         // ServiceContext proprties
+        context.resolveBulkValues();
         this.data = context.data;
         this.paths = context.paths;
         this.multiFiPaths =  context.multiFiPaths;
@@ -3926,4 +3966,84 @@ public class ServiceContext<T> extends ServiceMogram implements
 	public void setEvalCount(int evalCount) {
 		this.evalCount = evalCount;
 	}
+
+	/**
+	 * Writes this context with its data, paths and metacontext in the compact
+	 * encoding of {@link ContextStreams}. The serialized fields are written
+	 * as before, with null maps.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("subjectPath", subjectPath);
+		fields.put("subjectValue", subjectValue);
+		fields.put("jobContextReturn", jobContextReturn);
+		fields.put("argsPath", argsPath);
+		fields.put("parameterTypesPath", parameterTypesPath);
+		fields.put("isShared", isShared);
+		fields.put("prefix", prefix);
+		fields.put("entryLists", entryLists);
+		fields.put("initContext", initContext);
+		fields.put("exertion", exertion);
+		fields.put("currentPrefix", currentPrefix);
+		fields.put("isFinalized", isFinalized);
+		fields.put("contextType", contextType);
+		fields.put("intentType", intentType);
+		fields.put("pattern", pattern);
+		fields.put("direction", direction);
+		fields.put("traceList", traceList);
+		fields.put("evalCount", evalCount);
+		fields.put("isSoft", isSoft);
+		fields.put("isSelf", isSelf);
+		fields.put("isPersistantTaskAssociated", isPersistantTaskAssociated);
+		fields.put("colabType", colabType);
+		fields.put("optiType", optiType);
+		// values of handles are written inline or exported again
+		resolveBulkValues();
+		out.writeFields();
+		ContextStreams.writeHeader(out);
+		ContextStreams.writeMap(out, data);
+		ContextStreams.writeMap(out, paths);
+		ContextStreams.writeMap(out, multiFiPaths);
+		ContextStreams.writeMetacontext(out, metacontext);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		// the fields may refer back to this context before its maps are read
+		data = new ConcurrentHashMap<>();
+		paths = new ConcurrentHashMap<>();
+		multiFiPaths = new ConcurrentHashMap<>();
+		ObjectInputStream.GetField fields = in.readFields();
+		subjectPath = (String) fields.get("subjectPath", "");
+		subjectValue = fields.get("subjectValue", "");
+		jobContextReturn = (Context.Return<T>) fields.get("jobContextReturn", null);
+		argsPath = (String) fields.get("argsPath", null);
+		parameterTypesPath = (String) fields.get("parameterTypesPath", null);
+		isShared = fields.get("isShared", false);
+		prefix = (String) fields.get("prefix", "");
+		entryLists = (List<EntryList>) fields.get("entryLists", null);
+		initContext = (Context) fields.get("initContext", null);
+		exertion = (Subroutine) fields.get("exertion", null);
+		currentPrefix = (String) fields.get("currentPrefix", null);
+		isFinalized = fields.get("isFinalized", false);
+		contextType = (Context.Type) fields.get("contextType", Context.Type.CONTEXT);
+		intentType = (IntentType) fields.get("intentType", IntentType.EVALUATE);
+		pattern = (Model.Pattern) fields.get("pattern", Model.Pattern.ANAL);
+		direction = (Signature.Direction) fields.get("direction", Signature.Direction.INOUT);
+		traceList = (List<String>) fields.get("traceList", null);
+		evalCount = fields.get("evalCount", 0);
+		isSoft = fields.get("isSoft", false);
+		isSelf = fields.get("isSelf", false);
+		isPersistantTaskAssociated = fields.get("isPersistantTaskAssociated", false);
+		colabType = (Strategy.Colab) fields.get("colabType", Strategy.Colab.BBnew);
+		optiType = (Strategy.Opti) fields.get("optiType", Strategy.Opti.MIN);
+		ContextStreams.readHeader(in);
+		data = ContextStreams.readMap(in, data);
+		paths = ContextStreams.readMap(in, paths);
+		multiFiPaths = ContextStreams.readMap(in, multiFiPaths);
+		metacontext = ContextStreams.readMetacontext(in);
+		for (T value : data.values()) {
+			if (value instanceof BulkValue)
+				bulk = true;
+		}
+	}
 }
@@ -84,6 +84,7 @@ public class DataContext<T> extends PositionalContext<T> {
      */
     @Override
     public T getValue(String path, Arg... args) throws ContextException {
+        resolveBulkValues();
         Object obj = data.get(path);
         try {
             if (obj instanceof Entry && ((Entry)obj).isPersistent()) {
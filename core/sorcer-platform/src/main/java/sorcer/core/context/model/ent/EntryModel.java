@@ -460,6 +460,7 @@ public class EntryModel extends PositionalContext<Object> implements Model, Invo
 	public Entry entry(String path) {
 		Object entry = null;
 		if (path != null) {
+			resolveBulkValues();
 			entry = data.get(path);
 		}
 		if (entry instanceof Function) {
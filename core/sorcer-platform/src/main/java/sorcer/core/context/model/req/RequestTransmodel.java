@@ -202,6 +202,7 @@ public class RequestTransmodel extends RequestModel implements Transmodel, Confi
             domain = path$domain.substring(ind + 1);
             return ((ServiceMogram)getChild(domain)).get(path);
         } else if (path$domain != null){
+            resolveBulkValues();
             return data.get(path$domain);
         } else {
             return Context.none;
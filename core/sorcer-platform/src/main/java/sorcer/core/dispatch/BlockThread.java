@@ -30,7 +30,6 @@ public class BlockThread extends Thread {
 	private final static Logger logger = LoggerFactory.getLogger(BlockThread.class
 			.getName());
 
-	private static final int SLEEP_TIME = 250;
 	// doBlock method calls internally
 	private Block block;
 	private Arg[] args;
@@ -66,22 +65,9 @@ public class BlockThread extends Thread {
 				dispatcher = MogramDispatcherFactory.getFactory().createDispatcher(block, provider);
 
             dispatcher.exec(args);
+			// wait for the completion of the dispatcher
             DispatchResult result = dispatcher.getResult();
 
-			/*int COUNT = 1000;
-			int count = COUNT;
-			while (governor.getState() != Exec.DONE
-					&& governor.getState() != Exec.FAILED
-					&& governor.getState() != Exec.SUSPENDED) {
-				count--;
-				if (count < 0) {
-					logger.debug("*** Concatenator's Subroutine Dispatch waiting in state: "
-							+ governor.getState());
-					count = COUNT;
-				}
-				Thread.sleep(SLEEP_TIME);
-			} */
-
 			logger.debug("*** Dispatch exit state = " + dispatcher.getClass().getName()  + " state: " + result.state
 					+ " for block***\n" + block.getControlContext());
             this.result = (Block) result.exertion;
@@ -0,0 +1,211 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.exertion.EvaluationTask;
+import sorcer.service.*;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import static sorcer.service.Exec.*;
+
+/**
+ * Dispatches the component domains of an AUTO flow job as a dataflow
+ * (wavefront) over the dependency graph built by the {@link ExertionSorter}.
+ * An exertion is started as soon as all exertions it reads piped inputs from
+ * are done, so independent branches of the job run in parallel while piped
+ * exertions still see their inputs updated from shared contexts.
+ *
+ * The context handling of the {@link CatalogSequentialDispatcher} is kept: a
+ * continuous task waits for the exertion preceding it in the job and takes
+ * its context, an evaluation task reads the data context of the job. The
+ * result context of a block is appended to the data context of the job, so
+ * the exertions following a block in the job wait for it.
+ */
+public class CatalogDataflowDispatcher extends CatalogParallelDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(CatalogDataflowDispatcher.class);
+
+    private final Map<Contextion, Set<Contextion>> dependencies;
+
+    public CatalogDataflowDispatcher(Job job,
+                                     Map<Contextion, Set<Contextion>> dependencies,
+                                     Set<Context> sharedContexts,
+                                     boolean isSpawned,
+                                     Exerter provider,
+                                     ProvisionManager provisionManager) {
+        super(job, sharedContexts, isSpawned, provider, provisionManager);
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public void doExec(Arg... args) throws RoutineException, SignatureException {
+        String pn;
+        if (inputXrts == null) {
+            xrt.setStatus(FAILED);
+            setState(FAILED);
+            try {
+                pn = provider.getProviderName();
+                if (pn == null)
+                    pn = provider.getClass().getName();
+                RoutineException fe = new RoutineException(pn + " received invalid job: "
+                        + xrt.getName(), xrt);
+
+                xrt.reportException(fe);
+                dispatchers.remove(xrt.getId());
+                throw fe;
+            } catch (RemoteException e) {
+                logger.warn("Error during local pcr", e);
+            }
+        }
+
+        xrt.startExecTime();
+        try {
+            execDomains();
+        } finally {
+            xrt.stopExecTime();
+        }
+    }
+
+    private void execDomains() throws RoutineException, SignatureException {
+        // count of unfinished upstream exertions and the reverse edges for all inputs
+        Map<Contextion, Integer> pending = new HashMap<Contextion, Integer>();
+        Map<Contextion, List<Contextion>> dependents = new HashMap<Contextion, List<Contextion>>();
+        // exertions preceding continuous tasks in the job
+        Map<Contextion, Contextion> previous = new HashMap<Contextion, Contextion>();
+        // blocks preceding exertions in the job, their results are appended to the job context
+        Map<Contextion, Contextion> blocks = new HashMap<Contextion, Contextion>();
+        Contextion last = null;
+        Contextion block = null;
+        for (Contextion mogram : inputXrts) {
+            if (mogram instanceof Routine) {
+                pending.put(mogram, 0);
+                dependents.put(mogram, new ArrayList<Contextion>());
+                if (last != null && ((Routine) mogram).isTask() && ((Task) mogram).isContinous())
+                    previous.put(mogram, last);
+                if (block != null)
+                    blocks.put(mogram, block);
+                last = mogram;
+                if (mogram instanceof Block)
+                    block = mogram;
+            }
+        }
+        for (Contextion mogram : pending.keySet()) {
+            Set<Contextion> upstream = new LinkedHashSet<Contextion>();
+            if (dependencies.get(mogram) != null)
+                upstream.addAll(dependencies.get(mogram));
+            if (previous.containsKey(mogram))
+                upstream.add(previous.get(mogram));
+            if (blocks.containsKey(mogram))
+                upstream.add(blocks.get(mogram));
+            for (Contextion dep : upstream) {
+                // dependencies outside of the inputs (master or skipped) are not waited on
+                if (pending.containsKey(dep)) {
+                    pending.put(mogram, pending.get(mogram) + 1);
+                    dependents.get(dep).add(mogram);
+                }
+            }
+        }
+
+        CompletionService<Routine> completion = new ExecutorCompletionService<Routine>(executor);
+        Map<Future<Routine>, Contextion> running = new HashMap<Future<Routine>, Contextion>();
+        Map<Contextion, Routine> finished = new HashMap<Contextion, Routine>();
+        for (Contextion mogram : inputXrts) {
+            if (pending.containsKey(mogram) && pending.get(mogram) == 0)
+                running.put(start(completion, (Subroutine) mogram, null), mogram);
+        }
+
+        boolean isFailed = false;
+        boolean isSuspended = false;
+        int done = 0;
+        while (!running.isEmpty()) {
+            Future<Routine> result;
+            try {
+                result = completion.take();
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted while waiting for domains of {}", xrt.getName(), e);
+                for (Future<Routine> f : running.keySet())
+                    f.cancel(true);
+                isFailed = true;
+                break;
+            }
+            Contextion mogram = running.remove(result);
+            done++;
+            try {
+                Subroutine se = (Subroutine) result.get();
+                finished.put(mogram, se);
+                se.stopExecTime();
+                if (se.getStatus() == FAILED)
+                    isFailed = true;
+                else if (se.getStatus() == SUSPENDED)
+                    isSuspended = true;
+                else if (se instanceof Block)
+                    xrt.getDataContext().append(se.getContext());
+            } catch (ContextException e) {
+                logger.warn("Error while appending the context of {}", mogram.getName(), e);
+                isFailed = true;
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted {}", mogram.getName(), e);
+                isFailed = true;
+            } catch (ExecutionException e) {
+                logger.warn("Error while executing {}", mogram.getName(), e.getCause());
+                isFailed = true;
+            }
+            // do not start the downstream exertions of a failed or suspended job,
+            // only let the running ones complete
+            if (isFailed || isSuspended)
+                continue;
+            for (Contextion dependent : dependents.get(mogram)) {
+                int count = pending.get(dependent) - 1;
+                pending.put(dependent, count);
+                if (count == 0)
+                    running.put(start(completion, (Subroutine) dependent, finished.get(previous.get(dependent))),
+                            dependent);
+            }
+        }
+        if (!isFailed && !isSuspended && done < pending.size()) {
+            logger.warn("Unresolved dependencies in: {}, executed {} of {} domains",
+                    xrt.getName(), done, pending.size());
+            isFailed = true;
+        }
+        completeExec(isFailed, isSuspended);
+    }
+
+    /**
+     * Submits the exertion with the context handling of the sequential dispatch.
+     *
+     * @param previous the result of the exertion preceding a continuous task
+     */
+    private Future<Routine> start(CompletionService<Routine> completion, Subroutine se, Routine previous)
+            throws RoutineException {
+        try {
+            if (previous != null)
+                se.setContext(previous.getContext());
+            else if (se instanceof EvaluationTask)
+                se.setDataContext(xrt.getDataContext());
+        } catch (ContextException e) {
+            throw new RoutineException(e);
+        }
+        return completion.submit(new ExecExertion(se));
+    }
+}
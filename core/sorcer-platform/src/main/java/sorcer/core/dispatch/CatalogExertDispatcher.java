@@ -23,6 +23,8 @@ import net.jini.core.lookup.ServiceTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.Dispatcher;
+import sorcer.core.context.DeltaContext;
+import sorcer.core.context.ThrowableTrace;
 import sorcer.core.exertion.NetTask;
 import sorcer.core.provider.*;
 import sorcer.core.signature.RemoteSignature;
@@ -30,6 +32,8 @@ import sorcer.core.signature.ServiceSignature;
 import sorcer.service.*;
 
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static sorcer.service.Exec.*;
@@ -50,6 +54,13 @@ abstract public class CatalogExertDispatcher extends ExertDispatcher {
     protected Routine execExertion(Routine ex, Arg... args) throws SignatureException,
             RoutineException {
         beforeExec(ex);
+        return dispatchExertion(ex, args);
+    }
+
+    /**
+     * Executes the exertion already prepared by {@link #beforeExec(Routine)}.
+     */
+    private Routine dispatchExertion(Routine ex, Arg... args) {
         // setValue subject before task goes out.
         // ex.setSubject(subject);
         Subroutine result = null;
@@ -136,7 +147,7 @@ abstract public class CatalogExertDispatcher extends ExertDispatcher {
             RemoteSignature sig = (RemoteSignature) task.getProcessSignature();
             // Catalog lookup or use Lookup Service for the particular
             // service
-            Service service = (Service) Accessor.get().getService(sig);
+            Service service = (Service) lookupService(sig);
             /*if (service == null && task.isProvisionable()) {
                 MonitoringSession monSession = MonitorUtil.getMonitoringSession(task);
                 if (task.isMonitorable() && monSession!=null) {
@@ -199,7 +210,20 @@ abstract public class CatalogExertDispatcher extends ExertDispatcher {
                          * (RemoteServiceTask)provider.service(task); }
                          */
                         logger.debug("getting result from provider...");
-                        result = ((Exertion)service).exert(task, null);
+                        int reported = task.getExceptions().size();
+                        result = (Task) DeltaContext.patch(task, ((Exertion)service).exert(task, null));
+                        long retryAfter = getRetryAfter(result, reported);
+                        if (retryAfter > 0 && tried < maxTries) {
+                            // rejected by a saturated provider, route to another one if available
+                            logger.info("Provider saturated for task: {}, retry after {} ms", task.getName(), retryAfter);
+                            result = null;
+                            Service next = (Service) lookupService(sig);
+                            if (next == null || next.equals(service))
+                                // other domains get the permits of this one meanwhile
+                                dispatchExecutor.pause(retryAfter);
+                            else
+                                service = next;
+                        }
 
                     } catch (Exception re) {
                         if (tried >= maxTries) {
@@ -208,7 +232,7 @@ abstract public class CatalogExertDispatcher extends ExertDispatcher {
                         }
                         else {
                             logger.info("Problem exerting task, retrying " + tried + " time: " + xrt.getName() + " " + re.getMessage());
-                            service = (Service) Accessor.get().getService(sig);
+                            service = (Service) lookupService(sig);
                             try {
                                 logger.info("+++++++++++++++Got service: " + ((Exerter)service).getProviderID());
                             } catch (Exception e) {
@@ -245,6 +269,86 @@ abstract public class CatalogExertDispatcher extends ExertDispatcher {
         return result;
     }
 
+    /**
+     * Returns a provider for the signature from the catalog or lookup services.
+     */
+    protected Object lookupService(RemoteSignature sig) {
+        return Accessor.get().getService(sig);
+    }
+
+    /**
+     * Executes remote tasks with the same process signature with one call of
+     * a provider implementing {@link BatchExertion}. The tasks are executed
+     * one by one when there is no such provider or the batch call fails.
+     *
+     * @return results in the order of the tasks, each with its own status
+     */
+    protected List<Routine> execBatch(List<Task> tasks, Arg... args) throws RoutineException,
+            SignatureException {
+        RemoteSignature sig = (RemoteSignature) tasks.get(0).getProcessSignature();
+        Object service = lookupService(sig);
+        List<Contextion> outs = null;
+        if (service instanceof BatchExertion) {
+            for (Task task : tasks) {
+                beforeExec(task);
+                task.setService((Service) service);
+            }
+            try {
+                outs = ((BatchExertion) service).exertAll(tasks, null, args);
+            } catch (ServiceException | RemoteException e) {
+                logger.warn("Batch of {} tasks failed for: {}, executing them one by one",
+                        tasks.size(), sig, e);
+            }
+        }
+        List<Routine> results = new ArrayList<Routine>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (outs == null && service instanceof BatchExertion)
+                // prepared for the failed batch call
+                results.add(dispatchExertion(tasks.get(i), args));
+            else if (outs == null)
+                results.add(execExertion(tasks.get(i), args));
+            else
+                results.add(completeBatchTask(tasks.get(i), (Subroutine) outs.get(i)));
+        }
+        return results;
+    }
+
+    private Routine completeBatchTask(Task task, Subroutine result) {
+        boolean failed = result.getStatus() <= FAILED || result.getExceptionCount() > 0;
+        try {
+            DeltaContext.patch(task, result);
+            if (failed)
+                result.setStatus(FAILED);
+            afterExec(task, result);
+            if (!failed)
+                result.setStatus(DONE);
+            result.getControlContext().appendTrace((provider != null ? provider.getProviderName() + " " : "")
+                    + "governor: " + getClass().getName() + " batch");
+        } catch (Exception e) {
+            logger.warn("Error while completing batch task: ", e);
+            result.reportException(e);
+            result.setStatus(FAILED);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time to wait before a retry requested by the exceptions
+     * reported by the last attempt, the exceptions following the given number
+     * of exceptions reported before.
+     */
+    private long getRetryAfter(Task result, int reported) throws RemoteException {
+        if (result == null)
+            return 0;
+        List<ThrowableTrace> exceptions = result.getExceptions();
+        for (int i = reported; i < exceptions.size(); i++) {
+            long retryAfter = ProviderException.getRetryAfter(exceptions.get(i).getThrowable());
+            if (retryAfter > 0)
+                return retryAfter;
+        }
+        return 0;
+    }
+
     protected Job execJob(Job job, Arg ... args)
             throws DispatchException, InterruptedException,
             RemoteException {
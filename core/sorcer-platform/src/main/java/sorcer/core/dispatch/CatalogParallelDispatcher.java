@@ -18,23 +18,47 @@
 
 package sorcer.core.dispatch;
 
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.core.lookup.ServiceTemplate;
+import net.jini.id.UuidFactory;
+import net.jini.lookup.entry.Name;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sorcer.core.analytics.AnalyticsProducer;
+import sorcer.core.analytics.MethodAnalytics;
+import sorcer.core.context.ControlContext;
+import sorcer.core.context.DeltaContext;
 import sorcer.core.exertion.Mograms;
+import sorcer.core.exertion.NetTask;
+import sorcer.core.signature.RemoteSignature;
 import sorcer.service.Exerter;
 import sorcer.service.*;
+import sorcer.util.ObjectCloner;
 
+import java.io.IOException;
+import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.*;
 
+import static sorcer.core.SorcerConstants.ANY;
 import static sorcer.service.Exec.*;
 
 public class CatalogParallelDispatcher extends CatalogExertDispatcher {
     private final Logger logger = LoggerFactory.getLogger(CatalogParallelDispatcher.class);
-    protected ExecutorService executor = Executors.newCachedThreadPool();
+    protected ExecutorService executor;
+    // latency thresholds of speculative tasks by provider and selector
+    private final Map<String, SpeculativeDelay> speculativeDelays = new ConcurrentHashMap<String, SpeculativeDelay>();
+    // time in milliseconds a latency threshold, or its absence, is reused
+    private static final long SPECULATIVE_DELAY_TTL = 30 * 1000L;
+    // providers matching the signatures of speculative tasks, looked up once per job
+    private final Map<List<Object>, ServiceItem[]> speculativeItems = new ConcurrentHashMap<List<Object>, ServiceItem[]>();
 
     public CatalogParallelDispatcher(Job job,
             Set<Context> sharedContexts,
@@ -42,14 +66,25 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
             Exerter provider,
             ProvisionManager provisionManager) {
 		super(job, sharedContexts, isSpawned, provider, provisionManager);
+        executor = dispatchExecutor.forJob(job.getName());
 	}
 
+    @Override
+    public void setDispatchExecutor(DispatchExecutor dispatchExecutor) {
+        super.setDispatchExecutor(dispatchExecutor);
+        executor = dispatchExecutor.forJob(xrt.getName());
+    }
+
     @Override
     public void exec(Arg... args) {
-        executor.submit(new Runnable() {
+        dispatchExecutor.executeGovernor(new Runnable() {
             @Override
             public void run() {
-                CatalogParallelDispatcher.super.exec(args);
+                try {
+                    CatalogParallelDispatcher.super.exec(args);
+                } finally {
+                    executor.shutdown();
+                }
             }
         });
     }
@@ -57,21 +92,36 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
     public void doExec(Arg... args) throws RoutineException,
 			SignatureException {
         List<Future<Routine>> results = new ArrayList<Future<Routine>>(inputXrts.size());
+        List<Future<List<Routine>>> batches = new ArrayList<Future<List<Routine>>>();
+        ControlContext cc = (ControlContext) xrt.getControlContext();
+        int batchSize = cc.isSpeculative() ? 0 : cc.getBatchSize();
+        Map<String, List<Task>> groups = new LinkedHashMap<String, List<Task>>();
         for (Contextion mogram : inputXrts) {
-            if (mogram instanceof Routine)
+            if (batchSize > 1 && isBatchable(mogram)) {
+                String key = getBatchKey((Task) mogram);
+                if (!groups.containsKey(key))
+                    groups.put(key, new ArrayList<Task>());
+                groups.get(key).add((Task) mogram);
+            } else if (mogram instanceof Routine)
                 results.add(executor.submit(new ExecExertion((Routine)mogram)));
 		}
+        for (List<Task> group : groups.values()) {
+            if (group.size() == 1) {
+                results.add(executor.submit(new ExecExertion(group.get(0))));
+                continue;
+            }
+            for (int i = 0; i < group.size(); i += batchSize) {
+                List<Task> batch = new ArrayList<Task>(group.subList(i, Math.min(i + batchSize, group.size())));
+                batches.add(executor.submit(new ExecBatch(batch)));
+            }
+        }
 
         boolean isFailed = false;
         boolean isSuspended = false;
+        List<Routine> done = new ArrayList<Routine>(inputXrts.size());
         for (Future<Routine> result : results) {
             try {
-                Subroutine se = (Subroutine) result.get();
-                se.stopExecTime();
-                if (se.getStatus() == FAILED)
-                    isFailed = true;
-                else if (se.getStatus() == SUSPENDED)
-                    isSuspended = true;
+                done.add(result.get());
             } catch (InterruptedException e) {
                 logger.warn("Interrupted {}", result, e);
                 isFailed = true;
@@ -80,9 +130,54 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
                 isFailed = true;
             }
         }
+        for (Future<List<Routine>> batch : batches) {
+            try {
+                done.addAll(batch.get());
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted {}", batch, e);
+                isFailed = true;
+            } catch (ExecutionException e) {
+                logger.warn("Error while executing batch {}", batch, e.getCause());
+                isFailed = true;
+            }
+        }
+        for (Routine result : done) {
+            Subroutine se = (Subroutine) result;
+            se.stopExecTime();
+            if (se.getStatus() == FAILED)
+                isFailed = true;
+            else if (se.getStatus() == SUSPENDED)
+                isSuspended = true;
+        }
+        completeExec(isFailed, isSuspended);
+	}
+
+    private boolean isBatchable(Contextion mogram) {
+        try {
+            return mogram instanceof NetTask
+                    && ((NetTask) mogram).getService() == null;
+        } catch (SignatureException e) {
+            return false;
+        }
+    }
+
+    String getBatchKey(Task task) {
+        Signature sig = task.getProcessSignature();
+        String name = sig.getProviderName() != null ? sig.getProviderName().getName() : null;
+        if (name == null || ANY.equals(name))
+            name = "";
+        return sig.getServiceType().getName() + "#" + sig.getSelector() + "#" + name;
+    }
+
+    /**
+     * Completes the job once all component domains are back: reports a failed
+     * or suspended job, otherwise executes the master exertion if any.
+     */
+    protected void completeExec(boolean isFailed, boolean isSuspended) throws RoutineException,
+            SignatureException {
 		if (isFailed) {
 			xrt.setStatus(FAILED);
-			state = FAILED;
+			setState(FAILED);
 			RoutineException fe = new RoutineException(this.getClass().getName()
 					+ " failed job", xrt);
 			xrt.reportException(fe);
@@ -91,7 +186,7 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
 		}
 		else if (isSuspended) {
 			xrt.setStatus(SUSPENDED);
-			state = SUSPENDED;
+			setState(SUSPENDED);
 			RoutineException fe = new RoutineException(this.getClass().getName()
 					+ " suspended job", xrt);
 			xrt.reportException(fe);
@@ -116,14 +211,198 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
 		}
 		xrt.setStatus(DONE);
 		dispatchers.remove(xrt.getId());
-		state = DONE;
+		setState(DONE);
 	}
 
+    @Override
+    protected Task execTask(Task task, Arg... args) throws ServiceException,
+            SignatureException, RemoteException {
+        if (task instanceof NetTask && ((ControlContext) xrt.getControlContext()).isSpeculative())
+            return execSpeculativeTask(task, args);
+        return super.execTask(task, args);
+    }
+
+    /**
+     * Executes an idempotent remote task on one of the matching providers. If
+     * the task runs longer than the speculative percentile of the provider's
+     * recent exec times for the selector, a copy of the task is submitted to
+     * another matching provider. Both run on the hedge executor, so they are
+     * not held back by the job quota. The first result is returned and the
+     * other execution is cancelled locally and stopped on its provider.
+     * Tasks without another matching provider or without recorded analytics
+     * are executed as usual.
+     */
+    protected Task execSpeculativeTask(final Task task, Arg... args) throws RoutineException {
+        RemoteSignature sig = (RemoteSignature) task.getProcessSignature();
+        ServiceItem[] items = getServiceItems(sig);
+        if (items.length < 2)
+            return execServiceTask(task, args);
+        int index = ThreadLocalRandom.current().nextInt(items.length);
+        final ServiceItem primary = items[index];
+        final ServiceItem alternative = items[(index + 1) % items.length];
+        long delay = getSpeculativeDelay(primary, sig.getSelector(),
+                ((ControlContext) xrt.getControlContext()).getSpeculativePercentile());
+        final Task copy = delay > 0 ? (Task) ObjectCloner.clone(task) : null;
+        if (copy == null)
+            return execServiceTask(task, args);
+        // the copy is stopped on its provider independently of the task
+        copy.setId(UuidFactory.generate());
+
+        CompletionService<Task> race = new ExecutorCompletionService<Task>(dispatchExecutor.getHedgeExecutor());
+        Future<Task> first = race.submit(new Callable<Task>() {
+            @Override
+            public Task call() throws Exception {
+                return exertOn(primary, task);
+            }
+        });
+        Future<Task> second = null;
+        Future<Task> winner = null;
+        try {
+            Future<Task> done = race.poll(delay, TimeUnit.MILLISECONDS);
+            if (done == null) {
+                logger.info("Task {} exceeded {} ms, speculatively executing it on: {}",
+                        task.getName(), delay, alternative.serviceID);
+                second = race.submit(new Callable<Task>() {
+                    @Override
+                    public Task call() throws Exception {
+                        return exertOn(alternative, copy);
+                    }
+                });
+                done = race.take();
+            }
+            try {
+                Task result = done.get();
+                winner = done;
+                return result;
+            } catch (ExecutionException e) {
+                if (second == null) {
+                    logger.warn("Task {} failed on: {}, retrying", task.getName(), primary.serviceID, e.getCause());
+                    return execServiceTask(task, args);
+                }
+                logger.warn("Speculative execution of {} failed, waiting for the other one",
+                        task.getName(), e.getCause());
+                done = race.take();
+                Task result = done.get();
+                winner = done;
+                return result;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RoutineException("Interrupted while executing task: " + task.getName(), e);
+        } catch (ExecutionException e) {
+            throw new RoutineException("Speculative execution failed for task: " + task.getName(), e.getCause());
+        } finally {
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+                // the remote executions keep running unless stopped
+                if (winner != first)
+                    stopOn(primary, task);
+                if (winner != second)
+                    stopOn(alternative, copy);
+            }
+        }
+    }
+
+    private void stopOn(final ServiceItem item, final Task task) {
+        if (!(item.service instanceof Monitorable))
+            return;
+        dispatchExecutor.getHedgeExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ((Monitorable) item.service).stop(task.getId(), null);
+                } catch (Exception e) {
+                    // already completed or not reachable
+                    logger.debug("Could not stop task {} on: {}", task.getName(), item.serviceID, e);
+                }
+            }
+        });
+    }
+
+    private Task exertOn(ServiceItem item, Task task) throws Exception {
+        task.setService((Service) item.service);
+        Task result = (Task) DeltaContext.patch(task, ((Exertion) item.service).exert(task, null));
+        result.getControlContext().appendTrace((provider != null ? provider.getProviderName() + " " : "")
+                + "governor: " + getClass().getName());
+        return result;
+    }
+
+    /**
+     * Returns the exec time in milliseconds at the percentile of the
+     * provider's recent calls of the selector, or -1 if not available. Both
+     * are reused for {@link #SPECULATIVE_DELAY_TTL} milliseconds.
+     */
+    private long getSpeculativeDelay(ServiceItem item, String selector, double percentile) {
+        String key = item.serviceID + "#" + selector;
+        SpeculativeDelay cached = speculativeDelays.get(key);
+        if (cached != null && cached.expires > System.currentTimeMillis())
+            return cached.millis;
+        long delay = -1L;
+        if (item.service instanceof AnalyticsProducer) {
+            try {
+                MethodAnalytics analytics = ((AnalyticsProducer) item.service).getMethodAnalytics(selector);
+                if (analytics != null) {
+                    long nanos = analytics.getExecTimePercentile(percentile);
+                    if (nanos >= 0)
+                        delay = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(nanos));
+                }
+            } catch (IOException e) {
+                logger.debug("Unable to get analytics of {} from: {}", selector, item.serviceID, e);
+            }
+        }
+        speculativeDelays.put(key, new SpeculativeDelay(delay));
+        return delay;
+    }
+
+    private static class SpeculativeDelay {
+        final long millis;
+        final long expires = System.currentTimeMillis() + SPECULATIVE_DELAY_TTL;
+
+        SpeculativeDelay(long millis) {
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * Returns the providers matching the signature of a speculative task. The
+     * lookup is done once per signature for the job.
+     */
+    protected ServiceItem[] getServiceItems(RemoteSignature sig) {
+        Class[] types = sig.getMatchTypes() != null ? sig.getMatchTypes() : new Class[] { sig.getServiceType() };
+        String name = sig.getProviderName() != null ? sig.getProviderName().getName() : null;
+        if (name != null && (name.isEmpty() || ANY.equals(name)))
+            name = null;
+        List<Object> key = Arrays.<Object>asList(Arrays.asList(types), name);
+        ServiceItem[] items = speculativeItems.get(key);
+        if (items == null) {
+            Entry[] attributes = name != null ? new Entry[] { new Name(name) } : null;
+            items = Accessor.get().getServiceItems(new ServiceTemplate(null, types, attributes), null);
+            if (items == null)
+                items = new ServiceItem[0];
+            speculativeItems.put(key, items);
+        }
+        return items;
+    }
+
     @Override
     protected List<Contextion> getInputExertions() throws ContextException {
         return Mograms.getInputExertions(((Job) xrt));
     }
 
+    protected class ExecBatch implements Callable<List<Routine>> {
+        private final List<Task> tasks;
+
+        public ExecBatch(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public List<Routine> call() throws Exception {
+            return execBatch(tasks);
+        }
+    }
+
     protected class ExecExertion implements Callable<Routine> {
         private final Routine exertion;
 
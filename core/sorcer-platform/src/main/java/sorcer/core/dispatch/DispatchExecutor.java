@@ -0,0 +1,480 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.ConfigurableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide executor shared by all exertion dispatchers.
+ *
+ * Dispatcher governors (the thread driving a job) are always run on a pooled
+ * thread. Component exertions of a job are submitted through a per-job
+ * executor, see {@link #forJob(String)}, and are limited by a global cap and
+ * a per-job quota. Submissions never block the caller: the ones that can
+ * not get a permit are queued in submission order and started when permits
+ * are released. Only a submission of a nested job, made by a domain holding
+ * a permit or by the governor it started, is started on a pooled thread
+ * beyond the cap when still queued {@link #MAX_WAIT} after it was made, so
+ * nested jobs blocking on their inner domains can not dead-lock the shared
+ * pool.
+ *
+ * The executor is configured with system properties:
+ * {@link #MAX_CONCURRENCY}, {@link #JOB_CONCURRENCY}, {@link #MAX_WAIT} and
+ * {@link #VIRTUAL_THREADS}. Virtual threads are used only when supported by
+ * the running JVM.
+ */
+public class DispatchExecutor {
+    private final static Logger logger = LoggerFactory.getLogger(DispatchExecutor.class);
+
+    public final static String MAX_CONCURRENCY = "sorcer.dispatch.maxConcurrency";
+    public final static String JOB_CONCURRENCY = "sorcer.dispatch.jobConcurrency";
+    public final static String MAX_WAIT = "sorcer.dispatch.maxWait";
+    public final static String VIRTUAL_THREADS = "sorcer.dispatch.virtualThreads";
+
+    public final static int DEFAULT_MAX_CONCURRENCY = 256;
+    public final static int DEFAULT_JOB_CONCURRENCY = 32;
+    public final static long DEFAULT_MAX_WAIT = 200L;
+
+    private static DispatchExecutor instance;
+
+    private final ExecutorService pool;
+    // drains the queue when the oldest submissions reach their deadline
+    private final ScheduledExecutorService timer;
+    // submissions waiting for permits, guarded by itself
+    private final LinkedList<Pending> queue = new LinkedList<Pending>();
+    // runs speculative executions, created when first used
+    private ExecutorService hedgePool;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final int jobConcurrency;
+    private final long maxWait;
+    private final boolean virtual;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong overflow = new AtomicLong();
+    // set in threads running domains and in the governors they start
+    private final ThreadLocal<Boolean> dispatching = new ThreadLocal<Boolean>();
+    // submission of the domain run by the thread
+    private final ThreadLocal<Pending> running = new ThreadLocal<Pending>();
+
+    private final Runnable drainer = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    public DispatchExecutor(int maxConcurrency, int jobConcurrency, long maxWait, boolean virtualThreads) {
+        this.maxConcurrency = maxConcurrency;
+        this.jobConcurrency = jobConcurrency;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrency);
+        ExecutorService virtualPool = virtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtual = virtualPool != null;
+        if (virtualPool != null) {
+            pool = virtualPool;
+        } else {
+            ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+            factory.setNameFormat("Dispatch-%2$d");
+            factory.setDaemon(true);
+            // threads are reused between jobs and released when idle,
+            // the number of busy ones is bounded by permits
+            pool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), factory);
+        }
+        ConfigurableThreadFactory timerFactory = new ConfigurableThreadFactory();
+        timerFactory.setNameFormat("Dispatch-timer-%2$d");
+        timerFactory.setDaemon(true);
+        timer = Executors.newSingleThreadScheduledExecutor(timerFactory);
+        logger.info("Dispatch executor max concurrency: {}, job concurrency: {}, virtual threads: {}",
+                maxConcurrency, jobConcurrency, virtual);
+    }
+
+    public static synchronized DispatchExecutor getDefault() {
+        if (instance == null) {
+            instance = new DispatchExecutor(
+                    Integer.getInteger(MAX_CONCURRENCY, DEFAULT_MAX_CONCURRENCY),
+                    Integer.getInteger(JOB_CONCURRENCY, DEFAULT_JOB_CONCURRENCY),
+                    Long.getLong(MAX_WAIT, DEFAULT_MAX_WAIT),
+                    Boolean.getBoolean(VIRTUAL_THREADS));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a virtual thread per task executor or null if virtual threads are
+     * not supported by the running JVM.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            logger.warn("Virtual threads are not supported by this JVM, using platform threads");
+            return null;
+        }
+    }
+
+    /**
+     * Runs a dispatcher governor. Governors are not bounded by the concurrency
+     * cap as they wait for the domains of their jobs.
+     */
+    public void executeGovernor(final Runnable governor) {
+        if (dispatching.get() == null) {
+            pool.execute(governor);
+            return;
+        }
+        // governor of a nested job, its domains may overflow the cap
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                dispatching.set(Boolean.TRUE);
+                try {
+                    governor.run();
+                } finally {
+                    dispatching.remove();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the executor of speculative executions of tasks. They are not
+     * bounded by the job quota, as the domain waiting for them already holds
+     * its permits.
+     */
+    public synchronized ExecutorService getHedgeExecutor() {
+        if (hedgePool == null) {
+            hedgePool = virtual ? newVirtualThreadExecutor() : null;
+            if (hedgePool == null) {
+                ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+                factory.setNameFormat("Hedge-%2$d");
+                factory.setDaemon(true);
+                hedgePool = Executors.newCachedThreadPool(factory);
+            }
+        }
+        return hedgePool;
+    }
+
+    /**
+     * Returns an executor for the component domains of the given job bounded
+     * by the job concurrency quota.
+     */
+    public ExecutorService forJob(String jobName) {
+        return new JobExecutor(jobName, jobConcurrency);
+    }
+
+    private void execute(Runnable command, JobExecutor job) {
+        submitted.incrementAndGet();
+        job.pending.incrementAndGet();
+        boolean nested = dispatching.get() != null;
+        enqueue(new Pending(command, job, nested,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait)));
+    }
+
+    private void enqueue(Pending pending) {
+        synchronized (queue) {
+            queue.add(pending);
+            waiting.incrementAndGet();
+        }
+        drain();
+        if (pending.nested && !pending.started)
+            timer.schedule(drainer, maxWait, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for the given time without holding the permits of the calling
+     * domain, so queued domains run in the meantime. The domain is then queued
+     * again for its permits and returns once it gets them, or at its deadline
+     * when nested. Callers outside of domains just sleep.
+     */
+    public void pause(long millis) throws InterruptedException {
+        Pending p = running.get();
+        if (p == null || !p.permitted) {
+            Thread.sleep(millis);
+            return;
+        }
+        p.permitted = false;
+        permits.release();
+        p.job.quota.release();
+        drain();
+        try {
+            Thread.sleep(millis);
+        } finally {
+            Pending resumed = new Pending(null, p.job, p.nested,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait));
+            enqueue(resumed);
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    resumed.resumed.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            p.permitted = resumed.permitted;
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts the queued submissions that get a global permit and a permit of
+     * their job quota, and the nested ones that reached their deadline without
+     * them.
+     */
+    private void drain() {
+        List<Pending> ready = new ArrayList<Pending>();
+        synchronized (queue) {
+            long now = System.nanoTime();
+            Iterator<Pending> it = queue.iterator();
+            while (it.hasNext()) {
+                Pending p = it.next();
+                if (p.job.quota.tryAcquire()) {
+                    if (permits.tryAcquire())
+                        p.permitted = true;
+                    else
+                        p.job.quota.release();
+                }
+                if (p.permitted || (p.nested && now - p.deadline >= 0)) {
+                    it.remove();
+                    waiting.decrementAndGet();
+                    p.started = true;
+                    ready.add(p);
+                }
+            }
+        }
+        for (Pending p : ready)
+            start(p);
+    }
+
+    private void start(final Pending p) {
+        if (!p.permitted) {
+            overflow.incrementAndGet();
+            logger.debug("No dispatch permit within {} ms, running beyond the cap for job: {}",
+                    maxWait, p.job.jobName);
+        }
+        if (p.command == null) {
+            // a paused domain resuming in its own thread
+            p.resumed.countDown();
+            return;
+        }
+        try {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    active.incrementAndGet();
+                    dispatching.set(Boolean.TRUE);
+                    running.set(p);
+                    try {
+                        p.command.run();
+                    } finally {
+                        running.remove();
+                        dispatching.remove();
+                        active.decrementAndGet();
+                        completed.incrementAndGet();
+                        p.job.completed();
+                        if (p.permitted) {
+                            permits.release();
+                            p.job.quota.release();
+                            drain();
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (p.permitted) {
+                permits.release();
+                p.job.quota.release();
+            }
+            p.job.completed();
+            logger.error("Dispatch pool rejected a domain of job: {}", p.job.jobName, e);
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getJobConcurrency() {
+        return jobConcurrency;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return the number of submissions waiting for a permit
+     */
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    /**
+     * @return the number of domains currently executed, including the ones
+     * run beyond the cap
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * @return the number of nested submissions not permitted within the max
+     * wait and run beyond the cap
+     */
+    public long getOverflowCount() {
+        return overflow.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchExecutor [active: " + active.get() + ", queued: " + waiting.get()
+                + ", overflow: " + overflow.get() + ", completed: " + completed.get()
+                + ", max: " + maxConcurrency + ", job: " + jobConcurrency
+                + (virtual ? ", virtual" : "") + "]";
+    }
+
+    /**
+     * Per-job view of the shared pool. Shutting it down does not affect the
+     * shared pool or other jobs.
+     */
+    private class JobExecutor extends AbstractExecutorService {
+        private final String jobName;
+        private final Semaphore quota;
+        // submitted domains not completed yet
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean shutdown;
+
+        JobExecutor(String jobName, int jobConcurrency) {
+            this.jobName = jobName;
+            this.quota = new Semaphore(jobConcurrency);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (shutdown)
+                throw new RejectedExecutionException("Executor of job: " + jobName + " is shut down");
+            DispatchExecutor.this.execute(command, this);
+        }
+
+        private void completed() {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> dropped = new ArrayList<Runnable>();
+            synchronized (queue) {
+                Iterator<Pending> it = queue.iterator();
+                while (it.hasNext()) {
+                    Pending p = it.next();
+                    // paused domains are running, they resume when permitted
+                    if (p.job == this && p.command != null) {
+                        it.remove();
+                        waiting.decrementAndGet();
+                        dropped.add(p.command);
+                    }
+                }
+            }
+            for (int i = 0; i < dropped.size(); i++)
+                completed();
+            return dropped;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && pending.get() == 0;
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Submission waiting for permits, until its deadline when nested. A
+     * paused domain waits as a submission without a command.
+     */
+    private static class Pending {
+        final Runnable command;
+        // counted down when a paused domain resumes
+        final CountDownLatch resumed;
+        final JobExecutor job;
+        // submitted by a domain or a governor of a nested job
+        final boolean nested;
+        final long deadline;
+        // guarded by the queue
+        boolean permitted;
+        volatile boolean started;
+
+        Pending(Runnable command, JobExecutor job, boolean nested, long deadline) {
+            this.command = command;
+            this.resumed = command == null ? new CountDownLatch(1) : null;
+            this.job = job;
+            this.nested = nested;
+            this.deadline = deadline;
+        }
+    }
+}
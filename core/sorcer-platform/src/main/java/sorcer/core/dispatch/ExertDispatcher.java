@@ -38,6 +38,9 @@ import javax.security.auth.Subject;
 import java.lang.reflect.Array;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import static sorcer.service.Exec.*;
 
 @SuppressWarnings("rawtypes")
@@ -52,6 +55,12 @@ abstract public class ExertDispatcher implements Dispatcher {
 
 	protected volatile int state = Exec.INITIAL;
 
+    // completed with the dispatch result when the state changes to DONE or FAILED,
+    // but not before the governor leaves exec
+    protected final CompletableFuture<DispatchResult> completion = new CompletableFuture<DispatchResult>();
+
+    private volatile boolean executing;
+
     protected boolean isMonitored;
 
     protected Set<Context> sharedContexts;
@@ -71,6 +80,9 @@ abstract public class ExertDispatcher implements Dispatcher {
 	protected ThreadGroup disatchGroup;
     protected ProvisionManager provisionManager;
 
+    // shared executor for governors and component domains
+    protected DispatchExecutor dispatchExecutor = DispatchExecutor.getDefault();
+
     public static Map<Uuid, Dispatcher> getDispatchers() {
 		return dispatchers;
 	}
@@ -101,8 +113,9 @@ abstract public class ExertDispatcher implements Dispatcher {
     }
 
     public void exec(Arg... args) {
+        executing = true;
         dispatchers.put(xrt.getId(), this);
-        state = Exec.RUNNING;
+        setState(Exec.RUNNING);
         xrt.setStatus(state);
         if (xrt instanceof Job) {
             masterXrt = (Subroutine) ((Job) xrt).getMasterExertion();
@@ -115,7 +128,7 @@ abstract public class ExertDispatcher implements Dispatcher {
         } catch (Exception e) {
             logger.warn("Routine governor thread killed by exception: ", e);
             xrt.setStatus(Exec.FAILED);
-            state = Exec.FAILED;
+            setState(Exec.FAILED);
             xrt.reportException(e);
         } finally {
             try {
@@ -125,6 +138,8 @@ abstract public class ExertDispatcher implements Dispatcher {
                 logger.warn("Problem removing lease for : " + xrt.getName() + " " + Exec.State.name(xrt.getStatus()) , ce);
             }
             dispatchers.remove(xrt.getId());
+            executing = false;
+            complete();
         }
     }
 
@@ -174,18 +189,19 @@ abstract public class ExertDispatcher implements Dispatcher {
         /**
          * The default implementation - wait for status to be changed by another thread
          */
-
         try {
-            while (!finished())
-                Thread.sleep(50);
+            return completion.get();
         } catch (InterruptedException e) {
             logger.warn("Interrupted!", e);
+        } catch (ExecutionException e) {
+            logger.warn("Dispatch failed", e.getCause());
         }
         return new DispatchResult(State.values()[state], xrt);
     }
 
-    private boolean finished(){
-        return state == State.DONE.ordinal() || state == State.FAILED.ordinal();
+    @Override
+    public CompletableFuture<DispatchResult> getCompletion() {
+        return completion;
     }
 
     /**
@@ -214,6 +230,14 @@ abstract public class ExertDispatcher implements Dispatcher {
 
     public void setState(int state) {
         this.state = state;
+        if (!executing)
+            complete();
+    }
+
+    private void complete() {
+        int current = state;
+        if (current == State.DONE.ordinal() || current == State.FAILED.ordinal())
+            completion.complete(new DispatchResult(State.values()[current], xrt));
     }
 
     protected class CollectResultThread implements Runnable {
@@ -226,6 +250,7 @@ abstract public class ExertDispatcher implements Dispatcher {
                 xrt.setStatus(FAILED);
                 xrt.reportException(ex);
                 ex.printStackTrace();
+                setState(FAILED);
             }
             if (xrt.isExecTimeRequested())
                 xrt.stopExecTime();
@@ -350,10 +375,17 @@ abstract public class ExertDispatcher implements Dispatcher {
 		// If not found, then find a dataContext with particular contextReturn.
 		if (Context.EMPTY_LEAF.equals(path) || "".equals(path))
             return null;
+        if (sharedContexts instanceof SharedContexts) {
+            SharedContexts registry = (SharedContexts) sharedContexts;
+            if (id != null && id.length() > 0)
+                return (ServiceContext) registry.getContext(UuidFactory.create(id));
+            else
+                return (ServiceContext) registry.getContext(path);
+        }
         synchronized (sharedContexts) {
             if (id != null && id.length() > 0) {
+                Uuid sharedCtxId = UuidFactory.create(id);
                 for (Context hc : sharedContexts) {
-                    Uuid sharedCtxId = UuidFactory.create(id);
                     logger.debug("Comparing: " + sharedCtxId + " with: " + hc.getId() + "\n" + hc);
                     if (sharedCtxId.equals(hc.getId()))
                         return (ServiceContext) hc;
@@ -387,6 +419,14 @@ abstract public class ExertDispatcher implements Dispatcher {
         }
     }
 
+    public DispatchExecutor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    public void setDispatchExecutor(DispatchExecutor dispatchExecutor) {
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
     public LeaseRenewalManager getLrm() {
         return lrm;
     }
@@ -3,6 +3,7 @@ package sorcer.core.dispatch;
 import org.codehaus.plexus.util.dag.CycleDetectedException;
 import org.codehaus.plexus.util.dag.DAG;
 import org.codehaus.plexus.util.dag.TopologicalSorter;
+import sorcer.core.context.ControlContext;
 import sorcer.service.*;
 
 import java.util.*;
@@ -70,6 +71,46 @@ public class ExertionSorter {
     }
 
 
+    /**
+     * Return the dependencies between the component domains of the given job
+     * resulting from pipes. A component depends on a sibling when the component
+     * or any of its inner domains reads from the sibling or its inner domains.
+     *
+     * @param job the job of the dependent domains, the top level job or any inner job
+     * @return map of a component exertion to the set of its sibling exertions it depends on
+     */
+    public Map<Contextion, Set<Contextion>> getDependencies(Routine job) {
+        Map<String, Contextion> siblings = new HashMap<String, Contextion>();
+        for (Contextion sibling : job.getMograms()) {
+            List<Contextion> self = new ArrayList<Contextion>();
+            self.add(sibling);
+            for (String id : addSubExertions(self))
+                siblings.put(id, sibling);
+        }
+
+        Map<Contextion, Set<Contextion>> dependencies = new LinkedHashMap<Contextion, Set<Contextion>>();
+        for (Contextion xrt : job.getMograms())
+            dependencies.put(xrt, new LinkedHashSet<Contextion>());
+        for (Map.Entry<String, Contextion> e : siblings.entrySet()) {
+            for (String depId : dag.getChildLabels(e.getKey())) {
+                Contextion dependency = siblings.get(depId);
+                if (dependency != null && dependency != e.getValue()) {
+                    dependencies.get(e.getValue()).add(dependency);
+                    logger.debug("Dependency: " + e.getValue().getName() + " on: " + dependency.getName());
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private boolean hasDependencies(Routine job) {
+        for (Set<Contextion> dependencies : getDependencies(job).values()) {
+            if (!dependencies.isEmpty())
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Helper method to build a tree of all exertion IDs in a tree - required by setFlow
      * @param sortedSubXrt
@@ -131,6 +172,11 @@ public class ExertionSorter {
 
         if (topXrt.getFlowType()!=null && topXrt.getFlowType().equals(Strategy.Flow.AUTO)) {
             ((Subroutine) topXrt).setFlowType(setFlow(topXrt, sortedSubset));
+            // SEQ is forced by pipes and inner jobs, the dataflow dispatch orders the
+            // domains by their pipes and keeps the context handling of the sequential one,
+            // jobs without pipes between their components stay sequential
+            if (topXrt.getFlowType() == Strategy.Flow.SEQ && hasDependencies(topXrt))
+                ((ControlContext) topXrt.getControlContext()).setDataflow(true);
             logger.info("FLOW for exertion: " + topXrt.getName() + " set to: " + topXrt.getFlowType());
         }
         List<String> exertionsBefore = new ArrayList();
@@ -35,8 +35,6 @@ import sorcer.service.*;
 import sorcer.service.modeling.Model;
 
 import java.rmi.RemoteException;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +49,8 @@ public class MogramDispatcherFactory implements DispatcherFactory {
 
     private LokiMemberUtil loki;
 
+    private DispatchExecutor dispatchExecutor = DispatchExecutor.getDefault();
+
     public static final long DEFAULT_LEASE_PERIOD = TimeUnit.MINUTES.toMillis(5);
     public static final long LEASE_RENEWAL_PERIOD = TimeUnit.SECONDS.toMillis(60);
     public static final long DEFAULT_TIMEOUT_PERIOD = TimeUnit.SECONDS.toMillis(90);
@@ -80,8 +80,11 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                     || ((Routine)mogram).isProvisionable()))
                     provisionManager = new ProvisionManager((Routine)mogram);
             }
-            if(mogram instanceof Job)
-                mogram = new ExertionSorter((Job)mogram).getSortedJob();
+            ExertionSorter sorter = null;
+            if(mogram instanceof Job) {
+                sorter = new ExertionSorter((Job)mogram);
+                mogram = sorter.getSortedJob();
+            }
 
             if ( mogram instanceof Block && Mograms.isCatalogBlock((Routine)mogram)) {
                 logger.info("Running Catalog Block Dispatch...");
@@ -109,6 +112,14 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                         loki,
                         provider,
                         provisionManager);
+                } else if (Mograms.isCatalogDataflow(job)) {
+                    logger.info("Running Catalog Dataflow Dispatch...");
+                    dispatcher = new CatalogDataflowDispatcher(job,
+                        sorter.getDependencies(job),
+                        sharedContexts,
+                        isSpawned,
+                        provider,
+                        provisionManager);
                 } else if (Mograms.isCatalogParallel(job)) {
                     logger.info("Running Catalog Parallel Dispatch...");
                     dispatcher = new CatalogParallelDispatcher(job,
@@ -126,6 +137,7 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                 }
             }
             assert dispatcher != null;
+            ((ExertDispatcher) dispatcher).setDispatchExecutor(dispatchExecutor);
             MonitoringSession monSession = MonitorUtil.getMonitoringSession(mogram);
             if (mogram.isMonitorable() && monSession!=null) {
                 logger.debug("Initializing monitor session for : " + mogram.getName());
@@ -154,6 +166,14 @@ public class MogramDispatcherFactory implements DispatcherFactory {
         return dispatcher;
     }
 
+    public DispatchExecutor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    public void setDispatchExecutor(DispatchExecutor dispatchExecutor) {
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
     protected boolean isSpaceSequential(Mogram mogram) throws RemoteException {
         if(mogram instanceof Job) {
             Job job = (Job) mogram;
@@ -177,7 +197,7 @@ public class MogramDispatcherFactory implements DispatcherFactory {
      */
     @Override
     public Dispatcher createDispatcher(Mogram mogram, Exerter provider, String... config) throws DispatchException {
-        return createDispatcher(mogram, Collections.synchronizedSet(new HashSet<Context>()), false, provider);
+        return createDispatcher(mogram, new SharedContexts(), false, provider);
     }
 
     @Override
@@ -189,11 +209,13 @@ public class MogramDispatcherFactory implements DispatcherFactory {
                 provisionManager = new ProvisionManager(task);
             }
             logger.info("Running Space Task Dispatch...");
-            return new SpaceTaskDispatcher(task,
-                Collections.synchronizedSet(new HashSet<Context>()),
+            SpaceTaskDispatcher dispatcher = new SpaceTaskDispatcher(task,
+                new SharedContexts(),
                 false,
                 loki,
                 provisionManager);
+            dispatcher.setDispatchExecutor(dispatchExecutor);
+            return dispatcher;
         } catch (ContextException | RoutineException | RemoteException e) {
             throw new DispatchException(e);
         }
@@ -30,7 +30,6 @@ public class MogramThread implements Runnable {
 	private final static Logger logger = LoggerFactory.getLogger(MogramThread.class
 			.getName());
 
-	private static final int SLEEP_TIME = 250;
 	// doMogram method calls internally
 	private Mogram job;
 
@@ -63,20 +62,8 @@ public class MogramThread implements Runnable {
 			logger.error("exception in governor: " + e);
 			// ignore it, locall pcr
 		}
-/*			 int COUNT = 1000;
-			 int count = COUNT;
-			while (governor.getState() != Exec.DONE
-					&& governor.getState() != Exec.FAILED
-					&& governor.getState() != Exec.SUSPENDED) {
-				 count--;
-				 if (count < 0) {
-				 logger.debug("*** Mogramber's Routine Dispatch waiting in state: "
-				 + governor.getState());
-				 count = COUNT;
-				 }
-				Thread.sleep(SLEEP_TIME);
-			}*/
 		dispatcher.exec();
+		// wait for the completion of the dispatcher
 		DispatchResult dispatchResult = dispatcher.getResult();
 		logger.debug("*** Dispatch exit state = " + dispatcher.getClass().getName()  + " state: " + dispatchResult.state
 			+ " for job***\n" + ((Routine)job).getControlContext());
@@ -0,0 +1,67 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.ResultConsumer;
+import sorcer.service.Subroutine;
+
+import static sorcer.service.Exec.DONE;
+
+/**
+ * Streams the completed component exertions of a job to its result consumer
+ * and drops the data context of a done one from the job if requested. A
+ * consumer that fails, remotely or locally, is not called again and the
+ * contexts of the following results are kept.
+ */
+public class ResultPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultPublisher.class);
+
+    private volatile ResultConsumer consumer;
+
+    private final boolean dropConsumed;
+
+    private final String jobName;
+
+    public ResultPublisher(ResultConsumer consumer, boolean dropConsumed, String jobName) {
+        this.consumer = consumer;
+        this.dropConsumed = dropConsumed;
+        this.jobName = jobName;
+    }
+
+    public boolean isStreaming() {
+        return consumer != null;
+    }
+
+    public void publish(Subroutine result) {
+        ResultConsumer rc = consumer;
+        if (rc == null)
+            return;
+        try {
+            rc.consume(result);
+        } catch (Exception e) {
+            logger.warn("Result consumer failed, results of {} are not streamed anymore", jobName, e);
+            consumer = null;
+            return;
+        }
+        if (dropConsumed && result.getStatus() == DONE)
+            result.setContext(new ServiceContext(result.getName()));
+    }
+}
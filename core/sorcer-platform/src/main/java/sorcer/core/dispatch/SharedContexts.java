@@ -0,0 +1,136 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import net.jini.id.Uuid;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.Context;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent set of the shared contexts of a job and its inner jobs, indexed by
+ * context id and by published path, so pipes between domains are resolved
+ * without scanning all shared contexts under a lock. A context added again
+ * replaces the previous one with the same id and its paths, and a path
+ * resolves to the context added last with that path.
+ */
+public class SharedContexts extends AbstractSet<Context> {
+
+    private final Map<Uuid, Context> byId = new ConcurrentHashMap<Uuid, Context>();
+
+    private final Map<String, Context> byPath = new ConcurrentHashMap<String, Context>();
+
+    @Override
+    public boolean add(Context context) {
+        Context previous = byId.put(context.getId(), context);
+        if (previous != null && previous != context)
+            unindex(previous);
+        index(context);
+        return previous == null;
+    }
+
+    private void index(Context context) {
+        if (!(context instanceof ServiceContext))
+            return;
+        for (String path : ((ServiceContext) context).keySet())
+            byPath.put(path, context);
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (!(object instanceof Context))
+            return false;
+        Context context = byId.remove(((Context) object).getId());
+        if (context == null)
+            return false;
+        unindex(context);
+        return true;
+    }
+
+    private void unindex(Context context) {
+        if (!(context instanceof ServiceContext))
+            return;
+        for (String path : ((ServiceContext) context).keySet())
+            byPath.remove(path, context);
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof Context && byId.containsKey(((Context) object).getId());
+    }
+
+    @Override
+    public Iterator<Context> iterator() {
+        final Iterator<Context> iterator = byId.values().iterator();
+        return new Iterator<Context>() {
+            private Context current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Context next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                unindex(current);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return byId.size();
+    }
+
+    @Override
+    public void clear() {
+        byId.clear();
+        byPath.clear();
+    }
+
+    public Context getContext(Uuid id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns a shared context containing the path. Paths added to a context
+     * after it was shared are found by scanning and are indexed then.
+     */
+    public Context getContext(String path) {
+        Context context = byPath.get(path);
+        if (context != null && context.containsPath(path))
+            return context;
+        for (Context hc : byId.values()) {
+            if (hc.containsPath(path)) {
+                byPath.put(path, hc);
+                return hc;
+            }
+        }
+        return null;
+    }
+}
@@ -26,6 +26,7 @@ import net.jini.id.Uuid;
 import net.jini.space.JavaSpace05;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sorcer.core.context.ControlContext;
 import sorcer.core.exertion.ExertionEnvelop;
 import sorcer.core.exertion.Mograms;
 import sorcer.core.exertion.NetJob;
@@ -44,12 +45,13 @@ import java.util.List;
 import java.util.Set;
 
 import static sorcer.service.Exec.*;
-import static sorcer.util.StringUtils.tName;
 
 public class SpaceParallelDispatcher extends ExertDispatcher {
     protected JavaSpace05 space;
     private int doneExertionIndex = 0;
     protected LokiMemberUtil loki;
+    // streams component results to the job's consumer as they complete
+    protected ResultPublisher resultPublisher;
     private final Logger logger = LoggerFactory.getLogger(SpaceParallelDispatcher.class);
 
     public SpaceParallelDispatcher(Routine exertion,
@@ -65,11 +67,9 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             throw new RoutineException("NO exertion space available!");
         }
 
-        disatchGroup = new ThreadGroup("exertion-" + exertion.getId());
-        disatchGroup.setDaemon(true);
-        disatchGroup.setMaxPriority(Thread.NORM_PRIORITY - 1);
-
         this.loki = loki;
+        ControlContext cc = (ControlContext) xrt.getControlContext();
+        resultPublisher = new ResultPublisher(cc.getResultConsumer(), cc.isDropConsumed(), xrt.getName());
 	}
 
     public int getDoneExertionIndex() {
@@ -88,7 +88,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
 
     @Override
     public void doExec(Arg... args) throws SignatureException, RoutineException {
-        new Thread(disatchGroup, new CollectResultThread(), tName("collect-" + xrt.getName())).start();
+        dispatchExecutor.executeGovernor(new CollectResultThread());
 
         for (Contextion mogram : inputXrts) {
             logger.info("Calling monSession.init from SpaceParallelDispatcher for: {}", mogram.getName());
@@ -158,7 +158,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                 count += results.size();
             } catch (UnusableEntriesException e) {
                 xrt.setStatus(FAILED);
-                state = FAILED;
+                setState(FAILED);
                 Collection<UnusableEntryException> exceptions = e.getUnusableEntryExceptions();
                 for (UnusableEntryException throwable : exceptions) {
                     logger.warn("UnusableEntryException! unusable fields = " + throwable.partialEntry, throwable);
@@ -168,7 +168,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                 throw new RoutineException(e);
             } catch (Exception e) {
                 xrt.setStatus(FAILED);
-                state = FAILED;
+                setState(FAILED);
                 throw new RoutineException("Taking exertion envelop failed", e);
             } finally {
                 synchronized (this) {
@@ -180,7 +180,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
 
         if(xrt.getStatus()!=FAILED) {
             executeMasterExertion();
-            state = DONE;
+            setState(DONE);
         }
         dispatchers.remove(xrt.getId());
     }
@@ -223,9 +223,18 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             } catch (ContextException ce) {
                 logger.error("Problem sending status after execEnt to monitor");
             }
+            publishResult(result);
         }
     }
 
+    /**
+     * Publishes the completed component exertion to the result consumer and
+     * drops the data context of a done one from the job if requested.
+     */
+    protected void publishResult(Subroutine result) {
+        resultPublisher.publish(result);
+    }
+
     protected void addPoison(Routine exertion) {
         space = SpaceAccessor.getSpace();
         if (space == null) {
@@ -295,7 +304,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
                     + ee.describe() + "\n to: " + space);
         } catch (Exception e) {
             logger.warn("writeEnvelop", e);
-            state = Exec.FAILED;
+            setState(Exec.FAILED);
         }
     }
 
@@ -54,9 +54,9 @@ public class SpaceTaskDispatcher extends SpaceParallelDispatcher {
         Task result = (Task) results.iterator().next().exertion;
         int status = result.getStatus();
         if (status == DONE) {
-            state = DONE;
             result.setStatus(DONE);
             xrt = result;
+            setState(DONE);
 
         } else if (status == FAILED) {
                 addPoison(xrt);
@@ -20,6 +20,7 @@ package sorcer.core.exertion;
 import net.jini.core.entry.Entry;
 import net.jini.id.Uuid;
 import net.jini.lookup.entry.Name;
+import sorcer.core.context.ControlContext;
 import sorcer.core.context.ThrowableTrace;
 import sorcer.core.signature.RemoteSignature;
 import sorcer.service.*;
@@ -45,6 +46,9 @@ public class ExertionEnvelop implements Entry {
 
 	public Integer state;
 
+	// key of large input data reused by exertions, see AffinityTaker
+	public String dataKey;
+
 	public Routine exertion;
 
 	// used by the loki framework
@@ -112,6 +116,7 @@ public class ExertionEnvelop implements Entry {
 		ee.exertionID = ((ServiceMogram)ex).getId();
 		ee.parentID = ((Subroutine) ex).getParentId();
 		ee.isJob = new Boolean(ex.isJob());
+		ee.dataKey = ((ControlContext) ex.getControlContext()).getDataKey();
 
 		return ee;
 	}
@@ -173,6 +178,7 @@ public class ExertionEnvelop implements Entry {
 		.append(", state=").append(state)
 		.append(", providerName=").append(providerName)
 		.append(", parentID=").append(parentID)
+		.append(", dataKey=").append(dataKey)
 		.append(", serviceInfo=").append(serviceType)
 		.append(", isEncrypted=").append(isEncrypted)
 		.append(", encryptedExertion=").append(encryptedExertion)
@@ -53,6 +53,12 @@ public class Mograms implements SorcerConstants {
 				&& Access.PUSH.equals(cc.get(ControlContext.EXERTION_ACCESS));
 	}
 
+	public static boolean isCatalogDataflow(Job job) {
+		ControlContext cc = job.getControlContext();
+		return cc.isDataflow()
+				&& Access.PUSH.equals(cc.get(ControlContext.EXERTION_ACCESS));
+	}
+
 	public static boolean isCatalogBlock(Routine exertion) {
 		ControlContext cc = (ControlContext)exertion.getControlContext();
 		return exertion instanceof Block
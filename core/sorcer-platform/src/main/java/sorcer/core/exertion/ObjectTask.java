@@ -119,17 +119,6 @@ public class ObjectTask extends Task {
 					.getEvaluator();
 			Object result = null;
 			if (evaluator == null) {
-				// create a provider of this object signature
-				Object prv;
-				if (os.getInitSelector() == null) {
-					if (os.getTargetSignature() != null) {
-						prv = ((LocalSignature)os.getTargetSignature()).getProviderType().newInstance();
-					} else {
-						prv = os.getProviderType().newInstance();
-					}
-				} else {
-					prv = provider(os);
-				}
 				Object target = os.getTarget();
 				if (target != null) {
 					if (target instanceof Method) {
@@ -141,6 +130,20 @@ public class ObjectTask extends Task {
 					}
 				}
 				else {
+					// create a provider of this object signature unless reused
+					Object prv = os.getReusedTarget();
+					if (prv == null) {
+						if (os.getInitSelector() == null) {
+							if (os.getTargetSignature() != null) {
+								prv = ((LocalSignature)os.getTargetSignature()).getProviderType().newInstance();
+							} else {
+								prv = os.getProviderType().newInstance();
+							}
+						} else {
+							prv = provider(os);
+						}
+						os.setReusedTarget(prv);
+					}
 					evaluator = new MethodInvoker(prv, os.getSelector());
 				}
 			}
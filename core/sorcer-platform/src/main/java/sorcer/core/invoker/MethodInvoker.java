@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import sorcer.core.context.ServiceContext;
 import sorcer.service.*;
 import sorcer.service.modeling.Exploration;
+import sorcer.util.BeanMethods;
 import sorcer.util.SorcerUtil;
 import sorcer.eo.operator.Args;
 
@@ -57,7 +58,7 @@ public class MethodInvoker<T> extends ServiceInvoker<T> {
 
 	private ContextDomain context;
 
-	transient private Method m;
+	transient private BeanMethods.Invoker m;
 
 	transient private URLClassLoader miLoader;
 
@@ -217,18 +218,12 @@ public class MethodInvoker<T> extends ServiceInvoker<T> {
 			// if no paramTypes defined assume that the method key 'selector'
 			// is unique
 			if (paramTypes == null) {
-				Method[] mts = evalClass.getDeclaredMethods();
-				for (Method mt : mts) {
-					if (mt.getName().equals(selector)) {
-						m = mt;
-						break;
-					}
-				}
+				m = BeanMethods.getNamed(evalClass, selector);
 			} else {
 				if (selector == null && evalClass != null) {
 					Method[] mts = evalClass.getDeclaredMethods();
 					if (mts.length == 1)
-						m = mts[0];
+						m = BeanMethods.getDeclared(evalClass, mts[0].getName(), mts[0].getParameterTypes());
 				} else {
 					// exception when Arg... is not specified for the invoke
 					if (target instanceof Invocation
@@ -266,18 +261,7 @@ public class MethodInvoker<T> extends ServiceInvoker<T> {
 						paramTypes = null;
 						parameters = null;
 					}
-					m = evalClass.getMethod(selector, paramTypes);
-					if (m == null) {
-						Method[] mts = evalClass.getMethods();
-						if (Context.class.isAssignableFrom(paramTypes[0])) {
-							for (Method mt : mts) {
-								if (mt.getName()!=null && mt.getName().equals(selector)) {
-									m = mt;
-									break;
-								}
-							}
-						}
-					}
+					m = BeanMethods.get(evalClass, selector, paramTypes);
 				}
 			}
 			if (context != null)
@@ -0,0 +1,107 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.entry.UnusableEntryException;
+import net.jini.core.transaction.Transaction;
+import net.jini.core.transaction.TransactionException;
+import net.jini.entry.UnusableEntriesException;
+import net.jini.space.JavaSpace;
+import sorcer.core.exertion.ExertionEnvelop;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/*
+ * This space taker first takes envelopes advertising data keys of the
+ * provider's data affinity, and waits for any envelope only if none of them
+ * is in the space.
+ */
+public class AffinityTaker extends SpaceTaker {
+
+	private DataAffinity affinity;
+
+	public AffinityTaker(SpaceTakerData data, ExecutorService pool, boolean remoteLogging,
+						 DataAffinity affinity) {
+		super(data, pool, remoteLogging);
+		this.affinity = affinity;
+	}
+
+	@Override
+	protected ExertionEnvelop takeEnvelop(Transaction txn, long timeout)
+			throws UnusableEntriesException, UnusableEntryException, TransactionException,
+			InterruptedException, RemoteException {
+		List<Entry> templates = getAffineTemplates();
+		if (!templates.isEmpty()) {
+			Collection<?> envelops = space.take(templates, txn, JavaSpace.NO_WAIT, 1);
+			if (!envelops.isEmpty())
+				return taken((ExertionEnvelop) envelops.iterator().next());
+		}
+		return taken(super.takeEnvelop(txn, timeout));
+	}
+
+	@Override
+	protected Collection<?> takeEnvelops(Transaction txn, long timeout, int count)
+			throws UnusableEntriesException, UnusableEntryException, TransactionException,
+			InterruptedException, RemoteException {
+		List<Entry> templates = getAffineTemplates();
+		Collection<?> envelops;
+		if (!templates.isEmpty()) {
+			envelops = space.take(templates, txn, JavaSpace.NO_WAIT, count);
+			if (!envelops.isEmpty())
+				return taken(envelops);
+		}
+		return taken(super.takeEnvelops(txn, timeout, count));
+	}
+
+	/**
+	 * Returns templates of this taker's envelopes with the data keys of the
+	 * affinity.
+	 */
+	protected List<Entry> getAffineTemplates() {
+		List<String> keys = affinity.getKeys();
+		List<Entry> templates = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			ExertionEnvelop template = ExertionEnvelop.getTemplate(data.entry.serviceType,
+					data.entry.providerName);
+			template.state = data.entry.state;
+			template.dataKey = key;
+			templates.add(template);
+		}
+		return templates;
+	}
+
+	private ExertionEnvelop taken(ExertionEnvelop envelop) {
+		if (envelop != null)
+			affinity.add(envelop.dataKey);
+		return envelop;
+	}
+
+	private Collection<?> taken(Collection<?> envelops) {
+		for (Object envelop : envelops)
+			affinity.add(((ExertionEnvelop) envelop).dataKey);
+		return envelops;
+	}
+
+	public DataAffinity getAffinity() {
+		return affinity;
+	}
+}
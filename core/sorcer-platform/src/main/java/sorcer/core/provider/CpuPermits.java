@@ -0,0 +1,68 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the CPU-bound concurrency of a provider whose workers run on virtual
+ * threads. Operations listed in the provider's "cpuBoundOperations" are run
+ * holding a permit, and service beans may hold one around their own CPU-bound
+ * sections with {@link #compute(Callable)}. A permit must not be held across
+ * remote or nested exertion calls, they would keep it while waiting and may
+ * dead-lock a provider calling back into itself.
+ */
+public class CpuPermits {
+
+    private final Semaphore permits;
+
+    private final int count;
+
+    public CpuPermits(int count) {
+        this.count = count;
+        this.permits = new Semaphore(count);
+    }
+
+    /**
+     * Runs the CPU-bound section holding a permit.
+     */
+    public <T> T compute(Callable<T> section) throws Exception {
+        permits.acquire();
+        try {
+            return section.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getPermits() {
+        return count;
+    }
+}
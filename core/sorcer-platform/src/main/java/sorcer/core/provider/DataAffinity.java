@@ -0,0 +1,68 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys of data, e.g. <code>sos://</code> URLs or mesh ids, a provider has
+ * cached locally. {@link AffinityTaker}s of the provider first take envelopes
+ * advertising these keys. Keys of envelopes taken are added, a provider may
+ * add keys of data it caches by other means. The least recently used keys
+ * are dropped above the capacity.
+ */
+public class DataAffinity {
+    private final int capacity;
+
+    private final LinkedHashMap<String, Boolean> keys;
+
+    public DataAffinity(final int capacity) {
+        this.capacity = capacity;
+        keys = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized void add(String key) {
+        if (key != null)
+            keys.put(key, Boolean.TRUE);
+    }
+
+    public synchronized void remove(String key) {
+        keys.remove(key);
+    }
+
+    /**
+     * @return the keys, most recently used first
+     */
+    public synchronized List<String> getKeys() {
+        List<String> list = new ArrayList<>(keys.keySet());
+        Collections.reverse(list);
+        return list;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.analytics.AnalyticsRecorder;
+import sorcer.core.analytics.MethodAnalytics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-operation admission control of a provider. Each operation (selector)
+ * runs in its own bulkhead limiting the number of concurrent invocations and
+ * of invocations waiting for a permit. An invocation that can not be queued
+ * or waits longer than the maximum wait is rejected with a
+ * {@link ProviderException} carrying a retry-after hint based on the
+ * average exec time of the operation.
+ *
+ * Limits are configured with the <code>operationLimits</code> entry of the
+ * provider as <code>selector:limit[:queue]</code> strings, a <code>*</code>
+ * selector sets the limits of operations not listed. Operations without
+ * limits are not bounded.
+ */
+public class OperationAdmission {
+    private final static Logger logger = LoggerFactory.getLogger(OperationAdmission.class);
+
+    public static final String ANY_OPERATION = "*";
+
+    // retry-after hint when the operation has no recorded exec time
+    static final long MIN_RETRY_AFTER = 100;
+
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, int[]> limits = new ConcurrentHashMap<>();
+    private final long maxWait;
+    private final AnalyticsRecorder analyticsRecorder;
+
+    public OperationAdmission(String[] operationLimits, long maxWait, AnalyticsRecorder analyticsRecorder) {
+        this.maxWait = maxWait;
+        this.analyticsRecorder = analyticsRecorder;
+        for (String operationLimit : operationLimits) {
+            String[] tokens = operationLimit.split(":");
+            try {
+                int limit = Integer.parseInt(tokens[1].trim());
+                int queue = tokens.length > 2 ? Integer.parseInt(tokens[2].trim()) : 0;
+                limits.put(tokens[0].trim(), new int[] { limit, queue });
+            } catch (RuntimeException e) {
+                logger.warn("Invalid operation limit: {}, expected selector:limit[:queue]", operationLimit);
+            }
+        }
+        logger.info("Operation limits: {}, max wait: {} ms", limits.keySet(), maxWait);
+    }
+
+    /**
+     * Admits an invocation of the operation, waiting for a permit if the
+     * operation is at its limit and its queue is not full.
+     *
+     * @return true if admitted with a permit to be returned by {@link #release(String)},
+     * false if the operation is not bounded
+     * @throws ProviderException if rejected
+     */
+    public boolean admit(String selector) throws ProviderException {
+        Bulkhead bulkhead = getBulkhead(selector);
+        if (bulkhead == null)
+            return false;
+        if (bulkhead.permits.tryAcquire())
+            return true;
+        if (bulkhead.waiting.incrementAndGet() > bulkhead.queue) {
+            bulkhead.waiting.decrementAndGet();
+            throw reject(selector, "queue full");
+        }
+        try {
+            if (bulkhead.permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS))
+                return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            bulkhead.waiting.decrementAndGet();
+        }
+        throw reject(selector, "no permit within " + maxWait + " ms");
+    }
+
+    public void release(String selector) {
+        Bulkhead bulkhead = bulkheads.get(selector);
+        if (bulkhead != null)
+            bulkhead.permits.release();
+    }
+
+    /**
+     * @return the number of invocations of the operation waiting for a permit
+     */
+    public int getWaiting(String selector) {
+        Bulkhead bulkhead = bulkheads.get(selector);
+        return bulkhead != null ? bulkhead.waiting.get() : 0;
+    }
+
+    private Bulkhead getBulkhead(String selector) {
+        Bulkhead bulkhead = bulkheads.get(selector);
+        if (bulkhead == null) {
+            int[] limit = limits.get(selector);
+            if (limit == null)
+                limit = limits.get(ANY_OPERATION);
+            if (limit == null)
+                return null;
+            bulkhead = new Bulkhead(limit[0], limit[1]);
+            Bulkhead previous = bulkheads.putIfAbsent(selector, bulkhead);
+            if (previous != null)
+                bulkhead = previous;
+        }
+        return bulkhead;
+    }
+
+    private ProviderException reject(String selector, String reason) {
+        long retryAfter = MIN_RETRY_AFTER;
+        if (analyticsRecorder != null) {
+            analyticsRecorder.rejected(selector);
+            MethodAnalytics analytics = analyticsRecorder.getMethodAnalytics(selector);
+            if (analytics != null)
+                retryAfter = Math.max(retryAfter,
+                        TimeUnit.NANOSECONDS.toMillis((long) analytics.getAverageExecTime()));
+        }
+        logger.debug("Rejected {}: {}", selector, reason);
+        return new ProviderException("Operation " + selector + " saturated, " + reason
+                + ", retry after " + retryAfter + " ms", retryAfter);
+    }
+
+    private static class Bulkhead {
+        final Semaphore permits;
+        final int queue;
+        final AtomicInteger waiting = new AtomicInteger();
+
+        Bulkhead(int limit, int queue) {
+            this.permits = new Semaphore(limit);
+            this.queue = queue;
+        }
+    }
+}
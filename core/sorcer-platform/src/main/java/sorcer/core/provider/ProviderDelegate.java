@@ -48,7 +48,9 @@ import sorcer.core.SorcerConstants;
 import sorcer.core.SorcerNotifier;
 import sorcer.core.analytics.AnalyticsRecorder;
 import sorcer.core.context.Contexts;
+import sorcer.core.context.ControlContext;
 import sorcer.core.context.ServiceContext;
+import sorcer.core.dispatch.DispatchExecutor;
 import sorcer.core.exertion.ExertionEnvelop;
 import sorcer.core.exertion.NetTask;
 import sorcer.core.loki.member.LokiMemberUtil;
@@ -98,7 +100,11 @@ import java.security.Principal;
 import java.security.PrivilegedExceptionAction;
 import java.util.*;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -196,6 +202,9 @@ public class ProviderDelegate {
 
 	protected boolean takersSelectable = false;
 
+	// data keys cached by this provider, null if takers are not affinity aware
+	protected DataAffinity dataAffinity;
+
 	protected boolean spaceSecurityEnabled = false;
 
 	private ThreadGroup namedGroup, interfaceGroup;
@@ -208,8 +217,25 @@ public class ProviderDelegate {
 
 	private int maximumPoolSize = 20;
 
+	// space workers and batches run on virtual threads
+	private boolean virtualWorkers;
+
+	private int maxVirtualWorkers = MAX_VIRTUAL_WORKERS_DEFAULT;
+
+	// bounds CPU-bound sections of virtual workers, null with platform workers
+	private CpuPermits cpuPermits;
+
+	// selectors of operations run holding a CPU permit
+	private Set<String> cpuBoundOperations = Collections.emptySet();
+
+	// runs remote calls on virtual threads, null with platform workers
+	private VirtualWorkerPool remoteCallPool;
+
 	private List<ExecutorService> spaceHandlingPools;
 
+	// executes batches of mograms in parallel, created when first used
+	private ExecutorService batchPool;
+
 	/** lease manager also used by provider workers. */
 	protected static LeaseRenewalManager leaseManager = new LeaseRenewalManager();
 
@@ -236,6 +262,9 @@ public class ProviderDelegate {
 	/** Map of exertion ID's and state of execution */
 	final Map exertionStateTable = Collections.synchronizedMap(new HashMap(11));
 
+	/** Threads executing the exertions of exertionStateTable, interrupted when stopped */
+	private final Map<Uuid, Thread> exertionThreads = new HashMap<Uuid, Thread>();
+
 	/**
 	 * A smart proxy instance
 	 */
@@ -298,6 +327,12 @@ public class ProviderDelegate {
 	 */
 	private Map<Class<?>, Object> serviceComponents;
 
+	/**
+	 * Operations of the provider whose results can be reused by result
+	 * caches, see {@link NonCacheable}.
+	 */
+	private final Map<String, Boolean> cacheableOperations = new ConcurrentHashMap<>();
+
 	/**
 	 * Indicates a single threaded execution for service beans or providers
 	 * implementing the SingleThreadModel interface.
@@ -315,6 +350,9 @@ public class ProviderDelegate {
 
 	private AnalyticsRecorder analyticsRecorder;
 
+	// per-operation concurrency limits, null if not configured
+	private OperationAdmission operationAdmission;
+
 	/*
 	 * A nested class to hold the state information of the executing thread for
 	 * a served exertion.
@@ -551,6 +589,37 @@ public class ProviderDelegate {
 			logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, MAX_WORKER_POOL_SIZE, e);
 		}
 
+		try {
+			String threadModel = (String) jconfig.getEntry(ServiceExerter.COMPONENT, WORKER_THREAD_MODEL,
+				String.class, PLATFORM_THREADS);
+			virtualWorkers = VIRTUAL_THREADS.equalsIgnoreCase(threadModel);
+		} catch (Exception e) {
+			logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, WORKER_THREAD_MODEL, e);
+		}
+
+		if (virtualWorkers) {
+			try {
+				maxVirtualWorkers = (Integer) jconfig.getEntry(ServiceExerter.COMPONENT, MAX_VIRTUAL_WORKERS,
+					int.class, MAX_VIRTUAL_WORKERS_DEFAULT);
+			} catch (Exception e) {
+				logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, MAX_VIRTUAL_WORKERS, e);
+			}
+			int permits = Runtime.getRuntime().availableProcessors();
+			try {
+				permits = (Integer) jconfig.getEntry(ServiceExerter.COMPONENT, WORKER_CPU_PERMITS,
+					int.class, permits);
+				String[] operations = (String[]) jconfig.getEntry(ServiceExerter.COMPONENT, CPU_BOUND_OPERATIONS,
+					String[].class, new String[0]);
+				cpuBoundOperations = new HashSet<String>(Arrays.asList(operations));
+			} catch (Exception e) {
+				logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, CPU_BOUND_OPERATIONS, e);
+			}
+			cpuPermits = new CpuPermits(Math.max(1, permits));
+			remoteCallPool = VirtualWorkerPool.create(maxVirtualWorkers);
+			logger.info("*** virtual workers: {}, cpu permits: {}, cpu-bound operations: {}",
+				maxVirtualWorkers, cpuPermits.getPermits(), cpuBoundOperations);
+		}
+
 		try {
 			spaceReadiness = (Boolean) jconfig.getEntry(ServiceExerter.COMPONENT, SPACE_READINESS, boolean.class,
 				false);
@@ -595,6 +664,14 @@ public class ProviderDelegate {
 		logger.info("*** takers selectable {} provider: {} os: {} apps: {}", takersSelectable,  getProviderName(), osName, appNames);
 
 
+		try {
+			int affinity = (Integer) jconfig.getEntry(ServiceExerter.COMPONENT, SPACE_TAKER_AFFINITY, int.class, 0);
+			if (affinity > 0)
+				dataAffinity = new DataAffinity(affinity);
+		} catch (Exception e) {
+			logger.warn("Problem getting {}.{}", ServiceExerter.COMPONENT, SPACE_TAKER_AFFINITY, e);
+		}
+
 		try {
 			workerTransactional = (Boolean) jconfig.getEntry(ServiceExerter.COMPONENT, WORKER_TRANSACTIONAL,
 				boolean.class, false);
@@ -720,6 +797,76 @@ public class ProviderDelegate {
 		this.smartProxy = smartProxy;
 	}
 
+	/**
+	 * Executes the calls in parallel on the batch pool of the provider sized
+	 * by the worker count.
+	 *
+	 * @return results of the calls in the order of the calls
+	 */
+	public <T> List<T> invokeAll(List<Callable<T>> calls) throws RoutineException {
+		List<T> results = new ArrayList<T>(calls.size());
+		try {
+			for (Future<T> future : getBatchPool().invokeAll(calls))
+				results.add(future.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RoutineException("Interrupted batch of: " + getProviderName(), e);
+		} catch (ExecutionException e) {
+			throw new RoutineException("Failed batch of: " + getProviderName(), e.getCause());
+		}
+		return results;
+	}
+
+	private synchronized ExecutorService getBatchPool() {
+		if (batchPool == null && virtualWorkers)
+			batchPool = DispatchExecutor.newVirtualThreadExecutor();
+		if (batchPool == null) {
+			ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+			factory.setNameFormat(tName("Batch-" + getProviderName() + "-%2$d"));
+			factory.setDaemon(true);
+			int threads = Math.max(1, workerCount);
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), factory);
+			pool.allowCoreThreadTimeOut(true);
+			batchPool = pool;
+		}
+		return batchPool;
+	}
+
+	/**
+	 * Returns true if the operation is configured as CPU-bound for virtual
+	 * workers, so it is run holding a {@link CpuPermits} permit.
+	 */
+	boolean isCpuBound(String selector) {
+		return cpuPermits != null && cpuBoundOperations.contains(selector);
+	}
+
+	/**
+	 * Returns the CPU permits of virtual workers that service beans may hold
+	 * around their CPU-bound sections, or null with platform workers.
+	 */
+	public CpuPermits getCpuPermits() {
+		return cpuPermits;
+	}
+
+	/**
+	 * Returns a pool of space workers running on virtual threads if
+	 * configured and supported, otherwise on a fixed pool of platform
+	 * threads sized by the worker count.
+	 */
+	private ExecutorService newSpaceWorkerPool(ConfigurableThreadFactory factory) {
+		if (virtualWorkers) {
+			VirtualWorkerPool pool = VirtualWorkerPool.create(maxVirtualWorkers);
+			if (pool != null)
+				return pool;
+		}
+		return new ThreadPoolExecutor(workerCount,
+			maximumPoolSize > workerCount ? maximumPoolSize
+				: workerCount, 0L, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<Runnable>((queueSize == 0 ? workerCount : queueSize)),
+			factory);
+	}
+
 	public void startSpaceTakers() throws ConfigurationException, RemoteException {
 		ExecutorService spaceWorkerPool;
 		spaceHandlingPools = new ArrayList<ExecutorService>();
@@ -768,12 +915,7 @@ public class ProviderDelegate {
 		namedWorkerFactory.setDaemon(true);
 
 		for (int i = 0; i < publishedServiceTypes.length; i++) {
-			// spaceWorkerPool = Executors.newFixedThreadPool(workerCount);
-			spaceWorkerPool = new ThreadPoolExecutor(workerCount,
-				maximumPoolSize > workerCount ? maximumPoolSize
-					: workerCount, 0L, TimeUnit.MILLISECONDS,
-				new LinkedBlockingQueue<Runnable>((queueSize == 0 ? workerCount : queueSize)),
-				factory);
+			spaceWorkerPool = newSpaceWorkerPool(factory);
 			spaceHandlingPools.add(spaceWorkerPool);
 			// SORCER.ANY is required for a ProviderWorker
 			// to avoid matching to any provider key
@@ -805,6 +947,21 @@ public class ProviderDelegate {
 					spaceWorkerPool);
 				spaceTakers.add(worker);
 				logger.debug("*** {} space taker created for: {} apps: {}", getProviderName(), osName, appNames);
+			} else if (dataAffinity != null) {
+				worker = new AffinityTaker(new SpaceTaker.SpaceTakerData(envelop,
+					memberInfo,
+					provider,
+					spaceName,
+					spaceGroup,
+					workerTransactional,
+					queueSize == 0,
+					null,
+					null),
+					spaceWorkerPool,
+					remoteLogging,
+					dataAffinity);
+				spaceTakers.add(worker);
+				logger.debug("*** {} affinity taker created for: {} keys", getProviderName(), dataAffinity.getCapacity());
 			} else {
 				worker = new SpaceTaker(new SpaceTaker.SpaceTakerData(envelop,
 					memberInfo,
@@ -831,12 +988,7 @@ public class ProviderDelegate {
 				getProviderName(), i, publishedServiceTypes[i]);
 
 			if (matchInterfaceOnly) {
-				// spaceWorkerPool = Executors.newFixedThreadPool(workerCount);
-				spaceWorkerPool = new ThreadPoolExecutor(workerCount,
-					maximumPoolSize > workerCount ? maximumPoolSize
-						: workerCount, 0L, TimeUnit.MILLISECONDS,
-					new LinkedBlockingQueue<Runnable>(
-						(queueSize == 0 ? workerCount : queueSize)), factory);
+				spaceWorkerPool = newSpaceWorkerPool(factory);
 				spaceHandlingPools.add(spaceWorkerPool);
 				envelop = ExertionEnvelop.getTemplate(publishedServiceTypes[i],
 					SorcerConstants.ANY);
@@ -857,6 +1009,15 @@ public class ProviderDelegate {
 						spaceWorkerPool);
 					spaceTakers.add(worker);
 					logger.debug("*** {} space taker created for: {} apps: {}", getProviderName(), osName, appNames);
+				} else if (dataAffinity != null) {
+					worker = new AffinityTaker(new SpaceTaker.SpaceTakerData(
+						envelop, memberInfo, provider, spaceName,
+						spaceGroup, workerTransactional, queueSize == 0,
+						null, null),
+						spaceWorkerPool,
+						remoteLogging,
+						dataAffinity);
+					spaceTakers.add(worker);
 				} else {
 					worker = new SpaceTaker(new SpaceTaker.SpaceTakerData(
 						envelop, memberInfo, provider, spaceName,
@@ -902,10 +1063,14 @@ public class ProviderDelegate {
 		 * actions); }
 		 */
 		if (isValidTask(task)) {
+			Uuid exertionId = task.getId();
 			try {
 				task.updateContext();
 				task.startExecTime();
-				exertionStateTable.put(task.getId(), Exec.RUNNING);
+				synchronized (exertionStateTable) {
+					exertionStateTable.put(exertionId, Exec.RUNNING);
+					exertionThreads.put(exertionId, Thread.currentThread());
+				}
 				if (((ServiceExerter) provider).isValidTask(task)) {
 					logger.info("task " + task.getName() + " is valid");
 					// append context from Contexters
@@ -966,7 +1131,13 @@ public class ProviderDelegate {
 			} finally {
 				processedExertionsCount++;
 				logger.warn("EXERTIONS PROCESSED: {}", processedExertionsCount);
-				exertionStateTable.remove(exertionStateTable.remove(task.getId()));
+				synchronized (exertionStateTable) {
+					// a stopped exertion must not leave the thread interrupted
+					if (exertionThreads.remove(exertionId) != null
+						&& Integer.valueOf(Exec.STOPPED).equals(exertionStateTable.get(exertionId)))
+						Thread.interrupted();
+					exertionStateTable.remove(exertionStateTable.remove(task.getId()));
+				}
 			}
 		}
         logger.info("task " + task.getName() + " is forwarded");
@@ -1135,30 +1306,30 @@ public class ProviderDelegate {
 				argTypes = cxt.getParameterTypes();
 				isContextual = false;
 			}
-			Method m = null;
+			BeanMethods.Invoker m = null;
 			try {
 				// select the proper method for the bean type
 				if (selector.equals("exert") && (bean instanceof ContextDomain
 					||  bean instanceof Contextion)) {
-					m = bean.getClass().getMethod(selector, Contextion.class, Transaction.class, Arg[].class);
+					m = BeanMethods.get(bean.getClass(), selector, Contextion.class, Transaction.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("evaluate") && bean instanceof ContextDomain) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = BeanMethods.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("invoke") && (bean instanceof Routine || bean instanceof Context)) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = BeanMethods.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("exert") && bean instanceof ServiceShell) {
-					m = bean.getClass().getMethod(selector, Mogram.class, Arg[].class);
+					m = BeanMethods.get(bean.getClass(), selector, Mogram.class, Arg[].class);
 					isContextual = false;
 				} else if (selector.equals("execute") && bean instanceof Service) {
-					m = bean.getClass().getMethod(selector, Arg[].class);
+					m = BeanMethods.get(bean.getClass(), selector, Arg[].class);
 					isContextual = false;
 				} else if (selector.equals("explore") && bean instanceof Exploration) {
-					m = bean.getClass().getMethod(selector, Context.class);
+					m = BeanMethods.get(bean.getClass(), selector, Context.class);
 					isContextual = true;
 				} else {
-					m = bean.getClass().getMethod(selector, argTypes);
+					m = BeanMethods.get(bean.getClass(), selector, argTypes);
 				}
 				if(logger.isTraceEnabled())
 					logger.trace("Executing service bean method: {} by: {} isContextual: {}",
@@ -1170,15 +1341,44 @@ public class ProviderDelegate {
 					((ServiceContext) task.getContext()).setCurrentPrefix(pf);
 
 				Context result = task.getContext();
-				if (isContextual)
-					result = execContextualBean(m, task, bean, args);
-				else
-					result = execParametricBean(m, task, bean, args);
+				boolean admitted = operationAdmission != null && operationAdmission.admit(selector);
+				int id = analyticsRecorder != null ? analyticsRecorder.inprocess(selector) : 0;
+				int reported = task.getExceptions().size();
+				boolean cpuBound = isCpuBound(selector);
+				try {
+					if (cpuBound)
+						cpuPermits.acquire();
+					try {
+						if (isContextual)
+							result = execContextualBean(m, task, bean, args);
+						else
+							result = execParametricBean(m, task, bean, args);
+					} finally {
+						if (cpuBound)
+							cpuPermits.release();
+					}
+					if (analyticsRecorder != null) {
+						if (task.getExceptions().size() > reported)
+							analyticsRecorder.failed(selector, id);
+						else
+							analyticsRecorder.completed(selector, id);
+					}
+				} catch (Exception e) {
+					if (analyticsRecorder != null)
+						analyticsRecorder.failed(selector, id);
+					throw e;
+				} finally {
+					if (admitted)
+						operationAdmission.release(selector);
+				}
 
 				// clearSessions task in the context
 				result.setRoutine(null);
 				task.setContext(result);
 				task.setStatus(Exec.DONE);
+				ControlContext cc = (ControlContext) task.getControlContext();
+				if (cc.isCacheable() && !isCacheable(bean.getClass(), selector))
+					cc.setCacheable(false);
 				return task;
 			} catch (InvocationTargetException e){
 				Throwable t = e.getCause();
@@ -1193,7 +1393,7 @@ public class ProviderDelegate {
 		return task;
 	}
 
-	private Context execContextualBean(Method m, Task task, Object impl, Arg... args)
+	private Context execContextualBean(BeanMethods.Invoker m, Task task, Object impl, Arg... args)
 		throws ContextException, IllegalArgumentException,
 		IllegalAccessException, InvocationTargetException, RemoteException {
 		Context result = task.getContext();
@@ -1231,7 +1431,7 @@ public class ProviderDelegate {
 		return result;
 	}
 
-	private Context execParametricBean(Method m, Task task,
+	private Context execParametricBean(BeanMethods.Invoker m, Task task,
 									   Object impl, Arg... args) throws IllegalArgumentException,
 		IllegalAccessException, InvocationTargetException, ContextException, RemoteException {
 		Context result = task.getContext();
@@ -1407,6 +1607,9 @@ public class ProviderDelegate {
 					+ provider.getProviderName());
 				task.setContext(cxt);
 				task.setStatus(Exec.DONE);
+				ControlContext cc = (ControlContext) task.getControlContext();
+				if (cc.isCacheable() && !isCacheable(sig.getSelector()))
+					cc.setCacheable(false);
 				if (cxt.getContextReturn() != null) {
 					cxt.setReturnValue(cxt.getValue(cxt.getContextReturn().returnPath));
 				} else if (task.getDataContext().getScope() != null) {
@@ -1423,11 +1626,49 @@ public class ProviderDelegate {
 		return task;
 	}
 
+	/**
+	 * Returns false if the provider operation is annotated with
+	 * {@link NonCacheable}.
+	 */
+	public boolean isCacheable(String selector) {
+		return isCacheable(provider.getClass(), selector);
+	}
+
+	/**
+	 * Returns false if the operation is annotated with {@link NonCacheable}
+	 * in the given provider or bean class, its superclasses or interfaces.
+	 */
+	public boolean isCacheable(Class<?> type, String selector) {
+		String key = type.getName() + "#" + selector;
+		Boolean cacheable = cacheableOperations.get(key);
+		if (cacheable == null) {
+			cacheable = !isNonCacheable(type, selector, new HashSet<Class<?>>());
+			cacheableOperations.put(key, cacheable);
+		}
+		return cacheable;
+	}
+
+	private static boolean isNonCacheable(Class<?> type, String selector, Set<Class<?>> visited) {
+		if (type == null || !visited.add(type))
+			return false;
+		for (Method m : type.getDeclaredMethods()) {
+			if (m.getName().equals(selector) && m.isAnnotationPresent(NonCacheable.class))
+				return true;
+		}
+		if (isNonCacheable(type.getSuperclass(), selector, visited))
+			return true;
+		for (Class<?> i : type.getInterfaces()) {
+			if (isNonCacheable(i, selector, visited))
+				return true;
+		}
+		return false;
+	}
+
 	public Routine invokeMethod(String selector, Routine ex)
 		throws RoutineException {
 		Class[] argTypes = new Class[] { Mogram.class };
 		try {
-			Method m = provider.getClass().getMethod(selector, argTypes);
+			BeanMethods.Invoker m = BeanMethods.get(provider.getClass(), selector, argTypes);
 			logger.info("Executing method: " + m + " by: "
 				+ config.getProviderName());
 
@@ -1450,33 +1691,32 @@ public class ProviderDelegate {
 				args = cxt.getArgs();
 				isContextual = false;
 			}
-			Method execMethod = null;
-			for(Method m : provider.getClass().getMethods()) {
-				if(m.getName().equals(selector) && m.getParameterCount()==1) {
-					if(m.getParameterTypes()[0].isAssignableFrom(argTypes[0])) {
-						execMethod = m;
-						break;
-					}
-				}
-			}
-			if(execMethod==null)
-				execMethod = provider.getClass().getMethod(selector, argTypes);
+			BeanMethods.Invoker execMethod = BeanMethods.find(provider.getClass(), selector, argTypes);
 			Context result;
             /*boolean monitored = MonitorCheck.monitor(execMethod);
 			int id = 0;
             if(monitored)*/
+			boolean admitted = operationAdmission != null && operationAdmission.admit(selector);
 			int id = analyticsRecorder.inprocess(selector);
+			boolean cpuBound = isCpuBound(selector);
 			try {
-				if (isContextual) {
-					result = (ServiceContext) execMethod.invoke(provider, args);
-					// Setting Return Values
-					if (result.getContextReturn() != null) {
-						Object resultValue = result.getValue(((ServiceContext) result).getContextReturn().returnPath);
-						result.setReturnValue(resultValue);
+				if (cpuBound)
+					cpuPermits.acquire();
+				try {
+					if (isContextual) {
+						result = (ServiceContext) execMethod.invoke(provider, args);
+						// Setting Return Values
+						if (result.getContextReturn() != null) {
+							Object resultValue = result.getValue(((ServiceContext) result).getContextReturn().returnPath);
+							result.setReturnValue(resultValue);
+						}
+					} else {
+						sc.setReturnValue(execMethod.invoke(provider, args));
+						result = sc;
 					}
-				} else {
-					sc.setReturnValue(execMethod.invoke(provider, args));
-					result = sc;
+				} finally {
+					if (cpuBound)
+						cpuPermits.release();
 				}
 				if(result.getExceptions().size()>0)
 					analyticsRecorder.failed(selector, id);
@@ -1485,6 +1725,9 @@ public class ProviderDelegate {
 			} catch(Exception e) {
 				analyticsRecorder.failed(selector, id);
 				throw e;
+			} finally {
+				if (admitted)
+					operationAdmission.release(selector);
 			}
 
 			return result;
@@ -1831,11 +2074,27 @@ public class ProviderDelegate {
 		return leaseManager;
 	}
 
+	/**
+	 * Returns the factory of exporters configured for this provider, null
+	 * before the provider is initialized.
+	 */
+	AbstractExporterFactory getExporterFactory() {
+		return exporterFactory;
+	}
+
 	public void destroy() {
 		shuttingDown = true;
 		if (remoteLoggerInstaller!=null) {
 			remoteLoggerInstaller.destroy();
 		}
+		ExecutorService pool;
+		synchronized (this) {
+			pool = batchPool;
+		}
+		if (pool != null)
+			shutdownAndAwaitTermination(pool);
+		if (remoteCallPool != null)
+			remoteCallPool.shutdown();
 		if (spaceEnabled && spaceHandlingPools != null) {
 			for (SpaceTaker st : spaceTakers) {
 				if(st!=null)
@@ -2040,6 +2299,9 @@ public class ProviderDelegate {
 						+ uuid);
 
 			exertionStateTable.put(uuid, Exec.STOPPED);
+			Thread thread = exertionThreads.get(uuid);
+			if (thread != null)
+				thread.interrupt();
 		}
 	}
 
@@ -2738,6 +3000,19 @@ public class ProviderDelegate {
 			throw new ProviderException("wrong inner proxy for this provider");
 	}
 
+	/**
+	 * Returns the data keys cached by this provider, a provider adds keys of
+	 * data it caches to have its space takers take exertions reusing them
+	 * first, null if the takers are not affinity aware.
+	 */
+	public DataAffinity getDataAffinity() {
+		return dataAffinity;
+	}
+
+	OperationAdmission getOperationAdmission() {
+		return operationAdmission;
+	}
+
 	AnalyticsRecorder getAnalyticsRecorder() {
 		return analyticsRecorder;
 	}
@@ -2812,6 +3087,18 @@ public class ProviderDelegate {
 				getProviderName(),
 				System.getProperty("user.name"));
 
+			String[] operationLimits = (String[]) config.getEntry(ServiceExerter.COMPONENT,
+				OPERATION_LIMITS,
+				String[].class,
+				null);
+			if (operationLimits != null) {
+				long operationMaxWait = (Long) config.getEntry(ServiceExerter.COMPONENT,
+					OPERATION_MAX_WAIT,
+					long.class,
+					0L);
+				operationAdmission = new OperationAdmission(operationLimits, operationMaxWait, analyticsRecorder);
+			}
+
 			// find it out if service bean signature are available
 			Signature signature = (Signature) config.getEntry(ServiceExerter.COMPONENT,
 				BEAN_SIG,
@@ -2849,6 +3136,7 @@ public class ProviderDelegate {
 				initServiceBeans(serviceBeans);
 				SorcerILFactory ilFactory = new SorcerILFactory(serviceComponents, implClassLoader, analyticsRecorder);
 				ilFactory.setRemoteLogging(remoteLogging);
+				ilFactory.setExecutor(remoteCallPool);
 				//ilFactory.setMonitoringBeanHandler(new DefaultMonitoringBeanHandler(config, this));
 				outerExporter = exporterFactory.get(ilFactory);
 				logger.info("{}, {}", outerExporter, ((BasicJeriExporter)outerExporter).getInvocationLayerFactory().getClass().getName());
@@ -2864,12 +3152,14 @@ public class ProviderDelegate {
 						protected InvocationDispatcher createInvocationDispatcher(Collection methods,
 																				  Remote impl,
 																				  ServerCapabilities caps) throws ExportException {
-							return new RecordingInvocationDispatcher(methods,
+							RecordingInvocationDispatcher dispatcher = new RecordingInvocationDispatcher(methods,
 								caps,
 								getServerConstraints(),
 								getPermissionClass(),
 								implClassLoader,
 								analyticsRecorder);
+							dispatcher.setExecutor(remoteCallPool);
+							return dispatcher;
 						}
 					};
 					outerExporter = exporterFactory.get(ilF);
@@ -3375,16 +3665,44 @@ public class ProviderDelegate {
 
 	public static final String WORKER_COUNT = "workerCount";
 
+	public static final String OPERATION_LIMITS = "operationLimits";
+
+	public static final String OPERATION_MAX_WAIT = "operationMaxWait";
+
 	public static final String WORKER_PER_INTERFACE_COUNT = "workerPerInterfaceCount";
 
 	public static final String SPACE_WORKER_QUEUE_SIZE = "workerQueueSize";
 
 	public static final String MAX_WORKER_POOL_SIZE = "maxWorkerPoolSize";
 
+	public static final String WORKER_THREAD_MODEL = "workerThreadModel";
+
+	public static final String PLATFORM_THREADS = "platform";
+
+	public static final String VIRTUAL_THREADS = "virtual";
+
+	public static final String MAX_VIRTUAL_WORKERS = "maxVirtualWorkers";
+
+	public static final int MAX_VIRTUAL_WORKERS_DEFAULT = 1000;
+
+	public static final String WORKER_CPU_PERMITS = "workerCpuPermits";
+
+	public static final String CPU_BOUND_OPERATIONS = "cpuBoundOperations";
+
 	public static final String WORKER_TRANSACTION_LEASE_TIME = "workerTransactionLeaseTime";
 
 	public static final String SPACE_TIMEOUT = "workerTimeout";
 
+	public static final String SPACE_TAKE_SIZE = "spaceTakeSize";
+
+	public static final String SPACE_TAKER_PREFETCH = "spaceTakerPrefetch";
+
+	public static final String SPACE_TAKER_NOTIFY = "spaceTakerNotify";
+
+	public static final String SPACE_TXN_BATCH_SIZE = "spaceTxnBatchSize";
+
+	public static final String SPACE_TAKER_AFFINITY = "spaceTakerAffinity";
+
 	public static final String INTERFACE_ONLY = "matchInterfaceOnly";
 
 }
@@ -18,10 +18,41 @@ package sorcer.core.provider;
 
 public class ProviderException extends Exception {
 
+	// time in milliseconds after which a rejected request may be retried
+	private long retryAfter;
+
 	public ProviderException() {
 	}
 
 	public ProviderException(String msg) {
 		super(msg);
 	}
+
+	public ProviderException(String msg, long retryAfter) {
+		super(msg);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Returns the time in milliseconds after which the request may be
+	 * retried, or 0 if no retry is expected to succeed.
+	 */
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+
+	/**
+	 * Returns the retry-after hint of the first {@link ProviderException} in
+	 * the cause chain of the throwable, or 0 if none.
+	 */
+	public static long getRetryAfter(Throwable throwable) {
+		while (throwable != null) {
+			if (throwable instanceof ProviderException)
+				return ((ProviderException) throwable).getRetryAfter();
+			if (throwable.getCause() == throwable)
+				break;
+			throwable = throwable.getCause();
+		}
+		return 0;
+	}
 }
@@ -29,7 +29,6 @@ import sorcer.co.operator.Tokens;
 import java.rmi.RemoteException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /*
  * This space taker first reads and takes only tasks with indicated OS
@@ -67,12 +66,12 @@ public class SelectableTaker extends SpaceTaker {
 					// select the space entry that matching provider's OS and application constraints
 					ee = selectSpaceEntry(data, space);
 					if (ee == null) {
-						Thread.sleep(spaceTimeout);
+						awaitEnvelop(spaceTimeout);
 					}
 				}
 
 				if (data.noQueue) {
-					if (((ThreadPoolExecutor) pool).getActiveCount() != ((ThreadPoolExecutor) pool).getCorePoolSize()) {
+					if (!isPoolBusy()) {
 						Transaction tx = null;
 						if (isTransactional) {
 							txnCreated = TX.createTransaction(transactionLeaseTimeout);
@@ -86,8 +85,8 @@ public class SelectableTaker extends SpaceTaker {
 						envelopNoCast = space.take(data.entry, tx, spaceTimeout);
 						ee = (ExertionEnvelop) envelopNoCast;
 					} else {
-                        /* Sleep for whats basically a clock tick to avoid thrashing */
-						Thread.sleep(50);
+                        /* Wait for whats basically a clock tick to avoid thrashing */
+						awaitWorker(50);
 						continue;
 					}
 				} else {
@@ -113,7 +112,7 @@ public class SelectableTaker extends SpaceTaker {
 					if (txnCreated != null) {
 						TX.abortTransaction(txnCreated);
 						try {
-							Thread.sleep(spaceTimeout / 2);
+							awaitEnvelop(spaceTimeout / 2);
 						} catch (InterruptedException ie) {
 							keepGoing = false;
 							break;
@@ -30,8 +30,10 @@ import net.jini.core.transaction.Transaction;
 import net.jini.discovery.DiscoveryGroupManagement;
 import net.jini.discovery.LookupDiscoveryManager;
 import net.jini.export.ProxyAccessor;
+import net.jini.export.ServerContext;
 import net.jini.id.ReferentUuid;
 import net.jini.id.Uuid;
+import net.jini.io.context.ClientHost;
 import net.jini.lookup.JoinManager;
 import net.jini.lookup.ServiceIDListener;
 import net.jini.lookup.entry.UIDescriptor;
@@ -48,6 +50,7 @@ import sorcer.core.SorcerConstants;
 import sorcer.core.analytics.MethodAnalytics;
 import sorcer.core.analytics.SystemAnalytics;
 import sorcer.core.context.ControlContext;
+import sorcer.core.context.DeltaContext;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.exertion.NetTask;
 import sorcer.core.proxy.Outer;
@@ -75,6 +78,7 @@ import java.net.URLDecoder;
 import java.rmi.NoSuchObjectException;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.rmi.server.ServerNotActiveException;
 import java.security.*;
 import java.util.*;
 import java.util.concurrent.Callable;
@@ -163,7 +167,7 @@ import static sorcer.util.StringUtils.tName;
  *
  * @author Mike Sobolewski
  */
-public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
+public class ServiceExerter implements Identifiable, Exerter, BatchExertion, ServiceIDListener,
 		ReferentUuid, ProxyAccessor, ServerProxyTrust, RemoteMethodControl, ServiceActivityProvider,
 		LifeCycle, Partner, Partnership, SorcerConstants, AdministratableProvider {
 	// RemoteMethodControl is needed to enable Proxy Constraints
@@ -1509,6 +1513,27 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 	@Override
 	public Mogram exert(Contextion mogram, Transaction txn, Arg... args)
 			throws ContextException, RemoteException {
+		DeltaContext.Snapshot snapshot = null;
+		// a local requestor holds the task itself, only a remote one gets a delta
+		if (mogram instanceof Task && ((ControlContext) ((Task) mogram).getControlContext()).isDeltaReturn()
+				&& isRemoteCall())
+			snapshot = DeltaContext.snapshot((Task) mogram);
+		Mogram out = exertMogram(mogram, txn, args);
+		if (snapshot != null && out instanceof Task)
+			DeltaContext.trim((Task) out, snapshot);
+		return out;
+	}
+
+	private static boolean isRemoteCall() {
+		try {
+			return ServerContext.getServerContextElement(ClientHost.class) != null;
+		} catch (ServerNotActiveException e) {
+			return false;
+		}
+	}
+
+	private Mogram exertMogram(Contextion mogram, Transaction txn, Arg... args)
+			throws ContextException, RemoteException {
 		if (mogram instanceof Task) {
 			ServiceContext cxt;
 			try {
@@ -1569,6 +1594,34 @@ public class ServiceExerter implements Identifiable, Exerter, ServiceIDListener,
 		return out;
 	}
 
+	/**
+	 * Exerts the batch of mograms in parallel on the batch pool of the
+	 * delegate. A mogram that fails is returned with its exception and the
+	 * failed status, the other ones are not affected.
+	 */
+	@Override
+	public List<Contextion> exertAll(List<? extends Contextion> mograms, final Transaction txn,
+									 final Arg... args) throws RoutineException {
+		List<Callable<Contextion>> calls = new ArrayList<>(mograms.size());
+		for (final Contextion mogram : mograms) {
+			calls.add(new Callable<Contextion>() {
+				@Override
+				public Contextion call() {
+					try {
+						return exert(mogram, txn, args);
+					} catch (Exception e) {
+						logger.error("{} failed", getProviderName(), e);
+						((ServiceMogram) mogram).reportException(new RoutineException(getProviderName() + " failed", e));
+						((ServiceMogram) mogram).setStatus(Exec.FAILED);
+						return mogram;
+					}
+				}
+			});
+		}
+		logger.debug("Exerting batch of {} mograms", mograms.size());
+		return delegate.invokeAll(calls);
+	}
+
 	// TODO in/out/inout marking as defined in the inConnector
 	private void updateContext(Task task) throws ContextException {
 		Context connector = task.getProcessSignature().getInConnector();
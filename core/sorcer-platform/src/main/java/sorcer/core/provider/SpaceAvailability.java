@@ -0,0 +1,144 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.lease.Lease;
+import net.jini.export.Exporter;
+import net.jini.lease.LeaseListener;
+import net.jini.lease.LeaseRenewalEvent;
+import net.jini.space.JavaSpace05;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.container.jeri.AbstractExporterFactory;
+import sorcer.container.jeri.ExporterFactories;
+
+import java.util.Collection;
+
+/**
+ * Availability events of envelopes matching space taker templates. A space
+ * taker waits on it, instead of sleeping, until an envelope it can take is
+ * written to the space. The listener is registered with the space on the
+ * first wait and again when the space changes or its registration lease can
+ * not be renewed. The listener is exported with the exporter factory of the
+ * provider and its registration is renewed by the lease manager shared by
+ * providers.
+ */
+public class SpaceAvailability implements RemoteEventListener {
+    private final static Logger logger = LoggerFactory.getLogger(SpaceAvailability.class);
+
+    private static final long MIN_LEASE = 30000;
+
+    private final Collection<? extends Entry> templates;
+    private final AbstractExporterFactory exporterFactory;
+    private Exporter exporter;
+    private RemoteEventListener proxy;
+    private JavaSpace05 space;
+    private Lease lease;
+    private boolean available;
+
+    /**
+     * @param exporterFactory factory of the listener exporter, the default
+     *                        TCP exporter if null
+     */
+    public SpaceAvailability(Collection<? extends Entry> templates, AbstractExporterFactory exporterFactory) {
+        this.templates = templates;
+        this.exporterFactory = exporterFactory != null ? exporterFactory : ExporterFactories.EXPORTER;
+    }
+
+    /**
+     * Waits until an envelope matching the templates is available or the
+     * time elapses.
+     *
+     * @return false if not registered with the space, the caller has to
+     * wait by other means then
+     */
+    public synchronized boolean await(JavaSpace05 space, long time) throws InterruptedException {
+        if ((space != this.space || lease == null) && !register(space))
+            return false;
+        long deadline = System.currentTimeMillis() + time;
+        while (!available && lease != null) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0)
+                break;
+            wait(wait);
+        }
+        available = false;
+        return true;
+    }
+
+    private boolean register(JavaSpace05 space) {
+        cancel();
+        try {
+            if (exporter == null) {
+                exporter = exporterFactory.get();
+                proxy = (RemoteEventListener) exporter.export(this);
+            }
+            EventRegistration registration = space.registerForAvailabilityEvent(templates, null, true,
+                    proxy, Lease.FOREVER, null);
+            lease = registration.getLease();
+            ProviderDelegate.getLeaseManager().renewUntil(lease, Lease.FOREVER, MIN_LEASE, new LeaseListener() {
+                @Override
+                public void notify(LeaseRenewalEvent event) {
+                    logger.warn("Lost availability registration with space", event.getException());
+                    synchronized (SpaceAvailability.this) {
+                        if (lease == event.getLease())
+                            lease = null;
+                        SpaceAvailability.this.notifyAll();
+                    }
+                }
+            });
+            this.space = space;
+            // envelops written before the registration are not notified
+            available = true;
+            logger.debug("Registered for availability events with space");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Unable to register for availability events, polling the space", e);
+            lease = null;
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void notify(RemoteEvent event) {
+        available = true;
+        notifyAll();
+    }
+
+    private void cancel() {
+        if (lease != null) {
+            try {
+                ProviderDelegate.getLeaseManager().remove(lease);
+                lease.cancel();
+            } catch (Exception e) {
+                logger.debug("Unable to cancel availability registration", e);
+            }
+            lease = null;
+        }
+    }
+
+    public synchronized void destroy() {
+        cancel();
+        if (exporter != null)
+            exporter.unexport(true);
+        notifyAll();
+    }
+}
@@ -34,6 +34,7 @@ public class SpaceIsReadyTaker extends SpaceTaker {
 		this.pool = pool;
 		this.transactionLeaseTimeout = getTransactionLeaseTime();
 		this.spaceTimeout = getTimeOut();
+		this.notifyMode = getBooleanEntry(ProviderDelegate.SPACE_TAKER_NOTIFY, false);
 	}
 
 	public void run() {
@@ -86,7 +87,7 @@ public class SpaceIsReadyTaker extends SpaceTaker {
 				if (ee == null) {
 					if (txnCreated != null) {
 						txnCreated.transaction.abort();
-						Thread.sleep(SPACE_TIMEOUT / 2);
+						awaitEnvelop(SPACE_TIMEOUT / 2);
 					}
 					continue;
 				}
@@ -18,9 +18,12 @@ package sorcer.core.provider;
 
 import net.jini.config.Configuration;
 import net.jini.core.entry.Entry;
+import net.jini.core.entry.UnusableEntryException;
 import net.jini.core.lease.Lease;
 import net.jini.core.lease.UnknownLeaseException;
 import net.jini.core.transaction.Transaction;
+import net.jini.core.transaction.TransactionException;
+import net.jini.entry.UnusableEntriesException;
 import net.jini.lease.LeaseListener;
 import net.jini.lease.LeaseRenewalManager;
 import net.jini.space.JavaSpace;
@@ -28,6 +31,7 @@ import net.jini.space.JavaSpace05;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import sorcer.container.jeri.AbstractExporterFactory;
 import sorcer.core.SorcerConstants;
 import sorcer.core.exertion.ExertionEnvelop;
 import sorcer.core.loki.exertion.KPEntry;
@@ -41,6 +45,8 @@ import sorcer.util.OperatingSystemType;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -68,12 +74,34 @@ public class SpaceTaker implements Runnable {
 
 	protected long spaceTimeout = SPACE_TIMEOUT;
 
+	public final static int TAKE_SIZE = 16;
+
+	// maximum number of envelopes taken with one call
+	protected int takeSize = TAKE_SIZE;
+
+	public final static int PREFETCH = 2;
+
+	// number of envelopes taken ahead of free workers and queued in the pool
+	protected int prefetch = PREFETCH;
+
+	// maximum number of envelopes taken and committed with one transaction
+	protected int txnBatchSize = 1;
+
+	// wait for availability events instead of polling the space
+	protected boolean notifyMode;
+
+	protected SpaceAvailability availability;
+
+	// signaled when a space worker is done
+	private final Object workerMonitor = new Object();
+
 	protected JavaSpace05 space;
 
 	protected SpaceTakerData data;
 
 	protected ExecutorService pool;
 
+    // shared by the takers of a provider
     private final LeaseRenewalManager lrm;
 
 	// controls the loop of this space worker
@@ -138,7 +166,7 @@ public class SpaceTaker implements Runnable {
 	 * Default constructor. Set the worker thread as a Daemon thread
 	 */
 	public SpaceTaker() {
-        lrm = new LeaseRenewalManager();
+        lrm = ProviderDelegate.getLeaseManager();
 	}
 
 	/**
@@ -160,9 +188,129 @@ public class SpaceTaker implements Runnable {
         this.remoteLogging = remoteLogging;
 		this.transactionLeaseTimeout = getTransactionLeaseTime();
 		this.spaceTimeout = getTimeOut();
+		this.takeSize = getIntEntry(ProviderDelegate.SPACE_TAKE_SIZE, TAKE_SIZE);
+		this.prefetch = getIntEntry(ProviderDelegate.SPACE_TAKER_PREFETCH, PREFETCH);
+		this.notifyMode = getBooleanEntry(ProviderDelegate.SPACE_TAKER_NOTIFY, false);
+		this.txnBatchSize = getIntEntry(ProviderDelegate.SPACE_TXN_BATCH_SIZE, 1);
 		this.isTransactional = data.workerTransactional;
 	}
 
+	protected int getIntEntry(String name, int defaultValue) {
+		try {
+			Configuration config = ((ServiceExerter)data.provider).getProviderConfiguration();
+			return (Integer) config.getEntry(ServiceExerter.COMPONENT, name, int.class, defaultValue);
+		} catch (Exception e) {
+			return defaultValue;
+		}
+	}
+
+	protected boolean getBooleanEntry(String name, boolean defaultValue) {
+		try {
+			Configuration config = ((ServiceExerter)data.provider).getProviderConfiguration();
+			return (Boolean) config.getEntry(ServiceExerter.COMPONENT, name, boolean.class, defaultValue);
+		} catch (Exception e) {
+			return defaultValue;
+		}
+	}
+
+	private AbstractExporterFactory getExporterFactory() {
+		if (data.provider instanceof ServiceExerter)
+			return ((ServiceExerter)data.provider).getDelegate().getExporterFactory();
+		return null;
+	}
+
+	/**
+	 * Waits for an envelope to be written to the space. In the notify mode
+	 * returns as soon as the space notifies a matching envelope, otherwise
+	 * or if the space does not accept the registration sleeps for the time.
+	 */
+	protected void awaitEnvelop(long time) throws InterruptedException {
+		if (notifyMode && space != null) {
+			if (availability == null)
+				availability = new SpaceAvailability(Collections.<Entry>singletonList(data.entry),
+						getExporterFactory());
+			if (availability.await(space, time))
+				return;
+		}
+		Thread.sleep(time);
+	}
+
+	/**
+	 * Waits up to the time for a space worker to be done.
+	 */
+	protected void awaitWorker(long time) throws InterruptedException {
+		synchronized (workerMonitor) {
+			workerMonitor.wait(time);
+		}
+	}
+
+	private void workerDone() {
+		synchronized (workerMonitor) {
+			workerMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Takes an envelope matching the template of this taker.
+	 */
+	protected ExertionEnvelop takeEnvelop(Transaction txn, long timeout)
+			throws UnusableEntriesException, UnusableEntryException, TransactionException,
+			InterruptedException, RemoteException {
+		return (ExertionEnvelop) space.take(data.entry, txn, timeout);
+	}
+
+	/**
+	 * Takes up to count envelopes matching the template of this taker.
+	 */
+	protected Collection<?> takeEnvelops(Transaction txn, long timeout, int count)
+			throws UnusableEntriesException, UnusableEntryException, TransactionException,
+			InterruptedException, RemoteException {
+		return space.take(Collections.<Entry>singletonList(data.entry), txn, timeout, count);
+	}
+
+	/**
+	 * Takes up to count envelopes without a transaction. If some of them
+	 * are unusable the usable ones are returned, they are already out of the
+	 * space.
+	 */
+	protected Collection<?> takeUsableEnvelops(long timeout, int count)
+			throws UnusableEntryException, TransactionException, InterruptedException, RemoteException {
+		try {
+			return takeEnvelops(null, timeout, count);
+		} catch (UnusableEntriesException e) {
+			Collection<UnusableEntryException> exceptions = e.getUnusableEntryExceptions();
+			for (UnusableEntryException ue : exceptions)
+				logger.warn("Unusable envelope taken, unusable fields: {}", ue.partialEntry, ue);
+			return e.getEntries();
+		}
+	}
+
+	/**
+	 * Returns the number of envelopes to be taken next: the number of idle
+	 * workers plus the prefetch (the free queue capacity if queueing is
+	 * enabled), bounded by the room left in the pool queue and the take size.
+	 * Virtual worker pools do not queue, only idle workers are counted.
+	 */
+	protected int getTakeCount() {
+		if (pool instanceof VirtualWorkerPool)
+			return Math.min(takeSize, ((VirtualWorkerPool) pool).getIdleCount());
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) pool;
+		int idle = Math.max(0, executor.getCorePoolSize() - executor.getActiveCount());
+		int queued = executor.getQueue().size();
+		int room = executor.getQueue().remainingCapacity();
+		int ahead = data.noQueue ? Math.max(0, prefetch - queued) : room;
+		return Math.min(takeSize, Math.min(idle + ahead, room));
+	}
+
+	/**
+	 * Returns true if all workers of the pool are busy.
+	 */
+	protected boolean isPoolBusy() {
+		if (pool instanceof VirtualWorkerPool)
+			return ((VirtualWorkerPool) pool).getIdleCount() == 0;
+		return ((ThreadPoolExecutor) pool).getActiveCount() == ((ThreadPoolExecutor) pool).getCorePoolSize();
+	}
+
 	protected long getTransactionLeaseTime() {
 		long lt;
 		Configuration config;
@@ -255,7 +403,6 @@ public class SpaceTaker implements Runnable {
 
 		while (keepGoing) {
 			ExertionEnvelop ee;
-            Object envelopNoCast;
 			try {
 				space = SpaceAccessor.getSpace(data.spaceName);
 				if (space == null) {
@@ -263,8 +410,56 @@ public class SpaceTaker implements Runnable {
 					continue;
 				}
 
+				// take many envelopes under one transaction committed when
+				// the workers of all envelopes are done
+				if (isTransactional && txnBatchSize > 1) {
+					int count = Math.min(txnBatchSize, getTakeCount());
+					if (count == 0) {
+						awaitWorker(50);
+						continue;
+					}
+					txnCreated = TX.createTransaction(transactionLeaseTimeout);
+					if (txnCreated == null) {
+						logger.warn("SpaceTaker did not getValue TRANSACTION thread: {}", threadId);
+						Thread.sleep(spaceTimeout / 6);
+						continue;
+					}
+					Collection<?> envelops = takeEnvelops(txnCreated.transaction, spaceTimeout, count);
+					if (envelops.isEmpty()) {
+						TX.abortTransaction(txnCreated);
+						txnCreated = null;
+						continue;
+					}
+					TxnBatch batch = new TxnBatch(txnCreated, envelops.size());
+					txnCreated = null;
+					for (Object envelop : envelops) {
+						try {
+							pool.execute(new SpaceWorker((ExertionEnvelop) envelop, batch, data.provider, remoteLogging));
+						} catch (Exception e) {
+							logger.warn("Not able to execute envelope, aborting its transaction batch", e);
+							batch.done(false);
+						}
+					}
+					continue;
+				}
+
+				// take many envelopes with one call, a transaction is
+				// committed by the worker of its envelope so can not be shared
+				if (!isTransactional && takeSize > 1) {
+					int count = getTakeCount();
+					if (count == 0) {
+						/* Wait for whats basically a clock tick to avoid thrashing */
+						awaitWorker(50);
+						continue;
+					}
+					Collection<?> envelops = takeUsableEnvelops(spaceTimeout, count);
+					for (Object envelop : envelops)
+						pool.execute(new SpaceWorker((ExertionEnvelop) envelop, (Transaction.Created) null, data.provider, remoteLogging));
+					continue;
+				}
+
 				if (data.noQueue) {
-					if (((ThreadPoolExecutor) pool).getActiveCount() != ((ThreadPoolExecutor) pool).getCorePoolSize()) {
+					if (!isPoolBusy()) {
                         Transaction tx = null;
 						if (isTransactional) {
 							txnCreated = TX.createTransaction(transactionLeaseTimeout);
@@ -275,11 +470,10 @@ public class SpaceTaker implements Runnable {
 							}
                             tx = txnCreated.transaction;
 						}
-                        envelopNoCast = space.take(data.entry, tx, spaceTimeout);
-                        ee = (ExertionEnvelop) envelopNoCast;
+                        ee = takeEnvelop(tx, spaceTimeout);
 					} else {
-                        /* Sleep for whats basically a clock tick to avoid thrashing */
-                        Thread.sleep(50);
+                        /* Wait for whats basically a clock tick to avoid thrashing */
+                        awaitWorker(50);
 						continue;
 					}
 				} else {
@@ -291,11 +485,9 @@ public class SpaceTaker implements Runnable {
 							Thread.sleep(spaceTimeout / 6);
 							continue;
 						}
-						ee = (ExertionEnvelop) space.take(data.entry,
-								txnCreated.transaction, spaceTimeout);
+						ee = takeEnvelop(txnCreated.transaction, spaceTimeout);
 					} else {
-						ee = (ExertionEnvelop) space.take(data.entry, null,
-								spaceTimeout);
+						ee = takeEnvelop(null, spaceTimeout);
 					}
 				}
 
@@ -305,7 +497,7 @@ public class SpaceTaker implements Runnable {
 					if (txnCreated != null) {
 						TX.abortTransaction(txnCreated);
 						try {
-                            Thread.sleep(spaceTimeout / 2);
+                            awaitEnvelop(spaceTimeout / 2);
                         } catch (InterruptedException ie) {
                             keepGoing = false;
                             break;
@@ -364,15 +556,60 @@ public class SpaceTaker implements Runnable {
 
     public void destroy() {
         keepGoing = false;
+        if (availability != null)
+            availability.destroy();
     }
 
 
+	/**
+	 * Transaction of a batch of envelopes, committed when the workers of all
+	 * envelopes wrote their results. Jini transactions are not nested, so if
+	 * any result can not be written the batch is aborted and all its envelopes
+	 * are returned to the space.
+	 */
+	class TxnBatch {
+		private final Transaction.Created txnCreated;
+		private int pending;
+		private boolean failed;
+
+		TxnBatch(Transaction.Created txnCreated, int size) {
+			this.txnCreated = txnCreated;
+			this.pending = size;
+		}
+
+		void done(boolean written) {
+			synchronized (this) {
+				if (!written)
+					failed = true;
+				if (--pending > 0)
+					return;
+			}
+			try {
+				if (failed)
+					TX.abortTransaction(txnCreated);
+				else
+					TX.commitTransaction(txnCreated);
+			} catch (Exception e) {
+				logger.warn("Error while completing transaction batch", e);
+			}
+		}
+	}
+
     class SpaceWorker implements Runnable {
         private ExertionEnvelop ee;
         private Exerter provider;
 		private Transaction.Created txnCreated;
+		private TxnBatch batch;
 		private boolean remoteLogging;
 
+		SpaceWorker(ExertionEnvelop envelope,
+					TxnBatch batch,
+					Exerter provider,
+					boolean remoteLogging) throws UnknownLeaseException {
+			this(envelope, (Transaction.Created) null, provider, remoteLogging);
+			this.batch = batch;
+		}
+
 		SpaceWorker(ExertionEnvelop envelope,
                     Transaction.Created workerTxnCreated,
                     Exerter provider,
@@ -387,6 +624,14 @@ public class SpaceTaker implements Runnable {
 		}
 
 		public void run() {
+			try {
+				doRun();
+			} finally {
+				workerDone();
+			}
+		}
+
+		private void doRun() {
             if(remoteLogging)
                 MDC.put(SorcerConstants.MDC_SORCER_REMOTE_CALL, SorcerConstants.MDC_SORCER_REMOTE_CALL);
             if (ee.exertion!=null && ee.exertion.getId()!=null)
@@ -401,6 +646,22 @@ public class SpaceTaker implements Runnable {
             }
 			String threadId = doThreadMonitorWorker(null);
 
+			if (batch != null) {
+				Transaction transaction = batch.txnCreated.transaction;
+				boolean written = false;
+				try {
+					Entry result = doEnvelope(ee, transaction, threadId, batch.txnCreated);
+					space.write(result, transaction, Lease.FOREVER);
+					written = true;
+				} catch (Exception e) {
+					logger.warn("Error while writing the result", e);
+				} finally {
+					batch.done(written);
+				}
+				doThreadMonitorWorker(threadId);
+				return;
+			}
+
 			Entry result = doEnvelope(ee,
                                       (txnCreated == null) ? null : txnCreated.transaction, threadId, txnCreated);
 
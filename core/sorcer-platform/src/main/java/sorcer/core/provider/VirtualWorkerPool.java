@@ -0,0 +1,124 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import sorcer.core.dispatch.DispatchExecutor;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pool of a provider running each worker on its own virtual thread.
+ * Workers of I/O bound providers mostly wait for remote calls, so the pool
+ * is bounded by the number of concurrent workers only, not by the number
+ * of platform threads. A worker submitted to a full pool is rejected like
+ * by a saturated {@link java.util.concurrent.ThreadPoolExecutor}.
+ */
+public class VirtualWorkerPool extends AbstractExecutorService {
+
+    private final ExecutorService threads;
+    private final Semaphore workers;
+    private final int maxWorkers;
+    private final AtomicInteger active = new AtomicInteger();
+
+    VirtualWorkerPool(ExecutorService threads, int maxWorkers) {
+        this.threads = threads;
+        this.maxWorkers = maxWorkers;
+        this.workers = new Semaphore(maxWorkers);
+    }
+
+    /**
+     * Returns a pool of up to maxWorkers concurrent workers, or null if
+     * virtual threads are not supported by the running JVM.
+     */
+    public static VirtualWorkerPool create(int maxWorkers) {
+        ExecutorService threads = DispatchExecutor.newVirtualThreadExecutor();
+        return threads != null ? new VirtualWorkerPool(threads, maxWorkers) : null;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (!workers.tryAcquire())
+            throw new RejectedExecutionException("All " + maxWorkers + " workers busy");
+        active.incrementAndGet();
+        try {
+            threads.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        command.run();
+                    } finally {
+                        active.decrementAndGet();
+                        workers.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            active.decrementAndGet();
+            workers.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of running workers
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return the number of workers that can be submitted without rejection
+     */
+    public int getIdleCount() {
+        return workers.availablePermits();
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+}
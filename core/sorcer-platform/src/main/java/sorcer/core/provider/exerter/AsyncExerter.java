@@ -0,0 +1,187 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.dispatch.DispatchExecutor;
+import sorcer.util.ConfigurableThreadFactory;
+
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded executor backing the asynchronous exert API of the {@link ServiceShell}
+ * and <code>sorcer.so.operator</code>. Requests are queued up to the queue
+ * capacity and executed by a fixed number of threads, or by virtual threads
+ * when enabled and supported by the running JVM. Futures returned can be
+ * cancelled, which interrupts a running request, and time out when a
+ * timeout is given. With platform threads at most {@link #THREADS} requests
+ * run at once and the others wait in the queue, so thousands of requests
+ * are in flight at once only with {@link #VIRTUAL_THREADS} enabled, up to
+ * the number of threads and the queue capacity.
+ *
+ * The executor is configured with system properties: {@link #THREADS},
+ * {@link #QUEUE_SIZE} and {@link #VIRTUAL_THREADS}.
+ */
+public class AsyncExerter {
+    private final static Logger logger = LoggerFactory.getLogger(AsyncExerter.class);
+
+    public final static String THREADS = "sorcer.exert.async.threads";
+    public final static String QUEUE_SIZE = "sorcer.exert.async.queueSize";
+    public final static String VIRTUAL_THREADS = "sorcer.exert.async.virtualThreads";
+
+    public final static int DEFAULT_THREADS = 64;
+    public final static int DEFAULT_QUEUE_SIZE = 10000;
+
+    private static AsyncExerter instance;
+
+    private final ExecutorService pool;
+    private final ThreadPoolExecutor platformPool;
+    private final ScheduledExecutorService timer;
+    // bounds the number of requests of a virtual thread pool
+    private final Semaphore permits;
+
+    public AsyncExerter(int threads, int queueSize, boolean virtualThreads) {
+        ExecutorService virtualPool = virtualThreads ? DispatchExecutor.newVirtualThreadExecutor() : null;
+        if (virtualPool != null) {
+            pool = virtualPool;
+            platformPool = null;
+            permits = new Semaphore(threads + queueSize);
+        } else {
+            ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+            factory.setNameFormat("AsyncExert-%2$d");
+            factory.setDaemon(true);
+            platformPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(queueSize), factory);
+            platformPool.allowCoreThreadTimeOut(true);
+            pool = platformPool;
+            permits = null;
+        }
+        ConfigurableThreadFactory timerFactory = new ConfigurableThreadFactory();
+        timerFactory.setNameFormat("AsyncExert-timer-%2$d");
+        timerFactory.setDaemon(true);
+        timer = Executors.newSingleThreadScheduledExecutor(timerFactory);
+        logger.info("Async exerter threads: {}, queue size: {}, virtual threads: {}",
+                threads, queueSize, virtualPool != null);
+    }
+
+    public static synchronized AsyncExerter getDefault() {
+        if (instance == null) {
+            instance = new AsyncExerter(
+                    Integer.getInteger(THREADS, DEFAULT_THREADS),
+                    Integer.getInteger(QUEUE_SIZE, DEFAULT_QUEUE_SIZE),
+                    Boolean.getBoolean(VIRTUAL_THREADS));
+        }
+        return instance;
+    }
+
+    /**
+     * Submits the request for asynchronous execution. A request rejected by the
+     * saturated executor returns a future completed exceptionally with
+     * a {@link RejectedExecutionException}.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> request) {
+        final Request<T> future = new Request<T>(request);
+        if (permits != null && !permits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("Async exerter saturated"));
+            return future;
+        }
+        try {
+            pool.execute(future.task);
+        } catch (RejectedExecutionException e) {
+            if (permits != null)
+                permits.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Submits the request for asynchronous execution, the returned future is
+     * completed exceptionally with a {@link TimeoutException} and the request
+     * is cancelled if it is not done within the given time.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> request, long timeout, TimeUnit unit) {
+        final CompletableFuture<T> future = submit(request);
+        if (!future.isDone()) {
+            final ScheduledFuture<?> expiry = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (future.completeExceptionally(new TimeoutException("Request timed out after "
+                            + unit.toMillis(timeout) + " ms")))
+                        ((Request) future).task.cancel(true);
+                }
+            }, timeout, unit);
+            future.whenComplete(new BiConsumer<T, Throwable>() {
+                @Override
+                public void accept(T result, Throwable throwable) {
+                    expiry.cancel(false);
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * @return the number of requests waiting for a thread
+     */
+    public int getQueueDepth() {
+        return platformPool != null ? platformPool.getQueue().size() : 0;
+    }
+
+    /**
+     * @return the number of requests executing
+     */
+    public int getActiveCount() {
+        return platformPool != null ? platformPool.getActiveCount() : -1;
+    }
+
+    private class Request<T> extends CompletableFuture<T> {
+        private final FutureTask<T> task;
+
+        Request(final Callable<T> request) {
+            task = new FutureTask<T>(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    try {
+                        T result = request.call();
+                        complete(result);
+                        return result;
+                    } catch (Throwable t) {
+                        completeExceptionally(t);
+                        throw t;
+                    }
+                }
+            }) {
+                @Override
+                protected void done() {
+                    // also called when cancelled before running
+                    if (permits != null)
+                        permits.release();
+                }
+            };
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            task.cancel(true);
+            return cancelled;
+        }
+    }
+}
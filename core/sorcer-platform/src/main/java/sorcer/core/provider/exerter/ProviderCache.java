@@ -35,6 +35,16 @@ public interface ProviderCache {
      */
     Object getProvider(Signature signature);
 
+    /**
+     * Evict a provider's proxy that failed a remote call for the signature, so it is not returned again unless
+     * rediscovered.
+     *
+     * @param signature The signature.
+     * @param provider The failed provider's proxy.
+     */
+    default void evict(Signature signature, Object provider) {
+    }
+
     /**
      * Get an instance of a ProviderCache using the "provider.cache" property, optionally set in the "sorcer.env" file.
      * If the property is not set, the ProviderCache defaults to the
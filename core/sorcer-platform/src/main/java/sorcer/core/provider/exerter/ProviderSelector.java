@@ -0,0 +1,58 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter;
+
+import sorcer.core.SorcerConstants;
+import sorcer.core.provider.exerter.selector.RoundRobinSelector;
+import sorcer.util.Sorcer;
+
+import java.util.List;
+
+/**
+ * Defines selecting one of equivalent providers matching a signature.
+ */
+public interface ProviderSelector {
+    /**
+     * Select the provider to call among the candidates.
+     *
+     * @param operation The selector of the operation to call, or null if not known.
+     * @param candidates The proxies of matching providers.
+     *
+     * @return One of the candidates, or null if there are none.
+     */
+    Object select(String operation, List<?> candidates);
+
+    /**
+     * Get an instance of a ProviderSelector using the "provider.selector" property, optionally set in the
+     * "sorcer.env" file. If the property is not set, the ProviderSelector defaults to the
+     * sorcer.core.provider.exerter.selector.RoundRobinSelector class.
+     *
+     * @return An instance of ProviderSelector.
+     *
+     * @throws RuntimeException if the ProviderSelector cannot be created.
+     */
+    static ProviderSelector get() {
+        String providerSelectorClassName = Sorcer.getProperties().getProperty(SorcerConstants.S_PROVIDER_SELECTOR_NAME,
+                                                                              RoundRobinSelector.class.getName());
+        try {
+            Class<?> providerSelectorClass = Class.forName(providerSelectorClassName);
+            return (ProviderSelector)providerSelectorClass.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create " + providerSelectorClassName, e);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.context.ControlContext;
+import sorcer.core.context.Contexts;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.*;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.rmi.MarshalledObject;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content addressed cache of task results used by the {@link ServiceShell}
+ * for tasks marked cacheable in their control context. A result is keyed by
+ * a digest of the task's process signature and the values of the in and
+ * inout paths of its context, or of all its paths when none is marked. The
+ * values are digested in a canonical encoding, so equal maps and sets give
+ * the same key regardless of their iteration order. The most recently used results are kept in
+ * memory, the least recently used ones are spilled to disk when a spill
+ * directory is configured. Spilled results are deleted when loaded back,
+ * evicted from disk, replaced, cleared and on shutdown.
+ *
+ * Results of operations marked {@link sorcer.core.provider.NonCacheable}
+ * by providers, failed tasks and tasks with not serializable inputs are not
+ * cached.
+ *
+ * The cache is configured with system properties: {@link #SIZE},
+ * {@link #DIR} and {@link #DISK_SIZE}.
+ */
+public class ResultCache {
+    private final static Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+    public final static String SIZE = "sorcer.exert.cache.size";
+    public final static String DIR = "sorcer.exert.cache.dir";
+    public final static String DISK_SIZE = "sorcer.exert.cache.diskSize";
+
+    public final static int DEFAULT_SIZE = 1000;
+    public final static int DEFAULT_DISK_SIZE = 10000;
+
+    private static ResultCache instance;
+
+    private final int size;
+    private final File dir;
+    private final int diskSize;
+    private final LinkedHashMap<String, MarshalledObject<Context>> results;
+    private final LinkedHashSet<String> spilled = new LinkedHashSet<String>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResultCache(int size, File dir, int diskSize) {
+        this.size = size;
+        this.dir = dir;
+        this.diskSize = diskSize;
+        if (dir != null && !dir.exists() && !dir.mkdirs())
+            logger.warn("Unable to create result cache directory: {}", dir);
+        if (dir != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread("ResultCache-cleanup") {
+                @Override
+                public void run() {
+                    clear();
+                }
+            });
+        }
+        results = new LinkedHashMap<String, MarshalledObject<Context>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MarshalledObject<Context>> eldest) {
+                if (size() <= ResultCache.this.size)
+                    return false;
+                evictions.incrementAndGet();
+                spill(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+        logger.info("Result cache size: {}, spill directory: {}", size, dir);
+    }
+
+    public static synchronized ResultCache getDefault() {
+        if (instance == null) {
+            String dir = System.getProperty(DIR);
+            instance = new ResultCache(
+                    Integer.getInteger(SIZE, DEFAULT_SIZE),
+                    dir != null ? new File(dir) : null,
+                    Integer.getInteger(DISK_SIZE, DEFAULT_DISK_SIZE));
+        }
+        return instance;
+    }
+
+    public static boolean isCacheable(Routine exertion) {
+        return exertion instanceof Task
+                && ((ControlContext) exertion.getControlContext()).isCacheable();
+    }
+
+    /**
+     * Returns the key of the task's result, or null if the task inputs can
+     * not be digested.
+     */
+    public String getKey(Task task) {
+        try {
+            Signature sig = task.getProcessSignature();
+            ServiceContext cxt = (ServiceContext) task.getContext();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeString(out, sig.getServiceType() != null ? sig.getServiceType().getName() : "");
+            writeString(out, sig.getSelector() != null ? sig.getSelector() : "");
+            writeString(out, sig.getProviderName() != null && sig.getProviderName().getName() != null
+                    ? sig.getProviderName().getName() : "");
+            writeString(out, sig.getPrefix() != null ? sig.getPrefix() : "");
+            List<String> paths = Contexts.getAllInPaths(cxt);
+            if (paths.isEmpty())
+                paths = new ArrayList<String>(cxt.keySet());
+            Collections.sort(paths);
+            for (String path : paths) {
+                writeString(out, path);
+                out.write(encode(cxt.get(path)));
+            }
+            out.close();
+            StringBuilder key = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray()))
+                key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (IOException | ContextException | NoSuchAlgorithmException e) {
+            logger.debug("Not able to digest inputs of: {}", task.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the canonical encoding of the value. Entries of maps and
+     * elements of sets are ordered by their encodings, other serializable
+     * values are written with Java serialization.
+     */
+    static byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (value == null) {
+            out.writeByte('N');
+        } else if (value instanceof String) {
+            out.writeByte('S');
+            writeString(out, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum) {
+            out.writeByte('P');
+            writeString(out, value.getClass().getName());
+            writeString(out, value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+        } else if (value.getClass().isArray()) {
+            out.writeByte('A');
+            writeString(out, value.getClass().getName());
+            int length = Array.getLength(value);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++)
+                out.write(encode(Array.get(value, i)));
+        } else if (value instanceof Map) {
+            List<byte[]> entries = new ArrayList<byte[]>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                byte[] k = encode(entry.getKey());
+                byte[] v = encode(entry.getValue());
+                byte[] e = Arrays.copyOf(k, k.length + v.length);
+                System.arraycopy(v, 0, e, k.length, v.length);
+                entries.add(e);
+            }
+            writeSorted(out, 'M', entries);
+        } else if (value instanceof Set) {
+            List<byte[]> elements = new ArrayList<byte[]>();
+            for (Object element : (Set<?>) value)
+                elements.add(encode(element));
+            writeSorted(out, 'E', elements);
+        } else if (value instanceof List) {
+            out.writeByte('L');
+            out.writeInt(((List<?>) value).size());
+            for (Object element : (List<?>) value)
+                out.write(encode(element));
+        } else {
+            out.writeByte('O');
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(value);
+            oos.flush();
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeSorted(DataOutputStream out, char tag, List<byte[]> encodings) throws IOException {
+        Collections.sort(encodings, new Comparator<byte[]>() {
+            @Override
+            public int compare(byte[] a, byte[] b) {
+                for (int i = 0; i < Math.min(a.length, b.length); i++) {
+                    int c = (a[i] & 0xff) - (b[i] & 0xff);
+                    if (c != 0)
+                        return c;
+                }
+                return a.length - b.length;
+            }
+        });
+        out.writeByte(tag);
+        out.writeInt(encodings.size());
+        for (byte[] encoding : encodings)
+            out.write(encoding);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf.length);
+        out.write(utf);
+    }
+
+    /**
+     * Copies the data of the cached result context for the key to the
+     * context of the task, the context keeps its identity.
+     *
+     * @return true if a result was found
+     */
+    public boolean restore(String key, Task task) {
+        MarshalledObject<Context> result = get(key);
+        if (result == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        try {
+            ((ServiceContext) task.getContext()).putAll(result.get());
+        } catch (IOException | ClassNotFoundException | ContextException e) {
+            logger.warn("Not able to restore cached result of: {}", task.getName(), e);
+            misses.incrementAndGet();
+            return false;
+        }
+        task.setStatus(Exec.DONE);
+        task.getControlContext().appendTrace("result cache: " + key);
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Caches the result context of a successfully done task unless its
+     * operation is not cacheable.
+     */
+    public void put(String key, Routine result) {
+        if (!isCacheable(result) || ((Subroutine) result).getStatus() != Exec.DONE
+                || ((Subroutine) result).getExceptionCount() > 0)
+            return;
+        try {
+            MarshalledObject<Context> context = new MarshalledObject<Context>(result.getContext());
+            synchronized (this) {
+                results.put(key, context);
+                if (spilled.remove(key))
+                    delete(key);
+            }
+        } catch (IOException | ContextException e) {
+            logger.debug("Not able to cache result of: {}", result.getName(), e);
+        }
+    }
+
+    private synchronized MarshalledObject<Context> get(String key) {
+        MarshalledObject<Context> result = results.get(key);
+        if (result == null && spilled.remove(key)) {
+            result = load(key);
+            if (result != null) {
+                diskHits.incrementAndGet();
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private void spill(String key, MarshalledObject<Context> result) {
+        if (dir == null)
+            return;
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(new File(dir, key))))) {
+            out.writeObject(result);
+            spilled.add(key);
+        } catch (IOException e) {
+            logger.warn("Not able to spill cached result: {}", key, e);
+            delete(key);
+            return;
+        }
+        if (spilled.size() > diskSize) {
+            Iterator<String> eldest = spilled.iterator();
+            delete(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private void delete(String key) {
+        File file = new File(dir, key);
+        if (file.exists() && !file.delete())
+            logger.warn("Not able to delete spilled result: {}", file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MarshalledObject<Context> load(String key) {
+        File file = new File(dir, key);
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            return (MarshalledObject<Context>) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            logger.warn("Not able to load cached result: {}", key, e);
+            return null;
+        } finally {
+            file.delete();
+        }
+    }
+
+    public synchronized void clear() {
+        results.clear();
+        if (dir != null) {
+            for (String key : spilled)
+                delete(key);
+        }
+        spilled.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of hits of results spilled to disk
+     */
+    public long getDiskHitCount() {
+        return diskHits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized int getSize() {
+        return results.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCache [hits: " + hits.get() + ", disk hits: " + diskHits.get()
+                + ", misses: " + misses.get() + ", evictions: " + evictions.get()
+                + ", size: " + getSize() + "/" + size + "]";
+    }
+}
@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.SorcerConstants;
 import sorcer.core.context.ControlContext;
+import sorcer.core.context.DeltaContext;
 import sorcer.core.context.ModelTask;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.ThrowableTrace;
@@ -57,6 +58,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static sorcer.eo.operator.*;
 
@@ -132,6 +135,33 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 		return (T) result;
 	}
 
+	/**
+	 * Exerts the mogram asynchronously with a new shell on the bounded
+	 * {@link AsyncExerter}. The returned future can be cancelled.
+	 */
+	public static <T extends Contextion> CompletableFuture<T> exertAsync(final T mogram, final Arg... entries) {
+		return AsyncExerter.getDefault().submit(new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				return new ServiceShell().exert(mogram, (Transaction) null, entries);
+			}
+		});
+	}
+
+	/**
+	 * Exerts the mogram asynchronously, the returned future is completed
+	 * exceptionally with a TimeoutException if not done within the timeout.
+	 */
+	public static <T extends Contextion> CompletableFuture<T> exertAsync(final T mogram, long timeout, TimeUnit unit,
+																		 final Arg... entries) {
+		return AsyncExerter.getDefault().submit(new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				return new ServiceShell().exert(mogram, (Transaction) null, entries);
+			}
+		}, timeout, unit);
+	}
+
 	public <T extends Mogram> T exert(String providerName) throws ServiceException {
 		return exert(null, providerName);
 	}
@@ -313,12 +343,18 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 	public Mogram exerting(Transaction txn, String providerName, Arg... entries) throws ServiceException {
 		Subroutine exertion = (Subroutine) mogram;
 		initExertion(exertion, txn, entries);
-		Routine xrt = dispatchExertion(exertion, providerName, entries);
-		if (xrt != null)
-			return xrt;
-		else {
-			return callProvider(exertion, exertion.getProcessSignature(), entries);
+		String resultKey = null;
+		if (ResultCache.isCacheable(exertion)) {
+			resultKey = ResultCache.getDefault().getKey((Task) exertion);
+			if (resultKey != null && ResultCache.getDefault().restore(resultKey, (Task) exertion))
+				return exertion;
 		}
+		Routine xrt = dispatchExertion(exertion, providerName, entries);
+		if (xrt == null)
+			xrt = callProvider(exertion, exertion.getProcessSignature(), entries);
+		if (resultKey != null)
+			ResultCache.getDefault().put(resultKey, xrt);
+		return xrt;
 	}
 
 	private Routine dispatchExertion(Subroutine exertion, String providerName, Arg... args)
@@ -463,7 +499,7 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 
 		Routine result;
 		try {
-			result = provider.exert(exertion, transaction, entries);
+			result = DeltaContext.patch(exertion, provider.exert(exertion, transaction, entries));
 			if (result != null && result.getExceptions().size() > 0) {
 				for (ThrowableTrace et : result.getExceptions()) {
 					Throwable t = et.getThrowable();
@@ -478,7 +514,13 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 				exertion.setStatus(Exec.FAILED);
 				result = exertion;
 			}
-		} catch (RemoteException | ServiceException e) {
+		} catch (RemoteException e) {
+			// the provider is not selected again unless rediscovered
+			providerCache.evict(signature, provider);
+			if (signature instanceof RemoteSignature)
+				((RemoteSignature) signature).setProvider(null);
+			throw new MogramException(e);
+		} catch (ServiceException e) {
 			throw new MogramException(e);
 		}
 		return result;
@@ -856,6 +898,19 @@ public class ServiceShell implements Service, Activity, Exertion, Client, Callab
 		return (T) ((Exertion)service).exert(mogram, txn);
 	}
 
+	/**
+	 * Executes the service asynchronously with a new shell on the bounded
+	 * {@link AsyncExerter}.
+	 */
+	public static CompletableFuture<Object> execAsync(final Service service, final Arg... args) {
+		return AsyncExerter.getDefault().submit(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				return new ServiceShell().exec(service, args);
+			}
+		});
+	}
+
 	public Object exec(Service service, Arg... args) throws ServiceException {
 		try {
 			if (service != null )
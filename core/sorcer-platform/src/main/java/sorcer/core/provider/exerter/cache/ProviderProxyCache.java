@@ -16,38 +16,270 @@
  */
 package sorcer.core.provider.exerter.cache;
 
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.core.lookup.ServiceTemplate;
+import net.jini.lookup.LookupCache;
+import net.jini.lookup.ServiceDiscoveryEvent;
+import net.jini.lookup.ServiceDiscoveryListener;
+import net.jini.lookup.ServiceDiscoveryManager;
+import net.jini.lookup.entry.Name;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.SorcerConstants;
 import sorcer.core.provider.exerter.ProviderCache;
+import sorcer.core.provider.exerter.ProviderSelector;
 import sorcer.service.Accessor;
-import sorcer.service.Exerter;
+import sorcer.service.DynamicAccessor;
 import sorcer.service.Signature;
 import sorcer.service.SignatureException;
+import sorcer.util.ServiceAccessor;
+import sorcer.util.Sorcer;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Implementation of a ProviderCache.
+ * Implementation of a ProviderCache holding the proxies of all providers
+ * matching a signature's key and types. The proxies are kept up to date by
+ * a lookup cache of the service accessor's discovery manager, if any, and
+ * chosen by the configured {@link ProviderSelector}. A proxy is checked for liveness at most once per the
+ * "provider.cache.liveness" interval in milliseconds (30 seconds by
+ * default) and evicted when dead or when it fails a call. The proxies of at
+ * most "provider.cache.size" signature keys (256 by default) are kept, the
+ * lookup cache of the least recently used key is terminated beyond it.
  */
 public class ProviderProxyCache implements ProviderCache  {
-    private static final ConcurrentHashMap<Signature, Object> proxyCache = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(ProviderProxyCache.class);
+    private static final int CACHE_SIZE = Math.max(1, Integer.parseInt(
+            Sorcer.getProperties().getProperty(SorcerConstants.S_PROVIDER_CACHE_SIZE, "256")));
+    // shared by the caches of this JVM, in access order, guarded by itself
+    private static final Map<List<Object>, Proxies> sharedCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<List<Object>, Proxies> proxyCache;
+
+    private final int cacheSize;
+
+    private final long livenessInterval;
+
+    private final ProviderSelector selector = ProviderSelector.get();
+
+    public ProviderProxyCache() {
+        this(sharedCache, CACHE_SIZE, Long.parseLong(
+                Sorcer.getProperties().getProperty(SorcerConstants.S_PROVIDER_CACHE_LIVENESS, "30000")));
+    }
+
+    /**
+     * Creates a cache of its own, not shared with the other caches.
+     */
+    ProviderProxyCache(int cacheSize, long livenessInterval) {
+        this(new LinkedHashMap<List<Object>, Proxies>(16, 0.75f, true), cacheSize, livenessInterval);
+    }
+
+    private ProviderProxyCache(Map<List<Object>, Proxies> proxyCache, int cacheSize, long livenessInterval) {
+        this.proxyCache = proxyCache;
+        this.cacheSize = cacheSize;
+        this.livenessInterval = livenessInterval;
+    }
 
     @Override
     public Object getProvider(Signature signature) {
-        Object provider = doProviderGet(signature);
-        if (provider != null) {
-            if (!Accessor.isAlive(provider)) {
-                /* If we had a provider and now it's no longer there, retry */
-                proxyCache.remove(signature);
-                provider = doProviderGet(signature);
+        DynamicAccessor accessor = getAccessor();
+        ServiceTemplate template = null;
+        if (accessor instanceof ServiceAccessor)
+            template = ((ServiceAccessor) accessor).getServiceTemplate(signature);
+        Proxies proxies = getProxies(signature, template);
+        Object provider = proxies.select(selector, signature.getSelector(), livenessInterval);
+        if (provider == null) {
+            // nothing discovered yet, look up as without a cache
+            try {
+                if (accessor instanceof ServiceAccessor) {
+                    ServiceItem item = ((ServiceAccessor) accessor).getServiceItem(template, null);
+                    if (item != null) {
+                        proxies.add(item.serviceID, item.service);
+                        provider = item.service;
+                    }
+                } else {
+                    provider = accessor.getService(signature);
+                    if (provider != null)
+                        proxies.add(provider, provider);
+                }
+            } catch (SignatureException e) {
+                return null;
             }
         }
         return provider;
     }
 
-    private Object doProviderGet(Signature signature) {
+    @Override
+    public void evict(Signature signature, Object provider) {
+        List<Proxies> all;
+        synchronized (proxyCache) {
+            all = new ArrayList<>(proxyCache.values());
+        }
+        for (Proxies proxies : all)
+            proxies.evict(provider);
+    }
+
+    private Proxies getProxies(Signature signature, ServiceTemplate template) {
+        List<Object> key = new ArrayList<>();
+        if (template != null) {
+            for (Entry entry : template.attributeSetTemplates) {
+                if (entry instanceof Name)
+                    key.add(((Name) entry).name);
+            }
+            Collections.addAll(key, (Object[]) template.serviceTypes);
+        } else {
+            key.add(signature.getProviderName().getName());
+            key.add(signature.getServiceType());
+            if (signature.getMatchTypes() != null)
+                Collections.addAll(key, (Object[]) signature.getMatchTypes());
+        }
+        Proxies proxies;
+        List<Proxies> dropped = new ArrayList<>();
+        synchronized (proxyCache) {
+            proxies = proxyCache.get(key);
+            if (proxies != null)
+                return proxies;
+            proxies = new Proxies();
+            proxyCache.put(key, proxies);
+            Iterator<Proxies> eldest = proxyCache.values().iterator();
+            while (proxyCache.size() > cacheSize) {
+                dropped.add(eldest.next());
+                eldest.remove();
+            }
+        }
+        for (Proxies old : dropped)
+            old.terminate();
         try {
-            return proxyCache.getOrDefault(signature, Accessor.get().getService(signature));
-        } catch (SignatureException e) {
+            LookupCache lookupCache = createLookupCache(template, proxies);
+            if (lookupCache != null)
+                proxies.setLookupCache(lookupCache);
+        } catch (RemoteException e) {
+            logger.warn("Could not create lookup cache for {}", key, e);
+        }
+        return proxies;
+    }
+
+    protected DynamicAccessor getAccessor() {
+        return Accessor.get();
+    }
+
+    /**
+     * Returns a lookup cache notifying the listener of the providers matching
+     * the template, null if the template is null or there is no discovery
+     * manager.
+     */
+    protected LookupCache createLookupCache(ServiceTemplate template, ServiceDiscoveryListener listener)
+            throws RemoteException {
+        ServiceDiscoveryManager sdManager = ServiceAccessor.getServiceDiscoveryManager();
+        if (template == null || sdManager == null)
             return null;
+        return sdManager.createLookupCache(template, null, listener);
+    }
+
+    /**
+     * Proxies of the providers matching a signature, listening for their
+     * discovery.
+     */
+    private static class Proxies implements ServiceDiscoveryListener {
+        private final List<Candidate> candidates = new CopyOnWriteArrayList<>();
+        private volatile LookupCache lookupCache;
+        private boolean terminated;
+
+        Object select(ProviderSelector selector, String operation, long livenessInterval) {
+            while (true) {
+                Candidate[] all = candidates.toArray(new Candidate[0]);
+                if (all.length == 0)
+                    return null;
+                List<Object> proxies = new ArrayList<>(all.length);
+                for (Candidate candidate : all)
+                    proxies.add(candidate.proxy);
+                int index = proxies.indexOf(selector.select(operation, proxies));
+                Candidate candidate = all[Math.max(index, 0)];
+                long now = System.currentTimeMillis();
+                if (now - candidate.verified < livenessInterval)
+                    return candidate.proxy;
+                if (Accessor.isAlive(candidate.proxy)) {
+                    candidate.verified = now;
+                    return candidate.proxy;
+                }
+                evict(candidate.proxy);
+            }
+        }
+
+        void add(Object id, Object proxy) {
+            remove(id);
+            candidates.add(new Candidate(id, proxy));
+        }
+
+        void remove(Object id) {
+            for (Candidate candidate : candidates) {
+                if (candidate.id.equals(id))
+                    candidates.remove(candidate);
+            }
+        }
+
+        void evict(Object proxy) {
+            boolean evicted = false;
+            for (Candidate candidate : candidates) {
+                if (candidate.proxy.equals(proxy))
+                    evicted |= candidates.remove(candidate);
+            }
+            // the lookup cache adds it again when rediscovered
+            if (evicted && lookupCache != null)
+                lookupCache.discard(proxy);
+        }
+
+        synchronized void setLookupCache(LookupCache lookupCache) {
+            // dropped from the cache while the lookup cache was created
+            if (terminated)
+                lookupCache.terminate();
+            else
+                this.lookupCache = lookupCache;
+        }
+
+        synchronized void terminate() {
+            terminated = true;
+            if (lookupCache != null) {
+                lookupCache.terminate();
+                lookupCache = null;
+            }
+            candidates.clear();
+        }
+
+        @Override
+        public void serviceAdded(ServiceDiscoveryEvent event) {
+            ServiceItem item = event.getPostEventServiceItem();
+            add(item.serviceID, item.service);
+        }
+
+        @Override
+        public void serviceRemoved(ServiceDiscoveryEvent event) {
+            remove(event.getPreEventServiceItem().serviceID);
+        }
+
+        @Override
+        public void serviceChanged(ServiceDiscoveryEvent event) {
+            ServiceItem item = event.getPostEventServiceItem();
+            add(item.serviceID, item.service);
+        }
+    }
+
+    private static class Candidate {
+        private final Object id;
+        private final Object proxy;
+        private volatile long verified = System.currentTimeMillis();
+
+        Candidate(Object id, Object proxy) {
+            this.id = id;
+            this.proxy = proxy;
         }
     }
 }
@@ -54,6 +54,11 @@ public class ProviderProxyCacheGuava implements ProviderCache {
         return provider;
     }
 
+    @Override
+    public void evict(Signature signature, Object provider) {
+        proxyCache.invalidate(signature);
+    }
+
     private static LoadingCache<Signature, Object> setupProxyCache() {
         return CacheBuilder.newBuilder()
                            .maximumSize(20)
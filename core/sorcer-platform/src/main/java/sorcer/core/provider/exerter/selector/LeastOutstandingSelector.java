@@ -0,0 +1,49 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter.selector;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementation of a ProviderSelector returning the candidate with the
+ * least outstanding requests, the one with the shorter average exec time
+ * among equally loaded candidates.
+ */
+public class LeastOutstandingSelector extends LoadAwareSelector {
+
+    @Override
+    public Object select(String operation, List<?> candidates) {
+        if (candidates.isEmpty())
+            return null;
+        // start at a random candidate so ties are spread
+        int start = ThreadLocalRandom.current().nextInt(candidates.size());
+        Object best = null;
+        Load bestLoad = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Object candidate = candidates.get((start + i) % candidates.size());
+            Load load = getLoad(candidate, operation);
+            if (bestLoad == null || load.getOutstanding() < bestLoad.getOutstanding()
+                    || load.getOutstanding() == bestLoad.getOutstanding()
+                    && load.getAverageExecTime() < bestLoad.getAverageExecTime()) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        return selected(best, bestLoad);
+    }
+}
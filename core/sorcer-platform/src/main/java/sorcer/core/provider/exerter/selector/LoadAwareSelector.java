@@ -0,0 +1,148 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter.selector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.SorcerConstants;
+import sorcer.core.analytics.AnalyticsProducer;
+import sorcer.core.analytics.MethodAnalytics;
+import sorcer.core.provider.exerter.ProviderSelector;
+import sorcer.util.Sorcer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base of ProviderSelectors choosing by the load of the candidates reported
+ * by their method analytics. The analytics of a provider are fetched at most
+ * once per the "provider.selector.refresh" interval in milliseconds (1 second
+ * by default), selections made since are counted as outstanding requests, so
+ * concurrent requestors do not all pick the same provider in between.
+ */
+public abstract class LoadAwareSelector implements ProviderSelector {
+    protected final static Logger logger = LoggerFactory.getLogger(LoadAwareSelector.class);
+
+    // load of providers without analytics available, selected last
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+    private final Map<Object, Map<String, Load>> loads =
+            Collections.synchronizedMap(new WeakHashMap<Object, Map<String, Load>>());
+
+    private final long refreshInterval = Long.parseLong(
+            Sorcer.getProperties().getProperty(SorcerConstants.S_PROVIDER_SELECTOR_REFRESH, "1000"));
+
+    /**
+     * Returns the current load of the provider for the operation.
+     */
+    protected Load getLoad(Object provider, String operation) {
+        String key = operation != null ? operation : "";
+        Map<String, Load> operations;
+        synchronized (loads) {
+            operations = loads.get(provider);
+            if (operations == null) {
+                operations = new HashMap<>();
+                loads.put(provider, operations);
+            }
+        }
+        Load load;
+        synchronized (operations) {
+            load = operations.get(key);
+        }
+        if (load == null || System.currentTimeMillis() - load.fetched >= refreshInterval) {
+            load = fetch(provider, operation);
+            synchronized (operations) {
+                operations.put(key, load);
+            }
+        }
+        return load;
+    }
+
+    /**
+     * Counts the selection of the provider as outstanding until the next
+     * refresh of its load.
+     */
+    protected Object selected(Object provider, Load load) {
+        load.selected.incrementAndGet();
+        return provider;
+    }
+
+    private Load fetch(Object provider, String operation) {
+        if (!(provider instanceof AnalyticsProducer))
+            return new Load(0, 0);
+        try {
+            if (operation != null) {
+                MethodAnalytics analytics = ((AnalyticsProducer) provider).getMethodAnalytics(operation);
+                if (analytics != null)
+                    return new Load(analytics.getNumActiveOperations(), analytics.getAverageExecTime());
+                // not recorded per operation, use the load of all operations
+            }
+            Map<String, MethodAnalytics> all = ((AnalyticsProducer) provider).getMethodAnalytics();
+            int active = 0;
+            long callTime = 0;
+            int calls = 0;
+            if (all != null) {
+                for (MethodAnalytics analytics : all.values()) {
+                    active += analytics.getNumActiveOperations();
+                    callTime += analytics.getTotalCallTime();
+                    calls += analytics.getTotalOperationCalls();
+                }
+            }
+            return new Load(active, calls > 0 ? (double) callTime / calls : 0);
+        } catch (IOException e) {
+            logger.debug("Unable to get analytics of {} from: {}", operation, provider, e);
+            return new Load(UNREACHABLE, 0);
+        }
+    }
+
+    /**
+     * Load of a provider as of its last analytics.
+     */
+    protected static class Load {
+        private final int active;
+        private final double averageExecTime;
+        private final long fetched = System.currentTimeMillis();
+        private final AtomicInteger selected = new AtomicInteger();
+
+        Load(int active, double averageExecTime) {
+            this.active = active;
+            this.averageExecTime = averageExecTime;
+        }
+
+        /**
+         * @return the active operations reported plus the selections since
+         */
+        public int getOutstanding() {
+            return active + selected.get();
+        }
+
+        public double getAverageExecTime() {
+            return averageExecTime;
+        }
+
+        /**
+         * @return the expected time for a new request to complete
+         */
+        public double getExpectedTime() {
+            return (getOutstanding() + 1) * Math.max(averageExecTime, 1.0);
+        }
+    }
+}
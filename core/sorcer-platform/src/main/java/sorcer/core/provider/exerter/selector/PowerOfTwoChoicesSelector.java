@@ -0,0 +1,49 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter.selector;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementation of a ProviderSelector comparing two random candidates and
+ * returning the one expected to complete a new request sooner given its
+ * outstanding requests and average exec time. Only the loads of the two
+ * candidates are needed, so many equivalent providers are balanced without
+ * querying all of them.
+ */
+public class PowerOfTwoChoicesSelector extends LoadAwareSelector {
+
+    @Override
+    public Object select(String operation, List<?> candidates) {
+        int size = candidates.size();
+        if (size == 0)
+            return null;
+        if (size == 1)
+            return candidates.get(0);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first)
+            second++;
+        Load firstLoad = getLoad(candidates.get(first), operation);
+        Load secondLoad = getLoad(candidates.get(second), operation);
+        if (secondLoad.getExpectedTime() < firstLoad.getExpectedTime())
+            return selected(candidates.get(second), secondLoad);
+        return selected(candidates.get(first), firstLoad);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter.selector;
+
+import sorcer.core.provider.exerter.ProviderSelector;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of a ProviderSelector returning the candidates in turn
+ * regardless of their load.
+ */
+public class RoundRobinSelector implements ProviderSelector {
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public Object select(String operation, List<?> candidates) {
+        if (candidates.isEmpty())
+            return null;
+        return candidates.get((next.getAndIncrement() & Integer.MAX_VALUE) % candidates.size());
+    }
+}
@@ -27,11 +27,11 @@ import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.service.*;
 import sorcer.service.modeling.Modeling;
 import sorcer.service.modeling.sig;
+import sorcer.util.BeanMethods;
 import sorcer.util.Builder;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.rmi.RemoteException;
 
@@ -62,6 +62,11 @@ public class LocalSignature extends ServiceSignature implements sig {
 
 	private Class<?>[] argTypes;
 
+	// if true the provider instance created first is used by all invocations
+	private boolean reuseTarget;
+
+	transient private Object reusedTarget;
+
 	private static final Logger logger = LoggerFactory.getLogger(LocalSignature.class);
 
 	public LocalSignature() {
@@ -143,6 +148,35 @@ public class LocalSignature extends ServiceSignature implements sig {
 		this.target = target;
 	}
 
+	/**
+	 * Returns true if the provider instance created by the first invocation
+	 * of this signature is reused by subsequent invocations instead of
+	 * creating a new instance per invocation. The provider has to be safe
+	 * to invoke concurrently then.
+	 */
+	public boolean isReuseTarget() {
+		return reuseTarget;
+	}
+
+	public void setReuseTarget(boolean reuseTarget) {
+		this.reuseTarget = reuseTarget;
+		if (!reuseTarget)
+			reusedTarget = null;
+	}
+
+	/**
+	 * Returns the reused provider instance of this signature, or null if not
+	 * created yet or not reused.
+	 */
+	public Object getReusedTarget() {
+		return reusedTarget;
+	}
+
+	public void setReusedTarget(Object reusedTarget) {
+		if (reuseTarget)
+			this.reusedTarget = reusedTarget;
+	}
+
 	/**
 	 * <p>
 	 * Returns a provider class for this signature.
@@ -220,7 +254,7 @@ public class LocalSignature extends ServiceSignature implements sig {
 			if (args == null) {
 				if (Modifier.isAbstract(multitype.providerType.getModifiers()) ||
 						multitype.providerType.getConstructors().length == 0) {
-					Method sm = multitype.providerType.getMethod(initSelector, (Class[])null);
+					BeanMethods.Invoker sm = BeanMethods.get(multitype.providerType, initSelector);
 					obj = sm.invoke(multitype, (Object[])null);
 				} else {
 					constructor = multitype.providerType.getConstructor();
@@ -268,7 +302,7 @@ public class LocalSignature extends ServiceSignature implements sig {
 	 */
 	public Object initInstance() throws SignatureException {
 		Object obj = null;
-		Method m = null;
+		BeanMethods.Invoker m = null;
 
 		try {
 			if(operation.selector!=null) {
@@ -293,8 +327,9 @@ public class LocalSignature extends ServiceSignature implements sig {
 							}
 						}
 					}
-					Method selectorMethod = multitype.providerType.getDeclaredMethod(operation.selector, argTypes);
-					if(Modifier.isStatic(selectorMethod.getModifiers())) {
+					BeanMethods.Invoker selectorMethod = BeanMethods.getDeclared(multitype.providerType,
+							operation.selector, argTypes);
+					if(selectorMethod.isStatic()) {
 						return  selectorMethod.invoke(null, args);
 					}
 				} catch (NoSuchMethodException e) {
@@ -309,14 +344,14 @@ public class LocalSignature extends ServiceSignature implements sig {
 
 			if (argTypes != null) {
 				if (initSelector != null)
-					m = multitype.providerType.getMethod(initSelector, argTypes);
+					m = BeanMethods.get(multitype.providerType, initSelector, argTypes);
 				else if (operation.selector != null)
-					m = multitype.providerType.getMethod(operation.selector, argTypes);
+					m = BeanMethods.get(multitype.providerType, operation.selector, argTypes);
 			} else  {
 				if (initSelector != null)
-					m = multitype.providerType.getMethod(initSelector);
+					m = BeanMethods.get(multitype.providerType, initSelector);
 				else
-					m = multitype.providerType.getMethod(operation.selector);
+					m = BeanMethods.get(multitype.providerType, operation.selector);
 			}
 			if (args != null) {
 				obj = m.invoke(obj, args);
@@ -329,8 +364,8 @@ public class LocalSignature extends ServiceSignature implements sig {
 			logger.error("initInstance failed", e);
 			try {
 				// check if that is SORCER service bean signature
-				m = multitype.providerType.getMethod(operation.selector, Context.class);
-				if (m.getReturnType() == Context.class)
+				m = BeanMethods.get(multitype.providerType, operation.selector, Context.class);
+				if (m.getMethod().getReturnType() == Context.class)
 					return obj;
 				else
 					throw new SignatureException(e);
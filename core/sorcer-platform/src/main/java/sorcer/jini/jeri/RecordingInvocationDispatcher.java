@@ -15,25 +15,51 @@
  */
 package sorcer.jini.jeri;
 
+import net.jini.core.constraint.Confidentiality;
+import net.jini.core.constraint.InvocationConstraints;
 import net.jini.core.constraint.MethodConstraints;
+import net.jini.export.ServerContext;
+import net.jini.io.UnsupportedConstraintException;
 import net.jini.jeri.BasicInvocationDispatcher;
+import net.jini.jeri.InboundRequest;
 import net.jini.jeri.ServerCapabilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import sorcer.core.analytics.AnalyticsRecorder;
+import sorcer.core.context.BulkData;
 import sorcer.core.monitoring.MonitorCheck;
+import sorcer.core.provider.ProviderException;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.rmi.Remote;
+import java.rmi.RemoteException;
 import java.rmi.server.ExportException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Dennis Reedy
  */
 public class RecordingInvocationDispatcher extends BasicInvocationDispatcher {
+    private static final InvocationConstraints CONFIDENTIAL =
+            new InvocationConstraints(Confidentiality.YES, null);
+    // time in milliseconds after which a call rejected by busy workers may be retried
+    private static final long BUSY_RETRY_AFTER = 100L;
     private Logger logger = LoggerFactory.getLogger(RecordingInvocationDispatcher.class);
     private AnalyticsRecorder recorder;
+    private MethodConstraints serverConstraints;
+    // runs the calls handed off by the transport threads, null to run them in place
+    private ExecutorService executor;
 
     public RecordingInvocationDispatcher(Collection methods,
                                          ServerCapabilities serverCapabilities,
@@ -43,10 +69,77 @@ public class RecordingInvocationDispatcher extends BasicInvocationDispatcher {
                                          AnalyticsRecorder recorder) throws ExportException {
         super(methods, serverCapabilities, serverConstraints, permissionClass, loader);
         this.recorder = recorder;
+        this.serverConstraints = serverConstraints;
+    }
+
+    /**
+     * Sets the executor the calls are run by, for example the virtual worker
+     * pool of a provider, instead of the threads of the Jeri transport. A call
+     * rejected by the executor fails with a retry-after hint.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
     }
 
     @Override
-    protected Object invoke(Remote impl, Method method, Object[] args, Collection context) throws Throwable {
+    protected Object invoke(final Remote impl, final Method method, final Object[] args,
+                            final Collection context) throws Throwable {
+        if (executor == null)
+            return record(impl, method, args, context);
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Future<Object> call;
+        try {
+            call = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    final Object[] result = new Object[1];
+                    final Throwable[] failure = new Throwable[1];
+                    Thread thread = Thread.currentThread();
+                    ClassLoader previous = thread.getContextClassLoader();
+                    thread.setContextClassLoader(loader);
+                    if (mdc != null)
+                        MDC.setContextMap(mdc);
+                    try {
+                        // the call sees the client subject and the context of the transport
+                        ServerContext.doWithServerContext(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    result[0] = record(impl, method, args, context);
+                                } catch (Throwable t) {
+                                    failure[0] = t;
+                                }
+                            }
+                        }, context);
+                    } finally {
+                        MDC.clear();
+                        thread.setContextClassLoader(previous);
+                    }
+                    if (failure[0] instanceof Exception)
+                        throw (Exception) failure[0];
+                    if (failure[0] instanceof Error)
+                        throw (Error) failure[0];
+                    if (failure[0] != null)
+                        throw new UndeclaredThrowableException(failure[0]);
+                    return result[0];
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new RemoteException("Provider workers busy",
+                                      new ProviderException(e.getMessage(), BUSY_RETRY_AFTER));
+        }
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            throw e;
+        }
+    }
+
+    private Object record(Remote impl, Method method, Object[] args, Collection context) throws Throwable {
         boolean monitor = MonitorCheck.check(method);
         int id = 0;
         if(monitor)
@@ -70,4 +163,31 @@ public class RecordingInvocationDispatcher extends BasicInvocationDispatcher {
                               Collection context) throws Throwable {
         return super.invoke(impl, method, args, context);
     }
+
+    /**
+     * Results of calls without security constraints over an endpoint not
+     * providing confidentiality are written on a {@link BulkData} result
+     * stream, so their large context values are sent over the side channel.
+     */
+    @Override
+    protected ObjectOutputStream createMarshalOutputStream(Object impl,
+                                                           Method method,
+                                                           InboundRequest request,
+                                                           Collection context) throws IOException {
+        if (!BulkData.isEnabled() || !isUnconstrained(method, request))
+            return super.createMarshalOutputStream(impl, method, request, context);
+        return BulkData.newResultStream(request.getResponseOutputStream(),
+                                        Collections.unmodifiableCollection(context));
+    }
+
+    private boolean isUnconstrained(Method method, InboundRequest request) {
+        if (serverConstraints != null && !serverConstraints.getConstraints(method).isEmpty())
+            return false;
+        try {
+            request.checkConstraints(CONFIDENTIAL);
+            return false;
+        } catch (UnsupportedConstraintException e) {
+            return true;
+        }
+    }
 }
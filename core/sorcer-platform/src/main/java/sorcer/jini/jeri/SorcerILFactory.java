@@ -43,6 +43,7 @@ import java.rmi.server.ExportException;
 import java.security.Permission;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 import static sorcer.core.SorcerConstants.*;
 
@@ -204,7 +205,10 @@ public class SorcerILFactory extends BasicILFactory {
     protected InvocationDispatcher createInvocationDispatcher(Collection methods,
                                                               Remote impl,
                                                               ServerCapabilities caps) throws ExportException {
-        return new SorcerInvocationDispatcher(methods, caps, getServerConstraints(), getPermissionClass(), getClassLoader());
+        SorcerInvocationDispatcher dispatcher = new SorcerInvocationDispatcher(methods, caps,
+                getServerConstraints(), getPermissionClass(), getClassLoader());
+        dispatcher.setExecutor(executor);
+        return dispatcher;
     }
 
     @Override protected Collection getInvocationDispatcherMethods(Remote impl) throws ExportException {
@@ -402,6 +406,17 @@ public class SorcerILFactory extends BasicILFactory {
         this.remoteLogging = remoteLogging;
     }
 
+    // runs the calls of the dispatchers created, null to run them on transport threads
+    private ExecutorService executor;
+
+    /**
+     * Sets the executor running the remote calls of the service beans,
+     * see {@link RecordingInvocationDispatcher#setExecutor(ExecutorService)}.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     /*public void setMonitoringBeanHandler(MonitoringBeanHandler monitoringBeanHandler) {
         this.monitoringBeanHandler = monitoringBeanHandler;
     }*/
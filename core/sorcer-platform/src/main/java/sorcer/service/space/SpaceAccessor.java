@@ -24,6 +24,7 @@ import net.jini.space.JavaSpace05;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.service.Accessor;
+import sorcer.space.LocalSpace;
 import sorcer.util.ProviderNameUtil;
 import sorcer.util.SorcerProviderNameUtil;
 
@@ -33,6 +34,10 @@ import sorcer.util.SorcerProviderNameUtil;
  */
 public class SpaceAccessor {
     private static final Logger log = LoggerFactory.getLogger(SpaceAccessor.class);
+    /**
+     * System property enabling in-process spaces, see {@link LocalSpace}
+     */
+    public static final String LOCAL_SPACE = "sorcer.space.local";
     private static SpaceAccessor instance = new SpaceAccessor();
     private static JavaSpace05 cache;
     private ProviderNameUtil providerNameUtil = new SorcerProviderNameUtil();
@@ -47,6 +52,8 @@ public class SpaceAccessor {
     }
 
     public static JavaSpace05 doGetSpace(String spaceName) {
+        if (Boolean.getBoolean(LOCAL_SPACE))
+            return LocalSpace.getSpace(spaceName);
         // first test if our cached JavaSpace is alive
         // and if it's the case then return it,
         // otherwise getValue a new JavSpace proxy
@@ -35,6 +35,7 @@ import sorcer.core.service.Governance;
 import sorcer.core.service.ServiceDesign;
 import sorcer.core.signature.LocalSignature;
 import sorcer.service.Exertion;
+import sorcer.core.provider.exerter.AsyncExerter;
 import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.service.*;
 import sorcer.service.modeling.*;
@@ -44,6 +45,9 @@ import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static sorcer.mo.operator.*;
 
@@ -745,6 +749,64 @@ public class operator extends Operator {
         }
     }
 
+    /**
+     * Asynchronous {@link #exec(Service, Arg...)} on the bounded async exerter.
+     */
+    public static CompletableFuture<Object> execAsync(final Service service, final Arg... args) {
+        return AsyncExerter.getDefault().submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return exec(service, args);
+            }
+        });
+    }
+
+    public static CompletableFuture<Object> execAsync(final Service service, long timeout, TimeUnit unit,
+                                                      final Arg... args) {
+        return AsyncExerter.getDefault().submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return exec(service, args);
+            }
+        }, timeout, unit);
+    }
+
+    /**
+     * Asynchronous {@link #response(Mogram, Object...)} on the bounded async exerter.
+     */
+    public static CompletableFuture<Context> responseAsync(final Mogram mogram, final Object... items) {
+        return AsyncExerter.getDefault().submit(new Callable<Context>() {
+            @Override
+            public Context call() throws Exception {
+                return response(mogram, items);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous {@link #response(Mogram, Object...)} completed
+     * exceptionally with a {@link java.util.concurrent.TimeoutException} when
+     * not done within the given time.
+     */
+    public static CompletableFuture<Context> responseAsyncWithin(final Mogram mogram, long timeout, TimeUnit unit,
+                                                                 final Object... items) {
+        return AsyncExerter.getDefault().submit(new Callable<Context>() {
+            @Override
+            public Context call() throws Exception {
+                return response(mogram, items);
+            }
+        }, timeout, unit);
+    }
+
+    public static <T extends Contextion> CompletableFuture<T> exertAsync(T mogram, Arg... args) {
+        return ServiceShell.exertAsync(mogram, args);
+    }
+
+    public static <T extends Contextion> CompletableFuture<T> exertAsync(T mogram, long timeout, TimeUnit unit,
+                                                                         Arg... args) {
+        return ServiceShell.exertAsync(mogram, timeout, unit, args);
+    }
+
     public static List<ThrowableTrace> exceptions(Routine exertion) throws RemoteException {
         return exertion.getExceptions();
     }
@@ -0,0 +1,958 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.space;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.entry.UnusableEntryException;
+import net.jini.core.event.EventRegistration;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.event.UnknownEventException;
+import net.jini.core.lease.Lease;
+import net.jini.core.lease.LeaseDeniedException;
+import net.jini.core.lease.LeaseMap;
+import net.jini.core.lease.LeaseMapException;
+import net.jini.core.lease.UnknownLeaseException;
+import net.jini.core.transaction.Transaction;
+import net.jini.core.transaction.TransactionException;
+import net.jini.core.transaction.UnknownTransactionException;
+import net.jini.core.transaction.server.ServerTransaction;
+import net.jini.core.transaction.server.TransactionManager;
+import net.jini.core.transaction.server.TransactionParticipant;
+import net.jini.export.Exporter;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import net.jini.jeri.BasicILFactory;
+import net.jini.jeri.BasicJeriExporter;
+import net.jini.jeri.tcp.TcpServerEndpoint;
+import net.jini.space.AvailabilityEvent;
+import net.jini.space.JavaSpace;
+import net.jini.space.JavaSpace05;
+import net.jini.space.MatchSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.ConfigurableThreadFactory;
+import sorcer.util.Sorcer;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.rmi.MarshalledObject;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process {@link JavaSpace05} for single node deployments and tests, so
+ * writes, takes and events of space dispatchers and space takers sharing a
+ * JVM do not cross the network. Entries are stored marshalled, as with a
+ * remote space every read or take returns a copy, and are indexed by the
+ * values of their public fields of simple types (strings, numbers, booleans,
+ * classes, uuids and enums), e.g. the <code>parentID</code>,
+ * <code>state</code>, <code>serviceType</code> and <code>providerName</code>
+ * of {@link sorcer.core.exertion.ExertionEnvelop}s, so a template is matched
+ * against the entries with the rarest of its field values only.
+ *
+ * Entries and event registrations are leased. Operations under a
+ * {@link ServerTransaction} join the space as a participant of the
+ * transaction: entries written are visible to the transaction only and
+ * entries taken are hidden until the transaction completes. Reads do not
+ * lock entries.
+ *
+ * Spaces are enabled for the {@link sorcer.service.space.SpaceAccessor}
+ * with the {@link sorcer.service.space.SpaceAccessor#LOCAL_SPACE} system
+ * property and looked up by name with {@link #getSpace(String)}.
+ */
+public class LocalSpace implements JavaSpace05, Serializable {
+    private static final long serialVersionUID = 1L;
+    private final static Logger logger = LoggerFactory.getLogger(LocalSpace.class);
+
+    // spaces of this JVM resolving deserialized references of event sources
+    private static final Map<Uuid, LocalSpace> spaces = new ConcurrentHashMap<>();
+    private static final Map<String, LocalSpace> named = new HashMap<>();
+
+    private final Uuid id = UuidFactory.generate();
+    private final long crashCount = System.currentTimeMillis();
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Class<?>, Store> stores = new HashMap<>();
+    private final Map<ServerTransaction, TxnState> txns = new HashMap<>();
+    private final List<Registration> registrations = new ArrayList<>();
+    private final ExecutorService events;
+    private Exporter exporter;
+    private TransactionParticipant participant;
+
+    public LocalSpace() {
+        ConfigurableThreadFactory factory = new ConfigurableThreadFactory();
+        factory.setNameFormat("LocalSpace-events-%2$d");
+        factory.setDaemon(true);
+        events = Executors.newSingleThreadExecutor(factory);
+        spaces.put(id, this);
+    }
+
+    /**
+     * Returns the space of this JVM with the given name, created on first use.
+     */
+    public static synchronized LocalSpace getSpace(String name) {
+        LocalSpace space = named.get(name);
+        if (space == null) {
+            space = new LocalSpace();
+            named.put(name, space);
+            logger.info("Created local space: {}", name);
+        }
+        return space;
+    }
+
+    @Override
+    public Lease write(Entry entry, Transaction txn, long lease)
+            throws TransactionException, RemoteException {
+        return (Lease) write(Collections.singletonList(entry), txn,
+                Collections.singletonList(lease)).get(0);
+    }
+
+    @Override
+    public List write(List entries, Transaction txn, List leaseDurations)
+            throws TransactionException, RemoteException {
+        if (entries.size() != leaseDurations.size())
+            throw new IllegalArgumentException("Entries and lease durations of different sizes");
+        ServerTransaction stxn = join(txn);
+        List<Stored> written = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = (Entry) entries.get(i);
+            if (entry == null)
+                throw new NullPointerException("Null entry written to space");
+            long duration = (Long) leaseDurations.get(i);
+            written.add(new Stored(ids.incrementAndGet(), entry, expiration(duration)));
+        }
+        List<Lease> leases = new ArrayList<>(written.size());
+        synchronized (this) {
+            for (Stored s : written) {
+                s.writeTxn = stxn;
+                getStore(s.type).add(s);
+                if (stxn != null)
+                    txns.get(stxn).written.add(s);
+                else
+                    visible(s, true);
+                leases.add(new LocalLease(s));
+            }
+            notifyAll();
+        }
+        return leases;
+    }
+
+    @Override
+    public Entry read(Entry tmpl, Transaction txn, long timeout)
+            throws UnusableEntryException, TransactionException, InterruptedException, RemoteException {
+        return first(get(Collections.singletonList(tmpl), txn, timeout, 1, false));
+    }
+
+    @Override
+    public Entry readIfExists(Entry tmpl, Transaction txn, long timeout)
+            throws UnusableEntryException, TransactionException, InterruptedException, RemoteException {
+        return first(get(Collections.singletonList(tmpl), txn, JavaSpace.NO_WAIT, 1, false));
+    }
+
+    @Override
+    public Entry take(Entry tmpl, Transaction txn, long timeout)
+            throws UnusableEntryException, TransactionException, InterruptedException, RemoteException {
+        return first(get(Collections.singletonList(tmpl), txn, timeout, 1, true));
+    }
+
+    @Override
+    public Entry takeIfExists(Entry tmpl, Transaction txn, long timeout)
+            throws UnusableEntryException, TransactionException, InterruptedException, RemoteException {
+        return first(get(Collections.singletonList(tmpl), txn, JavaSpace.NO_WAIT, 1, true));
+    }
+
+    @Override
+    public Collection take(Collection tmpls, Transaction txn, long timeout, long maxEntries)
+            throws UnusableEntryException, TransactionException, RemoteException {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        try {
+            return get(tmpls, txn, timeout, maxEntries, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public MatchSet contents(Collection tmpls, Transaction txn, long leaseDuration, long maxEntries)
+            throws TransactionException, RemoteException {
+        final List<MarshalledObject<Entry>> matched = new ArrayList<>();
+        ServerTransaction stxn = join(txn);
+        List<Template> templates = compile(tmpls);
+        synchronized (this) {
+            for (Stored s : find(templates, stxn, maxEntries))
+                matched.add(s.entry);
+        }
+        return new MatchSet() {
+            private final Iterator<MarshalledObject<Entry>> iterator = matched.iterator();
+            private Entry last;
+
+            @Override
+            public Entry next() throws UnusableEntryException {
+                last = iterator.hasNext() ? unmarshal(iterator.next()) : null;
+                return last;
+            }
+
+            @Override
+            public Lease getLease() {
+                return null;
+            }
+
+            @Override
+            public Entry getSnapshot() {
+                return last;
+            }
+        };
+    }
+
+    @Override
+    public EventRegistration notify(Entry tmpl, Transaction txn, RemoteEventListener listener,
+                                    long lease, MarshalledObject handback) throws TransactionException {
+        return register(Collections.singletonList(tmpl), listener, lease, handback, false);
+    }
+
+    /**
+     * Registers for events of entries matching the templates becoming visible,
+     * when written or when their take is aborted. Events are not transactional,
+     * the transaction is ignored.
+     */
+    @Override
+    public EventRegistration registerForAvailabilityEvent(Collection tmpls, Transaction txn,
+                                                          boolean visibilityOnly,
+                                                          RemoteEventListener listener,
+                                                          long leaseDuration,
+                                                          MarshalledObject handback) {
+        return register(tmpls, listener, leaseDuration, handback, true);
+    }
+
+    @Override
+    public Entry snapshot(Entry e) {
+        return e;
+    }
+
+    /**
+     * @return the number of entries in the space including the ones not yet
+     * committed
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Store store : stores.values())
+            size += store.entries.size();
+        return size;
+    }
+
+    public void destroy() {
+        synchronized (LocalSpace.class) {
+            named.values().remove(this);
+        }
+        spaces.remove(id);
+        synchronized (this) {
+            stores.clear();
+            registrations.clear();
+            if (exporter != null)
+                exporter.unexport(true);
+            notifyAll();
+        }
+        events.shutdownNow();
+    }
+
+    private List<Entry> get(Collection tmpls, Transaction txn, long timeout, long maxEntries, boolean take)
+            throws UnusableEntryException, TransactionException, InterruptedException, RemoteException {
+        ServerTransaction stxn = join(txn);
+        List<Template> templates = compile(tmpls);
+        long now = System.currentTimeMillis();
+        long deadline = timeout > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeout;
+        List<MarshalledObject<Entry>> matched = new ArrayList<>();
+        synchronized (this) {
+            List<Stored> found = find(templates, stxn, maxEntries);
+            while (found.isEmpty()) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0)
+                    return Collections.emptyList();
+                wait(wait);
+                found = find(templates, stxn, maxEntries);
+            }
+            for (Stored s : found) {
+                if (take) {
+                    if (stxn == null) {
+                        remove(s);
+                    } else {
+                        s.takeTxn = stxn;
+                        txns.get(stxn).taken.add(s);
+                    }
+                }
+                matched.add(s.entry);
+            }
+        }
+        List<Entry> entries = new ArrayList<>(matched.size());
+        for (MarshalledObject<Entry> entry : matched)
+            entries.add(unmarshal(entry));
+        return entries;
+    }
+
+    /**
+     * Returns visible entries matching any of the templates, oldest first.
+     */
+    private List<Stored> find(List<Template> templates, ServerTransaction txn, long maxEntries) {
+        Set<Stored> found = new LinkedHashSet<>();
+        List<Stored> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Template template : templates) {
+            for (Store store : stores.values()) {
+                if (!template.type.isAssignableFrom(store.type))
+                    continue;
+                for (Stored s : store.candidates(template)) {
+                    if (s.expiration < now) {
+                        expired.add(s);
+                    } else if (s.isVisible(txn) && !found.contains(s) && store.matches(s, template)) {
+                        found.add(s);
+                        if (found.size() >= maxEntries)
+                            break;
+                    }
+                }
+                if (found.size() >= maxEntries)
+                    break;
+            }
+            if (found.size() >= maxEntries)
+                break;
+        }
+        for (Stored s : expired)
+            remove(s);
+        return new ArrayList<>(found);
+    }
+
+    private List<Template> compile(Collection tmpls) {
+        List<Template> templates = new ArrayList<>(tmpls.size());
+        for (Object tmpl : tmpls)
+            templates.add(new Template((Entry) tmpl));
+        return templates;
+    }
+
+    private Store getStore(Class<?> type) {
+        Store store = stores.get(type);
+        if (store == null) {
+            store = new Store(type);
+            stores.put(type, store);
+        }
+        return store;
+    }
+
+    private void remove(Stored s) {
+        if (s.removed)
+            return;
+        s.removed = true;
+        Store store = stores.get(s.type);
+        if (store != null)
+            store.remove(s);
+    }
+
+    /**
+     * Fires events of registrations matching the entry that became visible.
+     */
+    private void visible(final Stored s, boolean written) {
+        long now = System.currentTimeMillis();
+        Iterator<Registration> iterator = registrations.iterator();
+        while (iterator.hasNext()) {
+            final Registration r = iterator.next();
+            if (r.expiration < now) {
+                iterator.remove();
+                continue;
+            }
+            if ((!written && !r.availability) || !r.matches(s))
+                continue;
+            final RemoteEvent event = r.availability
+                    ? new LocalAvailabilityEvent(this, r.eventID, ++r.seqNum, r.handback, s.entry)
+                    : new RemoteEvent(this, r.eventID, ++r.seqNum, r.handback);
+            events.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        r.listener.notify(event);
+                    } catch (UnknownEventException | NoSuchObjectException e) {
+                        cancel(r);
+                    } catch (Exception e) {
+                        logger.debug("Failed to notify event listener: {}", r.listener, e);
+                    }
+                }
+            });
+        }
+    }
+
+    private EventRegistration register(Collection tmpls, RemoteEventListener listener, long duration,
+                                       MarshalledObject handback, boolean availability) {
+        Registration r = new Registration(ids.incrementAndGet(), compile(tmpls), listener,
+                handback, availability, expiration(duration));
+        synchronized (this) {
+            registrations.add(r);
+        }
+        return new EventRegistration(r.eventID, this, new LocalLease(r), r.seqNum);
+    }
+
+    private synchronized void cancel(Registration r) {
+        registrations.remove(r);
+    }
+
+    private static long expiration(long duration) {
+        if (duration == Lease.ANY)
+            duration = Lease.FOREVER;
+        if (duration < 0)
+            throw new IllegalArgumentException("Negative lease duration: " + duration);
+        long now = System.currentTimeMillis();
+        return duration > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + duration;
+    }
+
+    private static Entry unmarshal(MarshalledObject<Entry> entry) throws UnusableEntryException {
+        try {
+            return entry.get();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new UnusableEntryException(e);
+        }
+    }
+
+    private static Entry first(List<Entry> entries) {
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    private ServerTransaction join(Transaction txn) throws TransactionException, RemoteException {
+        if (txn == null)
+            return null;
+        if (!(txn instanceof ServerTransaction))
+            throw new TransactionException("Unsupported transaction: " + txn);
+        ServerTransaction stxn = (ServerTransaction) txn;
+        synchronized (this) {
+            if (txns.containsKey(stxn))
+                return stxn;
+        }
+        stxn.join(getParticipant(), crashCount);
+        synchronized (this) {
+            if (!txns.containsKey(stxn))
+                txns.put(stxn, new TxnState());
+        }
+        return stxn;
+    }
+
+    private synchronized TransactionParticipant getParticipant() throws RemoteException {
+        if (participant == null) {
+            exporter = new BasicJeriExporter(TcpServerEndpoint.getInstance(Sorcer.getHostAddress(), 0),
+                    new BasicILFactory());
+            participant = (TransactionParticipant) exporter.export(new Participant());
+        }
+        return participant;
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new Reference(id);
+    }
+
+    /**
+     * Serialized form of the space, event sources and other references to a
+     * local space resolve to the space when deserialized in the same JVM.
+     */
+    private static class Reference implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Uuid id;
+
+        Reference(Uuid id) {
+            this.id = id;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            LocalSpace space = spaces.get(id);
+            if (space == null)
+                throw new InvalidObjectException("No local space: " + id);
+            return space;
+        }
+    }
+
+    /**
+     * Entries of the same class indexed by field values.
+     */
+    private static class Store {
+        final Class<?> type;
+        final Field[] fields;
+        final Map<String, Integer> positions = new HashMap<>();
+        final Map<Long, Stored> entries = new LinkedHashMap<>();
+        final List<Map<Object, Set<Stored>>> index = new ArrayList<>();
+
+        Store(Class<?> type) {
+            this.type = type;
+            this.fields = getFields(type);
+            for (int i = 0; i < fields.length; i++) {
+                positions.put(fields[i].getName(), i);
+                index.add(new HashMap<Object, Set<Stored>>());
+            }
+        }
+
+        void add(Stored s) {
+            entries.put(s.id, s);
+            for (int i = 0; i < fields.length; i++) {
+                Object key = s.keys[i];
+                if (key == null || key == NOT_INDEXED)
+                    continue;
+                Set<Stored> posting = index.get(i).get(key);
+                if (posting == null) {
+                    posting = new LinkedHashSet<>();
+                    index.get(i).put(key, posting);
+                }
+                posting.add(s);
+            }
+        }
+
+        void remove(Stored s) {
+            entries.remove(s.id);
+            for (int i = 0; i < fields.length; i++) {
+                Object key = s.keys[i];
+                if (key == null || key == NOT_INDEXED)
+                    continue;
+                Set<Stored> posting = index.get(i).get(key);
+                if (posting != null && posting.remove(s) && posting.isEmpty())
+                    index.get(i).remove(key);
+            }
+        }
+
+        /**
+         * Returns entries having the rarest indexed field value of the template,
+         * or all entries when the template has no indexed values.
+         */
+        Collection<Stored> candidates(Template template) {
+            Collection<Stored> candidates = entries.values();
+            for (int i = 0; i < template.names.length; i++) {
+                if (!template.indexed[i])
+                    continue;
+                Integer position = positions.get(template.names[i]);
+                if (position == null)
+                    return Collections.emptyList();
+                Set<Stored> posting = index.get(position).get(template.values[i]);
+                if (posting == null)
+                    return Collections.emptyList();
+                if (posting.size() < candidates.size())
+                    candidates = posting;
+            }
+            // copied since expired entries are removed while iterating
+            return new ArrayList<>(candidates);
+        }
+
+        boolean matches(Stored s, Template template) {
+            Entry entry = null;
+            for (int i = 0; i < template.names.length; i++) {
+                Integer position = positions.get(template.names[i]);
+                if (position == null)
+                    return false;
+                Object key = s.keys[position];
+                if (key != NOT_INDEXED) {
+                    if (!template.values[i].equals(key))
+                        return false;
+                    continue;
+                }
+                try {
+                    if (entry == null)
+                        entry = s.entry.get();
+                    if (!template.values[i].equals(fields[position].get(entry)))
+                        return false;
+                } catch (IOException | ClassNotFoundException | IllegalAccessException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // key of field values compared unmarshalled
+    private static final Object NOT_INDEXED = new Object();
+
+    private static final Map<Class<?>, Field[]> fieldsByType = new ConcurrentHashMap<>();
+
+    private static Field[] getFields(Class<?> type) {
+        Field[] fields = fieldsByType.get(type);
+        if (fields == null) {
+            List<Field> entryFields = new ArrayList<>();
+            for (Field field : type.getFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)
+                        && !Modifier.isTransient(modifiers))
+                    entryFields.add(field);
+            }
+            fields = entryFields.toArray(new Field[entryFields.size()]);
+            fieldsByType.put(type, fields);
+        }
+        return fields;
+    }
+
+    private static boolean isIndexed(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Class || value instanceof Uuid
+                || value instanceof Enum;
+    }
+
+    private static Object[] getValues(Entry entry, Field[] fields) {
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                values[i] = fields[i].get(entry);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Inaccessible entry field: " + fields[i], e);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Template fields with values, <code>null</code> fields are wildcards.
+     */
+    private static class Template {
+        final Class<?> type;
+        final String[] names;
+        final Object[] values;
+        final boolean[] indexed;
+
+        Template(Entry tmpl) {
+            if (tmpl == null) {
+                type = Entry.class;
+                names = new String[0];
+                values = new Object[0];
+                indexed = new boolean[0];
+                return;
+            }
+            type = tmpl.getClass();
+            Field[] fields = getFields(type);
+            Object[] all = getValues(tmpl, fields);
+            List<Integer> set = new ArrayList<>();
+            for (int i = 0; i < all.length; i++)
+                if (all[i] != null)
+                    set.add(i);
+            names = new String[set.size()];
+            values = new Object[set.size()];
+            indexed = new boolean[set.size()];
+            for (int i = 0; i < set.size(); i++) {
+                names[i] = fields[set.get(i)].getName();
+                values[i] = all[set.get(i)];
+                indexed[i] = isIndexed(values[i]);
+            }
+        }
+    }
+
+    private interface Leased {
+        long getExpiration();
+
+        void renew(long duration) throws UnknownLeaseException;
+
+        void cancel() throws UnknownLeaseException;
+    }
+
+    private class Stored implements Leased {
+        final long id;
+        final Class<?> type;
+        final MarshalledObject<Entry> entry;
+        final Object[] keys;
+        long expiration;
+        ServerTransaction writeTxn;
+        ServerTransaction takeTxn;
+        boolean removed;
+
+        Stored(long id, Entry entry, long expiration) throws RemoteException {
+            this.id = id;
+            this.type = entry.getClass();
+            this.expiration = expiration;
+            Object[] values = getValues(entry, getFields(type));
+            keys = new Object[values.length];
+            for (int i = 0; i < values.length; i++)
+                keys[i] = values[i] == null || isIndexed(values[i]) ? values[i] : NOT_INDEXED;
+            try {
+                this.entry = new MarshalledObject<>(entry);
+            } catch (IOException e) {
+                throw new RemoteException("Entry not serializable: " + entry, e);
+            }
+        }
+
+        boolean isVisible(ServerTransaction txn) {
+            return !removed && takeTxn == null && (writeTxn == null || writeTxn.equals(txn));
+        }
+
+        @Override
+        public long getExpiration() {
+            synchronized (LocalSpace.this) {
+                return expiration;
+            }
+        }
+
+        @Override
+        public void renew(long duration) throws UnknownLeaseException {
+            synchronized (LocalSpace.this) {
+                if (removed || expiration < System.currentTimeMillis())
+                    throw new UnknownLeaseException("Entry not in space");
+                expiration = expiration(duration);
+            }
+        }
+
+        @Override
+        public void cancel() throws UnknownLeaseException {
+            synchronized (LocalSpace.this) {
+                if (removed)
+                    throw new UnknownLeaseException("Entry not in space");
+                remove(this);
+            }
+        }
+    }
+
+    private class Registration implements Leased {
+        final long eventID;
+        final List<Template> templates;
+        final RemoteEventListener listener;
+        final MarshalledObject handback;
+        final boolean availability;
+        long expiration;
+        long seqNum;
+
+        Registration(long eventID, List<Template> templates, RemoteEventListener listener,
+                     MarshalledObject handback, boolean availability, long expiration) {
+            this.eventID = eventID;
+            this.templates = templates;
+            this.listener = listener;
+            this.handback = handback;
+            this.availability = availability;
+            this.expiration = expiration;
+        }
+
+        boolean matches(Stored s) {
+            Store store = stores.get(s.type);
+            for (Template template : templates) {
+                if (template.type.isAssignableFrom(s.type) && store.matches(s, template))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long getExpiration() {
+            synchronized (LocalSpace.this) {
+                return expiration;
+            }
+        }
+
+        @Override
+        public void renew(long duration) throws UnknownLeaseException {
+            synchronized (LocalSpace.this) {
+                if (!registrations.contains(this))
+                    throw new UnknownLeaseException("Event registration not in space");
+                expiration = expiration(duration);
+            }
+        }
+
+        @Override
+        public void cancel() throws UnknownLeaseException {
+            synchronized (LocalSpace.this) {
+                if (!registrations.remove(this))
+                    throw new UnknownLeaseException("Event registration not in space");
+            }
+        }
+    }
+
+    private static class LocalLease implements Lease {
+        private final Leased resource;
+        private int serialFormat = Lease.DURATION;
+
+        LocalLease(Leased resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public long getExpiration() {
+            return resource.getExpiration();
+        }
+
+        @Override
+        public void cancel() throws UnknownLeaseException {
+            resource.cancel();
+        }
+
+        @Override
+        public void renew(long duration) throws LeaseDeniedException, UnknownLeaseException {
+            resource.renew(duration);
+        }
+
+        @Override
+        public void setSerialFormat(int format) {
+            if (format != Lease.DURATION && format != Lease.ABSOLUTE)
+                throw new IllegalArgumentException("Invalid serial format: " + format);
+            serialFormat = format;
+        }
+
+        @Override
+        public int getSerialFormat() {
+            return serialFormat;
+        }
+
+        @Override
+        public LeaseMap createLeaseMap(long duration) {
+            LocalLeaseMap map = new LocalLeaseMap();
+            map.put(this, duration);
+            return map;
+        }
+
+        @Override
+        public boolean canBatch(Lease lease) {
+            return lease instanceof LocalLease;
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static class LocalLeaseMap extends HashMap implements LeaseMap {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean canContainKey(Object key) {
+            return key instanceof LocalLease;
+        }
+
+        @Override
+        public void renewAll() throws LeaseMapException {
+            Map failed = new HashMap();
+            Iterator<Map.Entry> iterator = entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry e = iterator.next();
+                try {
+                    ((Lease) e.getKey()).renew((Long) e.getValue());
+                } catch (Exception ex) {
+                    failed.put(e.getKey(), ex);
+                    iterator.remove();
+                }
+            }
+            if (!failed.isEmpty())
+                throw new LeaseMapException("Failed to renew leases", failed);
+        }
+
+        @Override
+        public void cancelAll() throws LeaseMapException {
+            Map failed = new HashMap();
+            Iterator<Map.Entry> iterator = entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry e = iterator.next();
+                try {
+                    ((Lease) e.getKey()).cancel();
+                } catch (Exception ex) {
+                    failed.put(e.getKey(), ex);
+                    iterator.remove();
+                }
+            }
+            if (!failed.isEmpty())
+                throw new LeaseMapException("Failed to cancel leases", failed);
+        }
+    }
+
+    private static class LocalAvailabilityEvent extends AvailabilityEvent {
+        private static final long serialVersionUID = 1L;
+        private final MarshalledObject<Entry> entry;
+
+        LocalAvailabilityEvent(JavaSpace source, long eventID, long seqNum,
+                               MarshalledObject handback, MarshalledObject<Entry> entry) {
+            super(source, eventID, seqNum, handback, true);
+            this.entry = entry;
+        }
+
+        @Override
+        public Entry getEntry() throws UnusableEntryException {
+            return unmarshal(entry);
+        }
+
+        @Override
+        public Entry getSnapshot() {
+            try {
+                return unmarshal(entry);
+            } catch (UnusableEntryException e) {
+                return null;
+            }
+        }
+    }
+
+    private static class TxnState {
+        final Set<Stored> written = new LinkedHashSet<>();
+        final Set<Stored> taken = new LinkedHashSet<>();
+    }
+
+    /**
+     * Participant of the transactions the space joined.
+     */
+    private class Participant implements TransactionParticipant {
+
+        @Override
+        public int prepare(TransactionManager mgr, long id) {
+            synchronized (LocalSpace.this) {
+                ServerTransaction txn = new ServerTransaction(mgr, id);
+                TxnState state = txns.get(txn);
+                if (state == null || (state.written.isEmpty() && state.taken.isEmpty())) {
+                    txns.remove(txn);
+                    return NOTCHANGED;
+                }
+                return PREPARED;
+            }
+        }
+
+        @Override
+        public void commit(TransactionManager mgr, long id) {
+            synchronized (LocalSpace.this) {
+                TxnState state = txns.remove(new ServerTransaction(mgr, id));
+                if (state == null)
+                    return;
+                for (Stored s : state.taken)
+                    remove(s);
+                for (Stored s : state.written) {
+                    s.writeTxn = null;
+                    if (!s.removed)
+                        visible(s, true);
+                }
+                LocalSpace.this.notifyAll();
+            }
+        }
+
+        @Override
+        public void abort(TransactionManager mgr, long id) {
+            synchronized (LocalSpace.this) {
+                TxnState state = txns.remove(new ServerTransaction(mgr, id));
+                if (state == null)
+                    return;
+                for (Stored s : state.written)
+                    remove(s);
+                for (Stored s : state.taken) {
+                    s.takeTxn = null;
+                    if (!s.removed)
+                        visible(s, false);
+                }
+                LocalSpace.this.notifyAll();
+            }
+        }
+
+        @Override
+        public int prepareAndCommit(TransactionManager mgr, long id) throws UnknownTransactionException {
+            int result = prepare(mgr, id);
+            if (result == PREPARED) {
+                commit(mgr, id);
+                result = COMMITTED;
+            }
+            return result;
+        }
+    }
+}
@@ -20,65 +20,198 @@ package sorcer.space.array;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import net.jini.core.entry.Entry;
 import net.jini.core.entry.UnusableEntryException;
 import net.jini.core.lease.Lease;
 import net.jini.core.transaction.Transaction;
 import net.jini.core.transaction.TransactionException;
 import net.jini.entry.UnusableEntriesException;
+import net.jini.space.JavaSpace;
 import net.jini.space.JavaSpace05;
+import net.jini.space.MatchSet;
 
+/**
+ * Array of elements in a JavaSpace. Positions are assigned by the end
+ * counters of the array, an array created with more than one stripe has a
+ * counter per stripe, stripe <code>k</code> of <code>n</code> stripes
+ * assigning positions <code>k, k + n, k + 2n, ...</code>, so concurrent
+ * appenders taking different counters do not contend. Positions of a striped
+ * array are not dense, positions of stripes appended to less often are
+ * missing in ranges read. The number of stripes is kept with the counters,
+ * an array opened by name only uses the number it was created with.
+ */
 public class DistribArray05 {
 	private JavaSpace05 space;
 
 	private String name;
 
+	// number of stripes, 0 until read from the space for an array opened by name
+	private volatile int stripes;
+
+	// set if the number of stripes is given and checked against the space
+	private final boolean isStripesChecked;
+
+	// set once the number of stripes is read from the space
+	private volatile boolean isStripesRead;
+
+	// next stripe appended to, starts at random so appenders spread over stripes
+	private AtomicInteger nextStripe;
+
+	/**
+	 * Opens the array with the number of stripes it was created with, or a
+	 * single stripe if created by this array.
+	 */
 	public DistribArray05(JavaSpace05 space, String name) {
 		this.space = space;
 		this.name = name;
+		this.isStripesChecked = false;
+		this.nextStripe = new AtomicInteger(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Opens the array with the given number of stripes, an array created
+	 * with a different number of stripes is rejected.
+	 */
+	public DistribArray05(JavaSpace05 space, String name, int stripes) {
+		if (stripes < 1)
+			throw new IllegalArgumentException("stripes must be greater than zero");
+		this.space = space;
+		this.name = name;
+		this.stripes = stripes;
+		this.isStripesChecked = true;
+		this.nextStripe = new AtomicInteger(ThreadLocalRandom.current().nextInt(stripes));
+	}
+
+	/**
+	 * Returns the number of stripes of the array, read from the space unless
+	 * known.
+	 *
+	 * @throws IllegalStateException
+	 *             if the array was created with a different number of stripes
+	 */
+	public int getStripes(Transaction txn) throws RemoteException, TransactionException,
+			UnusableEntryException, InterruptedException {
+		if (isStripesRead)
+			return stripes;
+		Start template = new Start();
+		template.name = name;
+		Start start = (Start) space.readIfExists(template, txn, JavaSpace.NO_WAIT);
+		if (start == null)
+			return stripes > 0 ? stripes : 1;
+		// arrays created by previous versions have a single stripe
+		int stored = start.stripes != null ? start.stripes.intValue() : 1;
+		if (isStripesChecked && stored != stripes)
+			throw new IllegalStateException("Array " + name + " created with " + stored
+					+ " stripes, not " + stripes);
+		stripes = stored;
+		isStripesRead = true;
+		return stored;
 	}
 
 	public void create() throws RemoteException, TransactionException,
 			UnusableEntryException, InterruptedException {
-		Start start = new Start();
-		start.name = name;
-		start.position = new Integer(0);
+		int stripes = getStripes(null);
+		List<Entry> indexes = new ArrayList<Entry>();
+		List<Long> leases = new ArrayList<Long>();
+		for (int k = 0; k < stripes; k++) {
+			Start startTemplate = new Start();
+			startTemplate.name = name;
+			startTemplate.stripe = new Integer(k);
 
-		End end = new End();
-		end.name = name;
-		end.position = new Integer(0);
+			End endTemplate = new End();
+			endTemplate.name = name;
+			endTemplate.stripe = new Integer(k);
 
-		Start startTemplate = new Start();
-		startTemplate.name = name;
+			Start starte = (Start) space.readIfExists(startTemplate, null,
+					Long.MAX_VALUE);
+			End ende = (End) space.readIfExists(endTemplate, null, Long.MAX_VALUE);
 
-		End endTemplate = new End();
-		endTemplate.name = name;
+			if ((starte == null) || (ende == null)) {
+				Start start = new Start();
+				start.name = name;
+				start.stripe = new Integer(k);
+				start.position = new Integer(k);
+				start.stripes = new Integer(stripes);
 
-		Start starte = (Start) space.readIfExists(startTemplate, null,
-				Long.MAX_VALUE);
-		End ende = (End) space.readIfExists(endTemplate, null, Long.MAX_VALUE);
+				End end = new End();
+				end.name = name;
+				end.stripe = new Integer(k);
+				end.position = new Integer(k);
+				end.stripes = new Integer(stripes);
 
-		if ((starte == null) || (ende == null)) {
-			space.write(start, null, Lease.FOREVER);
-			space.write(end, null, Lease.FOREVER);
+				indexes.add(start);
+				indexes.add(end);
+				leases.add(Lease.FOREVER);
+				leases.add(Lease.FOREVER);
+			}
 		}
+		if (!indexes.isEmpty())
+			space.write(indexes, null, leases);
 	}
 
 	public int append(Object obj, Transaction txn) throws RemoteException,
 			TransactionException, UnusableEntryException, InterruptedException {
-		End template = new End();
-		template.name = name;
+		int[] positions = appendAll(Collections.singletonList(obj), txn);
+		return positions != null ? positions[0] : -1;
+	}
+
+	/**
+	 * Appends the objects with a single take of a stripe counter and a single
+	 * write of their elements.
+	 *
+	 * @return the positions of the objects, or null if no counter could be taken
+	 */
+	public int[] appendAll(List<?> objs, Transaction txn) throws RemoteException,
+			TransactionException, UnusableEntryException, InterruptedException {
+		if (objs.isEmpty())
+			return new int[0];
+		int stripes = getStripes(txn);
+		End end = takeEnd(stripes, txn);
+		if (end == null)
+			return null;
+		int first = end.increment(stripes * objs.size());
+		space.write(end, txn, Lease.FOREVER);
+
+		int[] positions = new int[objs.size()];
+		List<Entry> elements = new ArrayList<Entry>(objs.size());
+		List<Long> leases = new ArrayList<Long>(objs.size());
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = first + i * stripes;
+			elements.add(new Element(name, positions[i], objs.get(i)));
+			leases.add(Lease.FOREVER);
+		}
+		space.write(elements, txn, leases);
+		return positions;
+	}
 
-		End end = (End) space.take(template, txn, 250);
-		if (end != null) {
-			int position = end.increment();
-			space.write(end, txn, Lease.FOREVER);
+	public int[] appendAll(List<?> objs) throws RemoteException, TransactionException,
+			UnusableEntryException, InterruptedException {
+		return appendAll(objs, null);
+	}
 
-			Element element = new Element(name, position, obj);
-			space.write(element, txn, Lease.FOREVER);
-			return position;
+	/**
+	 * Takes the end counter of the next stripe, trying the other stripes
+	 * when it is held by another appender.
+	 */
+	private End takeEnd(int stripes, Transaction txn) throws RemoteException,
+			TransactionException, UnusableEntryException, InterruptedException {
+		int stripe = nextStripe.getAndIncrement();
+		for (int i = 0; i < stripes; i++) {
+			End template = new End();
+			template.name = name;
+			template.stripe = new Integer(Math.floorMod(stripe + i, stripes));
+			// wait for the counter if it is the last one to try
+			long timeout = i == stripes - 1 ? 250 : JavaSpace.NO_WAIT;
+			End end = (End) space.take(template, txn, timeout);
+			if (end != null)
+				return end;
 		}
-		return -1;
+		return null;
 	}
 
 	public int append(Object obj) throws RemoteException, TransactionException,
@@ -94,10 +227,29 @@ public class DistribArray05 {
 		End endTemplate = new End();
 		endTemplate.name = name;
 
-		Start start = (Start) space.read(startTemplate, txn, Long.MAX_VALUE);
-		End end = (End) space.read(endTemplate, txn, Long.MAX_VALUE);
+		int stripes = getStripes(txn);
+		if (stripes == 1) {
+			Start start = (Start) space.read(startTemplate, txn, Long.MAX_VALUE);
+			End end = (End) space.read(endTemplate, txn, Long.MAX_VALUE);
 
-		return (end.position.intValue() - start.position.intValue());
+			return (end.position.intValue() - start.position.intValue());
+		}
+		List<Entry> tmpls = new ArrayList<Entry>();
+		tmpls.add(startTemplate);
+		tmpls.add(endTemplate);
+		int size = 0;
+		MatchSet indexes = space.contents(tmpls, txn, Lease.ANY, 2 * stripes);
+		try {
+			Index index;
+			while ((index = (Index) indexes.next()) != null) {
+				// a stripe's counter advances by the number of stripes per element
+				int count = index.position.intValue() / stripes;
+				size += index instanceof End ? count : -count;
+			}
+		} finally {
+			cancel(indexes);
+		}
+		return size;
 	}
 
 	public Object readElement(int pos) throws RemoteException,
@@ -108,6 +260,48 @@ public class DistribArray05 {
 		return element.data;
 	}
 
+	/**
+	 * Reads the elements at positions from inclusive to exclusive with a single
+	 * space request.
+	 *
+	 * @return the element objects in the order of their positions,
+	 * <code>null</code> at missing positions
+	 */
+	public Object[] readRange(int from, int to) throws RemoteException,
+			TransactionException, UnusableEntryException {
+		return readRange(from, to, null);
+	}
+
+	public Object[] readRange(int from, int to, Transaction txn) throws RemoteException,
+			TransactionException, UnusableEntryException {
+		Object[] range = new Object[Math.max(0, to - from)];
+		if (range.length == 0)
+			return range;
+		List<Entry> tmpls = new ArrayList<Entry>(range.length);
+		for (int pos = from; pos < to; pos++)
+			tmpls.add(new Element(name, pos, null));
+		MatchSet elements = space.contents(tmpls, txn, Lease.ANY, range.length);
+		try {
+			Element element;
+			while ((element = (Element) elements.next()) != null)
+				range[element.index.intValue() - from] = element.data;
+		} finally {
+			cancel(elements);
+		}
+		return range;
+	}
+
+	private void cancel(MatchSet matches) {
+		Lease lease = matches.getLease();
+		if (lease != null) {
+			try {
+				lease.cancel();
+			} catch (Exception e) {
+				// expires anyway
+			}
+		}
+	}
+
 	public Object readElementbyData(Object data) throws RemoteException,
 			TransactionException, UnusableEntryException, InterruptedException {
 		Element template = new Element(name, data);
@@ -158,10 +352,10 @@ public class DistribArray05 {
 			End endTemplate = new End();
 			endTemplate.name = name;
 
-			Start starte = (Start) space.takeIfExists(startTemplate, txn,
-					Long.MAX_VALUE);
-			End ende = (End) space.takeIfExists(endTemplate, txn,
-					Long.MAX_VALUE);
+			List<Entry> tmpls = new ArrayList<Entry>();
+			tmpls.add(startTemplate);
+			tmpls.add(endTemplate);
+			space.take(tmpls, txn, JavaSpace.NO_WAIT, 2 * getStripes(txn));
 			return true;
 		}
 	}
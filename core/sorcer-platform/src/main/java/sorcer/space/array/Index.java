@@ -22,10 +22,18 @@ import net.jini.core.entry.Entry;
 abstract public class Index implements Entry {
 	public String name;
 	public Integer position;
+	// counter stripe of a striped array
+	public Integer stripe;
+	// number of stripes of the array
+	public Integer stripes;
 
 	public int increment() {
+		return increment(1);
+	}
+
+	public int increment(int step) {
 		int pos = position.intValue();
-		position = new Integer(position.intValue() + 1);
+		position = new Integer(position.intValue() + step);
 		return pos;
 	}
 
@@ -0,0 +1,222 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global invocation cache of provider, service bean and local object
+ * methods. Methods are resolved once per class, selector and parameter
+ * types, including misses, and invoked with method handles spread over an
+ * argument array, so the exertion and evaluation hot paths are a map lookup
+ * instead of a reflective lookup and {@link Method#invoke}. The methods of a
+ * class are cached with a {@link ClassValue}, so they do not keep its class
+ * loader from being collected.
+ */
+public class BeanMethods {
+
+    private static final ClassValue<Map<List<Object>, Invoker>> tables = new ClassValue<Map<List<Object>, Invoker>>() {
+        @Override
+        protected Map<List<Object>, Invoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+    // resolved miss of a lookup
+    private static final Invoker NO_METHOD = new Invoker(null);
+
+    private enum Lookup { EXACT, ASSIGNABLE, DECLARED, NAMED }
+
+    /**
+     * Returns the public method of the type with the selector and exactly the
+     * parameter types as {@link Class#getMethod(String, Class[])} does.
+     */
+    public static Invoker get(Class<?> type, String selector, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return lookup(type, selector, parameterTypes, Lookup.EXACT);
+    }
+
+    /**
+     * Returns the public method of the type with the selector and a single
+     * parameter assignable from the first parameter type, otherwise the
+     * method with exactly the parameter types.
+     */
+    public static Invoker find(Class<?> type, String selector, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return lookup(type, selector, parameterTypes, Lookup.ASSIGNABLE);
+    }
+
+    /**
+     * Returns the method declared by the type with the selector and exactly
+     * the parameter types as {@link Class#getDeclaredMethod(String, Class[])}
+     * does.
+     */
+    public static Invoker getDeclared(Class<?> type, String selector, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return lookup(type, selector, parameterTypes, Lookup.DECLARED);
+    }
+
+    /**
+     * Returns the first method declared by the type with the selector
+     * regardless of its parameter types.
+     */
+    public static Invoker getNamed(Class<?> type, String selector) throws NoSuchMethodException {
+        return lookup(type, selector, NO_TYPES, Lookup.NAMED);
+    }
+
+    private static Invoker lookup(Class<?> type, String selector, Class<?>[] parameterTypes,
+                                  Lookup lookup) throws NoSuchMethodException {
+        if (parameterTypes == null)
+            parameterTypes = NO_TYPES;
+        Map<List<Object>, Invoker> table = tables.get(type);
+        Object[] key = new Object[parameterTypes.length + 2];
+        key[0] = selector;
+        key[1] = lookup;
+        System.arraycopy(parameterTypes, 0, key, 2, parameterTypes.length);
+        List<Object> signature = Arrays.asList(key);
+        Invoker invoker = table.get(signature);
+        if (invoker == null) {
+            invoker = resolve(type, selector, parameterTypes, lookup);
+            table.put(signature, invoker);
+        }
+        if (invoker == NO_METHOD)
+            throw new NoSuchMethodException(type.getName() + "." + selector
+                    + Arrays.toString(parameterTypes));
+        return invoker;
+    }
+
+    private static Invoker resolve(Class<?> type, String selector, Class<?>[] parameterTypes,
+                                   Lookup lookup) {
+        try {
+            switch (lookup) {
+                case ASSIGNABLE:
+                    if (parameterTypes.length > 0) {
+                        for (Method m : type.getMethods()) {
+                            if (m.getName().equals(selector) && m.getParameterCount() == 1
+                                    && m.getParameterTypes()[0].isAssignableFrom(parameterTypes[0]))
+                                return new Invoker(m);
+                        }
+                    }
+                    return new Invoker(type.getMethod(selector, parameterTypes));
+                case DECLARED:
+                    return new Invoker(type.getDeclaredMethod(selector, parameterTypes));
+                case NAMED:
+                    for (Method m : type.getDeclaredMethods()) {
+                        if (m.getName().equals(selector))
+                            return new Invoker(m);
+                    }
+                    return NO_METHOD;
+                default:
+                    return new Invoker(type.getMethod(selector, parameterTypes));
+            }
+        } catch (NoSuchMethodException e) {
+            return NO_METHOD;
+        }
+    }
+
+    /**
+     * Resolved method with its handle taking the target and an array of
+     * arguments. The target of static methods is ignored.
+     */
+    public static class Invoker {
+        private final Method method;
+        private final MethodHandle handle;
+        private final Class<?>[] parameterTypes;
+        // parameter types with primitives boxed
+        private final Class<?>[] argumentTypes;
+
+        Invoker(Method method) {
+            this.method = method;
+            MethodHandle mh = null;
+            Class<?>[] types = null;
+            if (method != null) {
+                types = method.getParameterTypes();
+                for (int i = 0; i < types.length; i++)
+                    types[i] = MethodType.methodType(types[i]).wrap().returnType();
+                try {
+                    int count = method.getParameterCount();
+                    mh = MethodHandles.publicLookup().unreflect(method);
+                    if (isStatic())
+                        mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                    mh = mh.asType(MethodType.genericMethodType(count + 1))
+                            .asSpreader(Object[].class, count);
+                } catch (IllegalAccessException e) {
+                    // not accessible as a handle, invoked reflectively
+                    mh = null;
+                }
+            }
+            this.handle = mh;
+            this.parameterTypes = method != null ? method.getParameterTypes() : null;
+            this.argumentTypes = types;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public boolean isStatic() {
+            return Modifier.isStatic(method.getModifiers());
+        }
+
+        /**
+         * Invokes the method as {@link Method#invoke(Object, Object...)} does.
+         * Calls with a target or arguments the handle does not take as they
+         * are are left to {@link Method#invoke(Object, Object...)}, so they
+         * are converted or rejected with an IllegalArgumentException.
+         */
+        public Object invoke(Object target, Object... args)
+                throws IllegalAccessException, InvocationTargetException {
+            if (args == null)
+                args = new Object[0];
+            if (handle == null || !isApplicable(target, args))
+                return method.invoke(target, args);
+            try {
+                return handle.invokeExact(target, args);
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        private boolean isApplicable(Object target, Object[] args) {
+            if (!isStatic() && !method.getDeclaringClass().isInstance(target))
+                return false;
+            if (args.length != argumentTypes.length)
+                return false;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null ? parameterTypes[i].isPrimitive() : !argumentTypes[i].isInstance(args[i]))
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(method);
+        }
+    }
+}
@@ -320,13 +320,23 @@ public class ServiceAccessor implements DynamicAccessor {
 	}
 
     public ServiceItem getServiceItem(Signature signature) {
-		if (signature.getMatchTypes() != null) {
-			return getServiceItem(signature.getProviderName().getName(), signature.getMatchTypes());
-		} else {
-			return getServiceItem(signature.getProviderName().getName(), signature.getServiceType());
-		}
+		return getServiceItem(getServiceTemplate(signature), null);
     }
 
+	/**
+	 * Returns the template matching providers of the signature by their
+	 * types and actual key.
+	 *
+	 * @param signature signature of the requested provider
+	 * @return the service template of the signature
+	 */
+	public ServiceTemplate getServiceTemplate(Signature signature) {
+		Class<?>[] serviceTypes = signature.getMatchTypes() != null
+			? signature.getMatchTypes() : new Class[] { signature.getServiceType() };
+		String name = overrideName(signature.getProviderName().getName(), serviceTypes[serviceTypes.length - 1]);
+		return new ServiceTemplate(null, serviceTypes, new Entry[] { new Name(name) });
+	}
+
     public  Object getService(Signature signature) {
         ServiceItem serviceItem = getServiceItem(signature);
         return serviceItem == null ? null : serviceItem.service;
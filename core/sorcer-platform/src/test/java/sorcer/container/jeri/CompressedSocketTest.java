@@ -0,0 +1,73 @@
+package sorcer.container.jeri;
+
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+public class CompressedSocketTest {
+
+    @Test
+    public void roundTripFrames() throws Exception {
+        CompressedSocketFactory socketFactory = new CompressedSocketFactory(1024, Deflater.BEST_SPEED);
+        CompressedServerSocketFactory serverSocketFactory = new CompressedServerSocketFactory(socketFactory);
+        byte[] table = new byte[200 * 1024];
+        for (int i = 0; i < table.length; i++)
+            table[i] = (byte) (i % 16);
+        byte[] noise = new byte[4096];
+        new Random(7).nextBytes(noise);
+        byte[] small = { 1, 2, 3 };
+
+        ServerSocket server = serverSocketFactory.createServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Socket client = socketFactory.createSocket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+        Socket accepted = server.accept();
+        try {
+            OutputStream out = client.getOutputStream();
+            out.write(small);
+            out.flush();
+            out.write(table);
+            out.flush();
+            out.write(noise);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(accepted.getInputStream());
+            byte[] read = new byte[small.length];
+            in.readFully(read);
+            assertArrayEquals(small, read);
+            read = new byte[table.length];
+            in.readFully(read);
+            assertArrayEquals(table, read);
+            read = new byte[noise.length];
+            in.readFully(read);
+            assertArrayEquals(noise, read);
+
+            CompressionStatistics sent = socketFactory.getStatistics();
+            assertEquals(small.length + table.length + noise.length, sent.getBytesWritten());
+            assertTrue(sent.getWireBytesWritten() < table.length / 10);
+            assertEquals(2, sent.getPlainFrames());
+            assertEquals(4, sent.getCompressedFrames());
+            assertEquals(sent.getBytesWritten(), serverSocketFactory.getStatistics().getBytesRead());
+            assertEquals(sent.getWireBytesWritten(), serverSocketFactory.getStatistics().getWireBytesRead());
+            assertEquals(1, serverSocketFactory.getConnectionStatistics().size());
+        } finally {
+            client.close();
+            accepted.close();
+            server.close();
+        }
+        assertTrue(serverSocketFactory.getConnectionStatistics().isEmpty());
+    }
+
+    @Test
+    public void factoriesOfEqualSettingsAreEqual() {
+        assertEquals(new CompressedSocketFactory(), new CompressedSocketFactory(
+                CompressedSocketFactory.DEFAULT_THRESHOLD, Deflater.BEST_SPEED));
+        assertFalse(new CompressedSocketFactory().equals(new CompressedSocketFactory(0, Deflater.BEST_SPEED)));
+    }
+}
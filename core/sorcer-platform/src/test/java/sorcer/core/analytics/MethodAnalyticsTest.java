@@ -0,0 +1,38 @@
+package sorcer.core.analytics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MethodAnalyticsTest {
+
+    private static MethodAnalytics analytics(long... recentExecTimes) {
+        MethodAnalytics analytics = new MethodAnalytics(null, 0, recentExecTimes.length, 0, "localhost",
+                                                        "add", 0, null, 0, recentExecTimes.length);
+        analytics.setRecentExecTimes(recentExecTimes);
+        return analytics;
+    }
+
+    @Test
+    public void execTimePercentiles() {
+        MethodAnalytics analytics = analytics(50, 10, 40, 20, 30, 60, 70, 80, 90, 100);
+        assertEquals(10, analytics.getExecTimePercentile(0.0));
+        assertEquals(10, analytics.getExecTimePercentile(0.1));
+        assertEquals(50, analytics.getExecTimePercentile(0.5));
+        assertEquals(90, analytics.getExecTimePercentile(0.9));
+        assertEquals(100, analytics.getExecTimePercentile(0.95));
+        assertEquals(100, analytics.getExecTimePercentile(1.0));
+    }
+
+    @Test
+    public void execTimePercentileOfSingleCall() {
+        assertEquals(42, analytics(42).getExecTimePercentile(0.95));
+    }
+
+    @Test
+    public void execTimePercentileWithoutCalls() {
+        assertEquals(-1, analytics().getExecTimePercentile(0.95));
+        MethodAnalytics unrecorded = new MethodAnalytics(null, 0, 0, 0, "localhost", "add", 0, null, 0, 0);
+        assertEquals(-1, unrecorded.getExecTimePercentile(0.95));
+    }
+}
@@ -0,0 +1,154 @@
+package sorcer.core.context;
+
+import net.jini.id.Uuid;
+import net.jini.io.MarshalInputStream;
+import net.jini.io.MarshalOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class BulkDataTest {
+
+    @Before
+    public void enable() {
+        System.setProperty(BulkData.BULK_THRESHOLD, "1024");
+    }
+
+    @After
+    public void disable() {
+        System.clearProperty(BulkData.BULK_THRESHOLD);
+    }
+
+    @Test
+    public void largeValuesSentAside() throws Exception {
+        byte[] bytes = new byte[100000];
+        double[] doubles = new double[50000];
+        for (int i = 0; i < doubles.length; i++) {
+            bytes[i] = (byte) i;
+            doubles[i] = i * 0.5;
+        }
+        ServiceContext cxt = new ServiceContext("bulk");
+        cxt.putValue("arg/bytes", bytes);
+        cxt.putValue("arg/doubles", doubles);
+        cxt.putValue("arg/small", new double[] { 1.0 });
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = BulkData.newResultStream(buffer, Collections.emptyList());
+        out.writeObject(cxt);
+        out.close();
+        assertTrue(buffer.size() < bytes.length);
+
+        ServiceContext read = read(buffer);
+        assertTrue(read.data.get("arg/bytes") instanceof BulkValue);
+        assertArrayEquals(bytes, (byte[]) read.getValue("arg/bytes"));
+        assertArrayEquals(doubles, (double[]) read.getValue("arg/doubles"), 0.0);
+        assertArrayEquals(new double[] { 1.0 }, (double[]) read.getValue("arg/small"), 0.0);
+        assertTrue(read.data.get("arg/doubles") instanceof double[]);
+    }
+
+    @Test
+    public void handlesResolvedOnIteration() throws Exception {
+        ServiceContext cxt = new ServiceContext("iterated");
+        cxt.putValue("arg/bytes", new byte[10000]);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = BulkData.newResultStream(buffer, Collections.emptyList());
+        out.writeObject(cxt);
+        out.close();
+
+        ServiceContext read = read(buffer);
+        for (Object value : read.values())
+            assertTrue(value instanceof byte[]);
+        ServiceContext copy = new ServiceContext("copy");
+        copy.putAll(read);
+        assertTrue(copy.data.get("arg/bytes") instanceof byte[]);
+    }
+
+    @Test
+    public void valueReleasedOnceFetched() throws Exception {
+        ServiceContext cxt = new ServiceContext("released");
+        cxt.putValue("arg/bytes", new byte[10000]);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = BulkData.newResultStream(buffer, Collections.emptyList());
+        out.writeObject(cxt);
+        out.close();
+
+        ServiceContext read = read(buffer);
+        BulkValue handle = (BulkValue) read.data.get("arg/bytes");
+        assertEquals(10000, ((byte[]) read.getValue("arg/bytes")).length);
+        BulkValue again = new BulkValue(handle.getHost(), handle.getPort(), handle.getId(),
+                handle.getType(), handle.getLength());
+        try {
+            again.getData();
+            fail("Fetched released value");
+        } catch (FileNotFoundException e) {
+            // released
+        }
+    }
+
+    @Test
+    public void valueReleasedOnceCollected() throws Exception {
+        ServiceContext cxt = new ServiceContext("collected");
+        cxt.putValue("arg/bytes", new byte[10000]);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = BulkData.newResultStream(buffer, Collections.emptyList());
+        out.writeObject(cxt);
+        out.close();
+
+        ServiceContext read = read(buffer);
+        Uuid id = ((BulkValue) read.data.get("arg/bytes")).getId();
+        assertTrue(BulkData.exports.containsKey(id));
+        read = null;
+        for (int i = 0; i < 100 && BulkData.exports.containsKey(id); i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        assertFalse(BulkData.exports.containsKey(id));
+    }
+
+    @Test
+    public void marshalledValuesInline() throws Exception {
+        ServiceContext cxt = new ServiceContext("marshalled");
+        cxt.putValue("arg/bytes", new byte[10000]);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = new MarshalOutputStream(buffer, Collections.emptyList());
+        out.writeObject(cxt);
+        out.close();
+
+        ServiceContext read = read(buffer);
+        assertTrue(read.data.get("arg/bytes") instanceof byte[]);
+    }
+
+    @Test
+    public void persistedValuesInline() throws Exception {
+        ServiceContext cxt = new ServiceContext("inline");
+        cxt.putValue("arg/bytes", new byte[10000]);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(buffer);
+        out.writeObject(cxt);
+        out.close();
+
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        ServiceContext read = (ServiceContext) in.readObject();
+        assertTrue(read.data.get("arg/bytes") instanceof byte[]);
+    }
+
+    private ServiceContext read(ByteArrayOutputStream buffer) throws Exception {
+        ObjectInputStream in = new MarshalInputStream(new ByteArrayInputStream(buffer.toByteArray()),
+                getClass().getClassLoader(), false, null, Collections.emptyList());
+        return (ServiceContext) in.readObject();
+    }
+}
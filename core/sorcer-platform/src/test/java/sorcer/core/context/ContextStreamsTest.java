@@ -0,0 +1,108 @@
+package sorcer.core.context;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.Test;
+import sorcer.service.Context;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+
+import static org.junit.Assert.*;
+
+public class ContextStreamsTest {
+
+    @Test
+    public void roundTripContexts() throws Exception {
+        Uuid id = UuidFactory.generate();
+        ServiceContext first = new ServiceContext("first");
+        first.putValue("arg/x", 1.5);
+        first.putValue("arg/n", -7);
+        first.putValue("arg/id", id);
+        first.putValue("arg/v", new double[] { 1.0, 2.0 });
+        first.putValue("arg/none", null);
+        first.putValue("result/y", "y", "tag|out");
+        ServiceContext second = new ServiceContext("second");
+        second.putValue("arg/x", 2.5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(first);
+        out.writeObject(second);
+        out.close();
+
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        ServiceContext firstIn = (ServiceContext) in.readObject();
+        ServiceContext secondIn = (ServiceContext) in.readObject();
+
+        assertEquals("first", firstIn.getName());
+        assertEquals(first.getId(), firstIn.getId());
+        assertEquals(1.5, firstIn.getValue("arg/x"));
+        assertEquals(-7, firstIn.getValue("arg/n"));
+        assertEquals(id, firstIn.getValue("arg/id"));
+        assertArrayEquals(new double[] { 1.0, 2.0 }, (double[]) firstIn.getValue("arg/v"), 0.0);
+        assertSame(Context.none, firstIn.get("arg/none"));
+        assertEquals("y", firstIn.getValue("result/y"));
+        assertEquals(first.getMetacontext(), firstIn.getMetacontext());
+        assertEquals(2.5, secondIn.getValue("arg/x"));
+    }
+
+    @Test
+    public void streamContinuedByAnotherThread() throws Exception {
+        final ServiceContext first = new ServiceContext("first");
+        first.putValue("arg/x", 1.5);
+        ServiceContext second = new ServiceContext("second");
+        second.putValue("arg/x", 2.5);
+        second.putValue("arg/y", 3.5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    out.writeObject(first);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        writer.start();
+        writer.join();
+        out.writeObject(second);
+        out.close();
+
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(1.5, ((ServiceContext) in.readObject()).getValue("arg/x"));
+        ServiceContext secondIn = (ServiceContext) in.readObject();
+        assertEquals(2.5, secondIn.getValue("arg/x"));
+        assertEquals(3.5, secondIn.getValue("arg/y"));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void unknownFormatRejected() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeByte(0);
+        ContextStreams.writeVarint(out, 0);
+        out.close();
+        ContextStreams.readHeader(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void varints() throws Exception {
+        int[] values = { 0, 1, 127, 128, 300, Integer.MAX_VALUE, -1 };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        for (int value : values)
+            ContextStreams.writeVarint(out, value);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (int value : values)
+            assertEquals(value, ContextStreams.readVarint(in));
+    }
+}
@@ -0,0 +1,68 @@
+package sorcer.core.context;
+
+import org.junit.Test;
+import sorcer.service.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DeltaContextTest {
+
+    @Test
+    public void returnChangedPathsOnly() throws Exception {
+        ServiceContext sent = new ServiceContext("arithmetic");
+        sent.putValue("arg/x", new double[] { 1.0, 2.0 });
+        sent.putValue("arg/y", 10.0);
+        sent.putValue("result/z", 0.0);
+        Task requested = new Task("t");
+        requested.setContext(sent);
+
+        // provider side copy of the task
+        ServiceContext received = new ServiceContext(sent);
+        List<Double> list = new ArrayList<>(Arrays.asList(1.0, 2.0));
+        received.putValue("arg/list", list);
+        Task task = new Task("t");
+        task.setContext(received);
+
+        DeltaContext.Snapshot snapshot = DeltaContext.snapshot(task);
+        received.putValue("result/z", 20.0);
+        ((double[]) received.getValue("arg/x"))[1] = 3.0;
+        assertTrue(DeltaContext.trim(task, snapshot));
+
+        ServiceContext delta = task.getDataContext();
+        assertTrue(delta instanceof DeltaContext);
+        assertEquals(2, delta.size());
+        assertFalse(delta.containsPath("arg/y"));
+        assertFalse(delta.containsPath("arg/list"));
+
+        DeltaContext.patch(requested, task);
+        assertSame(sent, task.getDataContext());
+        assertEquals(20.0, sent.getValue("result/z"));
+        assertEquals(3.0, ((double[]) sent.getValue("arg/x"))[1], 0.0);
+        assertEquals(10.0, sent.getValue("arg/y"));
+    }
+
+    @Test
+    public void localTaskLeftAsReturned() throws Exception {
+        ServiceContext cxt = new ServiceContext("arithmetic");
+        cxt.putValue("arg/y", 10.0);
+        cxt.putValue("result/z", 20.0);
+        Task task = new Task("t");
+        task.setContext(cxt);
+
+        assertSame(task, DeltaContext.patch(task, task));
+        assertSame(cxt, task.getDataContext());
+        assertEquals(10.0, cxt.getValue("arg/y"));
+        assertEquals(20.0, cxt.getValue("result/z"));
+    }
+
+    @Test
+    public void fingerprintMutableValues() {
+        assertNotNull(DeltaContext.fingerprint(Arrays.asList("a", 1, new int[] { 2 })));
+        assertNull(DeltaContext.fingerprint(new Object()));
+        assertNull(DeltaContext.fingerprint(Arrays.asList("a", new Object())));
+    }
+}
@@ -0,0 +1,203 @@
+package sorcer.core.dispatch;
+
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import org.junit.Test;
+import sorcer.core.analytics.MethodAnalytics;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.exertion.NetTask;
+import sorcer.core.signature.RemoteSignature;
+import sorcer.service.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CatalogParallelDispatcherTest {
+    // exert calls to all providers, the first call is slow when set
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Provider p1 = new Provider();
+    private final Provider p2 = new Provider();
+    // ids of the exertions prepared for dispatch
+    private final List<Object> prepared = new CopyOnWriteArrayList<Object>();
+
+    @Test
+    public void slowTaskHedgedOnAnotherProvider() throws Exception {
+        p1.slowFirstCall = p2.slowFirstCall = true;
+        CatalogParallelDispatcher dispatcher = dispatcher();
+        NetTask task = task();
+
+        Task result = dispatcher.execSpeculativeTask(task);
+        assertEquals(2, calls.get());
+        assertNotSame(task, result);
+        assertFalse(task.getId().equals(result.getId()));
+
+        // the slow execution is stopped on its provider
+        Provider slow = p1.exerted.contains(task.getId()) ? p1 : p2;
+        Provider fast = slow == p1 ? p2 : p1;
+        assertTrue(slow.stopCalled.await(5, TimeUnit.SECONDS));
+        assertEquals(task.getId(), slow.stopped.get(0));
+        assertEquals(result.getId(), fast.exerted.get(0));
+        assertTrue(fast.stopped.isEmpty());
+    }
+
+    @Test
+    public void fastTaskNotHedged() throws Exception {
+        CatalogParallelDispatcher dispatcher = dispatcher();
+        NetTask task = task();
+        NetTask other = task();
+
+        assertSame(task, dispatcher.execSpeculativeTask(task));
+        assertSame(other, dispatcher.execSpeculativeTask(other));
+        assertEquals(2, calls.get());
+        assertTrue(p1.stopped.isEmpty());
+        assertTrue(p2.stopped.isEmpty());
+    }
+
+    @Test
+    public void batchKeyWithoutProviderName() throws Exception {
+        assertEquals(Service.class.getName() + "#add#", dispatcher().getBatchKey(task()));
+    }
+
+    @Test
+    public void tasksExertedInOneBatch() throws Exception {
+        Provider batch = new Provider(true);
+        Job job = new Job("j");
+        List<Task> tasks = tasks(job, 3);
+
+        List<Routine> results = dispatcher(job, batch).execBatch(tasks);
+        assertEquals(1, batch.batches.get());
+        assertEquals(0, calls.get());
+        assertDone(tasks, results);
+    }
+
+    @Test
+    public void failedBatchExertedOneByOne() throws Exception {
+        Provider batch = new Provider(true);
+        batch.failBatch = true;
+        Job job = new Job("j");
+        List<Task> tasks = tasks(job, 3);
+
+        List<Routine> results = dispatcher(job, batch).execBatch(tasks);
+        assertEquals(1, batch.batches.get());
+        assertEquals(3, calls.get());
+        assertDone(tasks, results);
+    }
+
+    private void assertDone(List<Task> tasks, List<Routine> results) {
+        assertEquals(tasks.size(), results.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getId(), results.get(i).getId());
+            assertEquals(Exec.DONE, ((Subroutine) results.get(i)).getStatus());
+            // prepared once for the batch and its fallback
+            assertEquals(1, Collections.frequency(prepared, tasks.get(i).getId()));
+        }
+    }
+
+    private List<Task> tasks(Job job, int count) throws Exception {
+        List<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < count; i++) {
+            NetTask task = task();
+            job.addMogram(task);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private NetTask task() throws Exception {
+        NetTask task = new NetTask("t", new RemoteSignature("add", Service.class));
+        task.setContext(new ServiceContext("add"));
+        return task;
+    }
+
+    private CatalogParallelDispatcher dispatcher() {
+        Job job = new Job("j");
+        job.getControlContext().setSpeculative(true);
+        return new CatalogParallelDispatcher(job, new SharedContexts(), false, null, null) {
+            @Override
+            protected ServiceItem[] getServiceItems(RemoteSignature sig) {
+                return new ServiceItem[] { new ServiceItem(new ServiceID(0, 1), p1.proxy, null),
+                        new ServiceItem(new ServiceID(0, 2), p2.proxy, null) };
+            }
+        };
+    }
+
+    private CatalogParallelDispatcher dispatcher(Job job, final Provider batch) {
+        return new CatalogParallelDispatcher(job, new SharedContexts(), false, new Provider().proxy, null) {
+            @Override
+            protected Object lookupService(RemoteSignature sig) {
+                return batch.proxy;
+            }
+
+            @Override
+            protected void beforeExec(Routine exertion) throws RoutineException, SignatureException {
+                prepared.add(exertion.getId());
+                super.beforeExec(exertion);
+            }
+        };
+    }
+
+    // provider proxy answering exert, batch, analytics and stop calls
+    private class Provider implements InvocationHandler {
+        private final Exerter proxy;
+        private volatile boolean slowFirstCall;
+        private volatile boolean failBatch;
+        private final AtomicInteger batches = new AtomicInteger();
+        private final List<Object> exerted = new CopyOnWriteArrayList<Object>();
+        private final List<Object> stopped = new CopyOnWriteArrayList<Object>();
+        private final CountDownLatch stopCalled = new CountDownLatch(1);
+
+        Provider() {
+            this(false);
+        }
+
+        Provider(boolean batch) {
+            Class[] types = batch ? new Class[] { Exerter.class, BatchExertion.class }
+                    : new Class[] { Exerter.class };
+            proxy = (Exerter) Proxy.newProxyInstance(Exerter.class.getClassLoader(), types, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("exertAll")) {
+                batches.incrementAndGet();
+                if (failBatch)
+                    throw new ServiceException("batch failed");
+                return new ArrayList<Object>((List<?>) args[0]);
+            } else if (method.getName().equals("exert")) {
+                exerted.add(((Contextion) args[0]).getId());
+                if (calls.incrementAndGet() == 1 && slowFirstCall) {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return args[0];
+            } else if (method.getName().equals("getMethodAnalytics") && args != null) {
+                MethodAnalytics analytics = new MethodAnalytics(null, 0, 1, 0, "localhost", (String) args[0],
+                                                                0, null, 0, 1);
+                analytics.setRecentExecTimes(new long[] { TimeUnit.MILLISECONDS.toNanos(50) });
+                return analytics;
+            } else if (method.getName().equals("stop")) {
+                stopped.add(args[0]);
+                stopCalled.countDown();
+                return null;
+            } else if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            } else if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return method.getName().equals("toString") ? "provider" : null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package sorcer.core.dispatch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DispatchExecutorTest {
+
+    @Test
+    public void saturatedSubmissionsQueuedOffCaller() throws Exception {
+        DispatchExecutor executor = new DispatchExecutor(2, 2, 10000L, false);
+        ExecutorService job = executor.forJob("job");
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread caller = Thread.currentThread();
+        List<Future<Thread>> results = new ArrayList<Future<Thread>>();
+        for (int i = 0; i < 4; i++) {
+            results.add(job.submit(new Callable<Thread>() {
+                @Override
+                public Thread call() throws Exception {
+                    release.await();
+                    return Thread.currentThread();
+                }
+            }));
+        }
+        assertEquals(2, executor.getQueueDepth());
+        release.countDown();
+        for (Future<Thread> result : results)
+            assertNotSame(caller, result.get(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getOverflowCount());
+        job.shutdown();
+        assertTrue(job.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void plainSubmissionsKeptQueuedPastDeadline() throws Exception {
+        DispatchExecutor executor = new DispatchExecutor(1, 1, 20L, false);
+        ExecutorService job = executor.forJob("job");
+        final CountDownLatch release = new CountDownLatch(1);
+        Callable<Integer> blocked = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                release.await();
+                return 1;
+            }
+        };
+        Future<Integer> first = job.submit(blocked);
+        Future<Integer> second = job.submit(blocked);
+        Thread.sleep(200);
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getActiveCount());
+        assertEquals(0, executor.getOverflowCount());
+        release.countDown();
+        assertEquals(Integer.valueOf(1), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(1), second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void nestedSubmissionsOverflowAtDeadline() throws Exception {
+        final DispatchExecutor executor = new DispatchExecutor(1, 1, 100L, false);
+        ExecutorService outer = executor.forJob("outer");
+        Future<Integer> result = outer.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                ExecutorService inner = executor.forJob("inner");
+                return inner.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        return 1;
+                    }
+                }).get();
+            }
+        });
+        assertEquals(Integer.valueOf(1), result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.getOverflowCount());
+    }
+
+    @Test
+    public void nestedGovernorSubmissionsOverflowAtDeadline() throws Exception {
+        final DispatchExecutor executor = new DispatchExecutor(1, 1, 100L, false);
+        ExecutorService outer = executor.forJob("outer");
+        Future<Integer> result = outer.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                final ExecutorService inner = executor.forJob("inner");
+                final List<Future<Integer>> done = new ArrayList<Future<Integer>>();
+                final CountDownLatch submitted = new CountDownLatch(1);
+                executor.executeGovernor(new Runnable() {
+                    @Override
+                    public void run() {
+                        done.add(inner.submit(new Callable<Integer>() {
+                            @Override
+                            public Integer call() {
+                                return 1;
+                            }
+                        }));
+                        submitted.countDown();
+                    }
+                });
+                submitted.await();
+                return done.get(0).get();
+            }
+        });
+        assertEquals(Integer.valueOf(1), result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.getOverflowCount());
+    }
+
+    @Test
+    public void shutdownNowReturnsQueued() throws Exception {
+        DispatchExecutor executor = new DispatchExecutor(1, 1, 10000L, false);
+        ExecutorService job = executor.forJob("job");
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        job.execute(blocked);
+        job.execute(blocked);
+        job.execute(blocked);
+        List<Runnable> dropped = job.shutdownNow();
+        assertEquals(2, dropped.size());
+        assertEquals(0, executor.getQueueDepth());
+        assertFalse(job.awaitTermination(50, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(job.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(job.isTerminated());
+    }
+
+    @Test
+    public void pausedDomainYieldsPermits() throws Exception {
+        final DispatchExecutor executor = new DispatchExecutor(1, 1, 10000L, false);
+        ExecutorService job = executor.forJob("job");
+        final List<String> order = new ArrayList<String>();
+        final CountDownLatch paused = new CountDownLatch(1);
+        Future<?> first = job.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    paused.countDown();
+                    executor.pause(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (order) {
+                    order.add("first");
+                }
+            }
+        });
+        assertTrue(paused.await(5, TimeUnit.SECONDS));
+        Future<?> second = job.submit(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (order) {
+                    order.add("second");
+                }
+            }
+        });
+        second.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals("second", order.get(0));
+        assertEquals("first", order.get(1));
+        assertEquals(0, executor.getOverflowCount());
+        assertEquals(0, executor.getQueueDepth());
+        job.shutdown();
+        assertTrue(job.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,84 @@
+package sorcer.core.dispatch;
+
+import org.junit.Test;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.ResultConsumer;
+import sorcer.service.Routine;
+import sorcer.service.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static sorcer.service.Exec.DONE;
+import static sorcer.service.Exec.FAILED;
+
+public class ResultPublisherTest {
+
+    static class Collector implements ResultConsumer {
+        final List<Routine> results = new ArrayList<Routine>();
+
+        public void consume(Routine result) {
+            results.add(result);
+        }
+    }
+
+    static class Failing implements ResultConsumer {
+        int calls;
+
+        public void consume(Routine result) {
+            calls++;
+            throw new IllegalStateException("consumer failed");
+        }
+    }
+
+    @Test
+    public void streamsAndKeepsContexts() throws Exception {
+        Collector collector = new Collector();
+        ResultPublisher publisher = new ResultPublisher(collector, false, "job");
+        Task t1 = task("t1", DONE);
+        Task t2 = task("t2", DONE);
+        publisher.publish(t1);
+        publisher.publish(t2);
+        assertEquals(2, collector.results.size());
+        assertSame(t1, collector.results.get(0));
+        assertSame(t2, collector.results.get(1));
+        assertEquals(1.0, t1.getContext().getValue("result/y"));
+    }
+
+    @Test
+    public void dropsConsumedDoneContexts() throws Exception {
+        Collector collector = new Collector();
+        ResultPublisher publisher = new ResultPublisher(collector, true, "job");
+        Task done = task("done", DONE);
+        Task failed = task("failed", FAILED);
+        publisher.publish(done);
+        publisher.publish(failed);
+        assertEquals(2, collector.results.size());
+        assertNull(done.getContext().getValue("result/y"));
+        assertEquals(1.0, failed.getContext().getValue("result/y"));
+    }
+
+    @Test
+    public void failingLocalConsumerDropped() throws Exception {
+        Failing failing = new Failing();
+        ResultPublisher publisher = new ResultPublisher(failing, true, "job");
+        Task t1 = task("t1", DONE);
+        Task t2 = task("t2", DONE);
+        publisher.publish(t1);
+        publisher.publish(t2);
+        assertEquals(1, failing.calls);
+        assertFalse(publisher.isStreaming());
+        assertEquals(1.0, t1.getContext().getValue("result/y"));
+        assertEquals(1.0, t2.getContext().getValue("result/y"));
+    }
+
+    private static Task task(String name, int status) throws Exception {
+        Task task = new Task(name);
+        ServiceContext cxt = new ServiceContext(name);
+        cxt.putValue("result/y", 1.0);
+        task.setContext(cxt);
+        task.setStatus(status);
+        return task;
+    }
+}
@@ -0,0 +1,66 @@
+package sorcer.core.dispatch;
+
+import org.junit.Test;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.Context;
+
+import static org.junit.Assert.*;
+
+public class SharedContextsTest {
+
+    @Test
+    public void resolveByIdAndPath() throws Exception {
+        SharedContexts shared = new SharedContexts();
+        ServiceContext c1 = new ServiceContext("c1");
+        c1.putValue("result/y1", 1.0);
+        ServiceContext c2 = new ServiceContext("c2");
+        c2.putValue("result/y2", 2.0);
+        shared.add(c1);
+        shared.add(c2);
+
+        assertEquals(2, shared.size());
+        assertSame(c1, shared.getContext(c1.getId()));
+        assertSame(c2, shared.getContext("result/y2"));
+        assertNull(shared.getContext("result/y3"));
+    }
+
+    @Test
+    public void resolvePathAddedAfterSharing() throws Exception {
+        SharedContexts shared = new SharedContexts();
+        ServiceContext c1 = new ServiceContext("c1");
+        shared.add(c1);
+        c1.putValue("result/y1", 1.0);
+        assertSame(c1, shared.getContext("result/y1"));
+    }
+
+    @Test
+    public void removeUnindexesPaths() throws Exception {
+        SharedContexts shared = new SharedContexts();
+        ServiceContext c1 = new ServiceContext("c1");
+        c1.putValue("result/y1", 1.0);
+        shared.add(c1);
+        assertTrue(shared.remove(c1));
+        assertTrue(shared.isEmpty());
+        assertNull(shared.getContext("result/y1"));
+        for (Context cxt : shared)
+            fail("unexpected context: " + cxt);
+    }
+
+    @Test
+    public void replaceUnindexesPreviousPaths() throws Exception {
+        SharedContexts shared = new SharedContexts();
+        ServiceContext c1 = new ServiceContext("c1");
+        c1.putValue("result/y1", 1.0);
+        ServiceContext c2 = new ServiceContext("c2");
+        c2.setId(c1.getId());
+        c2.putValue("result/y2", 2.0);
+        assertTrue(shared.add(c1));
+        assertFalse(shared.add(c1));
+        assertFalse(shared.add(c2));
+
+        assertEquals(1, shared.size());
+        assertSame(c2, shared.getContext(c1.getId()));
+        assertSame(c2, shared.getContext("result/y2"));
+        assertNull(shared.getContext("result/y1"));
+    }
+}
@@ -0,0 +1,57 @@
+package sorcer.core.exertion;
+
+import net.jini.core.transaction.Transaction;
+import org.junit.Test;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.signature.LocalSignature;
+import sorcer.service.Context;
+import sorcer.service.ContextException;
+import sorcer.service.Task;
+
+import static org.junit.Assert.*;
+
+public class ObjectTaskTest {
+
+    public static class Counter {
+        private int calls;
+
+        public Context count(Context cxt) throws ContextException {
+            cxt.putValue("result/calls", ++calls);
+            return cxt;
+        }
+    }
+
+    @Test
+    public void targetReused() throws Exception {
+        LocalSignature sig = new LocalSignature("count", Counter.class);
+        sig.setReuseTarget(true);
+        assertEquals(1, count(sig));
+        Object target = sig.getReusedTarget();
+        assertTrue(target instanceof Counter);
+        assertEquals(2, count(sig));
+        assertSame(target, sig.getReusedTarget());
+    }
+
+    @Test
+    public void targetCreatedPerInvocation() throws Exception {
+        LocalSignature sig = new LocalSignature("count", Counter.class);
+        assertEquals(1, count(sig));
+        assertEquals(1, count(sig));
+        assertNull(sig.getReusedTarget());
+    }
+
+    @Test
+    public void reusedTargetReleased() throws Exception {
+        LocalSignature sig = new LocalSignature("count", Counter.class);
+        sig.setReuseTarget(true);
+        count(sig);
+        sig.setReuseTarget(false);
+        assertNull(sig.getReusedTarget());
+        assertEquals(1, count(sig));
+    }
+
+    private int count(LocalSignature sig) throws Exception {
+        Task task = new ObjectTask(sig, new ServiceContext("counter"));
+        return (Integer) task.doTask((Transaction) null).getContext().getValue("result/calls");
+    }
+}
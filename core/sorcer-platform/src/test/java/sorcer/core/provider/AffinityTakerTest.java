@@ -0,0 +1,80 @@
+package sorcer.core.provider;
+
+import net.jini.core.lease.Lease;
+import net.jini.space.JavaSpace;
+import org.junit.After;
+import org.junit.Test;
+import sorcer.core.exertion.ExertionEnvelop;
+import sorcer.service.Service;
+import sorcer.space.LocalSpace;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class AffinityTakerTest {
+    private final LocalSpace space = new LocalSpace();
+    private final ExecutorService pool = Executors.newFixedThreadPool(2);
+    private final DataAffinity affinity = new DataAffinity(10);
+
+    @After
+    public void destroy() {
+        pool.shutdownNow();
+        space.destroy();
+    }
+
+    @Test
+    public void affineEnvelopTakenFirst() throws Exception {
+        space.write(envelop("other"), null, Lease.FOREVER);
+        space.write(envelop("cached"), null, Lease.FOREVER);
+        affinity.add("cached");
+
+        assertEquals("cached", taker().takeEnvelop(null, JavaSpace.NO_WAIT).dataKey);
+        assertEquals("other", taker().takeEnvelop(null, JavaSpace.NO_WAIT).dataKey);
+        assertEquals("other", affinity.getKeys().get(0));
+    }
+
+    @Test
+    public void affineEnvelopsTakenFirstInBatch() throws Exception {
+        space.write(envelop("other"), null, Lease.FOREVER);
+        space.write(envelop("cached"), null, Lease.FOREVER);
+        space.write(envelop("cached"), null, Lease.FOREVER);
+        affinity.add("cached");
+
+        Collection<?> taken = taker().takeEnvelops(null, JavaSpace.NO_WAIT, 2);
+        assertEquals(2, taken.size());
+        for (Object envelop : taken)
+            assertEquals("cached", ((ExertionEnvelop) envelop).dataKey);
+        assertEquals(1, space.size());
+    }
+
+    @Test
+    public void otherEnvelopTakenWithoutAffinityWait() throws Exception {
+        affinity.add("cached");
+        AffinityTaker taker = taker();
+        for (int i = 0; i < 20; i++)
+            space.write(envelop("other"), null, Lease.FOREVER);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++)
+            assertEquals("other", taker.takeEnvelop(null, 10000).dataKey);
+        assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    private AffinityTaker taker() {
+        SpaceTaker.SpaceTakerData data = new SpaceTaker.SpaceTakerData();
+        data.entry = ExertionEnvelop.getTemplate(Service.class, null);
+        data.provider = new ServiceExerter();
+        AffinityTaker taker = new AffinityTaker(data, pool, false, affinity);
+        taker.space = space;
+        return taker;
+    }
+
+    private ExertionEnvelop envelop(String dataKey) {
+        ExertionEnvelop envelop = ExertionEnvelop.getTemplate(Service.class, null);
+        envelop.dataKey = dataKey;
+        return envelop;
+    }
+}
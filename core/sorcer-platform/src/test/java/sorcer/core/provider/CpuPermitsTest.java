@@ -0,0 +1,71 @@
+package sorcer.core.provider;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CpuPermitsTest {
+
+    @Test
+    public void computeSectionsBounded() throws Exception {
+        final CpuPermits permits = new CpuPermits(2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] sections = new Future<?>[8];
+            for (int i = 0; i < sections.length; i++) {
+                sections[i] = threads.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        return permits.compute(new Callable<Integer>() {
+                            @Override
+                            public Integer call() throws Exception {
+                                int now = running.incrementAndGet();
+                                synchronized (peak) {
+                                    peak.set(Math.max(peak.get(), now));
+                                }
+                                Thread.sleep(20);
+                                running.decrementAndGet();
+                                return now;
+                            }
+                        });
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> section : sections)
+                section.get(5, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        assertTrue(peak.get() <= 2);
+        assertEquals(2, permits.getAvailablePermits());
+    }
+
+    @Test
+    public void permitReleasedOnFailure() throws Exception {
+        CpuPermits permits = new CpuPermits(1);
+        try {
+            permits.compute(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    throw new IllegalStateException("failed");
+                }
+            });
+            fail("failure not thrown");
+        } catch (IllegalStateException e) {
+            assertEquals(1, permits.getAvailablePermits());
+        }
+    }
+}
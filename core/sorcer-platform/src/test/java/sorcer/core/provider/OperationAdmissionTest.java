@@ -0,0 +1,52 @@
+package sorcer.core.provider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OperationAdmissionTest {
+
+    @Test
+    public void unboundedOperationIsNotAdmitted() throws Exception {
+        OperationAdmission admission = new OperationAdmission(new String[] { "solve:1" }, 0, null);
+        assertFalse(admission.admit("add"));
+    }
+
+    @Test
+    public void rejectWhenLimitReached() throws Exception {
+        OperationAdmission admission = new OperationAdmission(new String[] { "solve:1" }, 0, null);
+        assertTrue(admission.admit("solve"));
+        try {
+            admission.admit("solve");
+            fail("expected rejection");
+        } catch (ProviderException e) {
+            assertTrue(e.getRetryAfter() > 0);
+        }
+        admission.release("solve");
+        assertTrue(admission.admit("solve"));
+    }
+
+    @Test
+    public void defaultLimitsPerOperation() throws Exception {
+        OperationAdmission admission = new OperationAdmission(new String[] { "*:1" }, 0, null);
+        assertTrue(admission.admit("add"));
+        assertTrue(admission.admit("multiply"));
+    }
+
+    @Test
+    public void queuedInvocationGetsReleasedPermit() throws Exception {
+        final OperationAdmission admission = new OperationAdmission(new String[] { "solve:1:1" }, 5000, null);
+        assertTrue(admission.admit("solve"));
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (admission.getWaiting("solve") == 0)
+                    Thread.yield();
+                admission.release("solve");
+            }
+        });
+        releaser.start();
+        assertTrue(admission.admit("solve"));
+        releaser.join();
+    }
+}
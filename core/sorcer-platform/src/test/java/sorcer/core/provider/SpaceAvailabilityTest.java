@@ -0,0 +1,103 @@
+package sorcer.core.provider;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lease.Lease;
+import net.jini.jeri.BasicJeriExporter;
+import net.jini.jeri.InvocationLayerFactory;
+import net.jini.jeri.ServerEndpoint;
+import org.junit.After;
+import org.junit.Test;
+import sorcer.container.jeri.ExporterFactory;
+import sorcer.space.LocalSpace;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SpaceAvailabilityTest {
+    private final LocalSpace space = new LocalSpace();
+    private final AtomicInteger exported = new AtomicInteger();
+    private final SpaceAvailability availability = new SpaceAvailability(
+            Collections.singletonList(new Envelop("a")), new ExporterFactory() {
+        @Override
+        protected BasicJeriExporter doGet(ServerEndpoint serverEndpoint, InvocationLayerFactory ilFactory) {
+            exported.incrementAndGet();
+            return super.doGet(serverEndpoint, ilFactory);
+        }
+    });
+
+    public static class Envelop implements Entry {
+        public String name;
+
+        public Envelop() {
+        }
+
+        Envelop(String name) {
+            this.name = name;
+        }
+    }
+
+    @After
+    public void destroy() {
+        availability.destroy();
+        space.destroy();
+    }
+
+    @Test
+    public void writtenEnvelopEndsWait() throws Exception {
+        // envelops written before the registration are not notified
+        assertTrue(availability.await(space, 0));
+        write(new Envelop("a"), 200);
+
+        long start = System.currentTimeMillis();
+        assertTrue(availability.await(space, 10000));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(1, exported.get());
+    }
+
+    @Test
+    public void otherEnvelopNotAwaited() throws Exception {
+        assertTrue(availability.await(space, 0));
+        write(new Envelop("b"), 0);
+
+        long start = System.currentTimeMillis();
+        assertTrue(availability.await(space, 500));
+        assertTrue(System.currentTimeMillis() - start >= 500);
+    }
+
+    @Test
+    public void registeredAgainWithAnotherSpace() throws Exception {
+        LocalSpace other = new LocalSpace();
+        try {
+            assertTrue(availability.await(space, 0));
+            assertTrue(availability.await(other, 0));
+            write(other, new Envelop("a"), 200);
+            long start = System.currentTimeMillis();
+            assertTrue(availability.await(other, 10000));
+            assertTrue(System.currentTimeMillis() - start < 5000);
+            // the listener is exported once
+            assertEquals(1, exported.get());
+        } finally {
+            other.destroy();
+        }
+    }
+
+    private void write(Entry entry, long delay) {
+        write(space, entry, delay);
+    }
+
+    private void write(final LocalSpace target, final Entry entry, final long delay) {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(delay);
+                    target.write(entry, null, Lease.FOREVER);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }).start();
+    }
+}
@@ -0,0 +1,233 @@
+package sorcer.core.provider;
+
+import net.jini.core.entry.UnusableEntryException;
+import net.jini.core.lease.Lease;
+import net.jini.core.transaction.Transaction;
+import net.jini.core.transaction.server.TransactionManager;
+import net.jini.entry.UnusableEntriesException;
+import net.jini.space.JavaSpace;
+import org.junit.After;
+import org.junit.Test;
+import sorcer.core.exertion.ExertionEnvelop;
+import sorcer.river.TX;
+import sorcer.service.Service;
+import sorcer.service.txmgr.TransactionManagerAccessor;
+import sorcer.space.LocalSpace;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SpaceTakerTest {
+    private final LocalSpace space = new LocalSpace();
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(4, 4, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(10));
+    // released workers are done
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Manager manager = new Manager();
+
+    @After
+    public void destroy() {
+        manager.uninstall();
+        release.countDown();
+        pool.shutdownNow();
+        space.destroy();
+    }
+
+    @Test
+    public void takeCountBoundedByQueueRoom() throws Exception {
+        SpaceTaker taker = taker(pool, false);
+        taker.takeSize = 8;
+        assertEquals(8, taker.getTakeCount());
+        taker.takeSize = 20;
+        assertEquals(10, taker.getTakeCount());
+    }
+
+    @Test
+    public void takeCountOfIdleWorkersAndPrefetch() throws Exception {
+        SpaceTaker taker = taker(pool, true);
+        taker.takeSize = 20;
+        taker.prefetch = 2;
+        assertEquals(6, taker.getTakeCount());
+
+        occupy(3);
+        assertEquals(3, taker.getTakeCount());
+        occupy(2);
+        // all workers busy and one envelope queued
+        assertEquals(1, taker.getTakeCount());
+    }
+
+    @Test
+    public void takeCountOfVirtualPool() throws Exception {
+        ExecutorService threads = Executors.newCachedThreadPool();
+        try {
+            SpaceTaker taker = taker(new VirtualWorkerPool(threads, 3), false);
+            taker.takeSize = 8;
+            assertEquals(3, taker.getTakeCount());
+            taker.takeSize = 2;
+            assertEquals(2, taker.getTakeCount());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void envelopsTakenWithOneCall() throws Exception {
+        for (int i = 0; i < 5; i++)
+            space.write(envelop(), null, Lease.FOREVER);
+        SpaceTaker taker = taker(pool, false);
+
+        assertEquals(3, taker.takeUsableEnvelops(JavaSpace.NO_WAIT, 3).size());
+        assertEquals(2, space.size());
+    }
+
+    @Test
+    public void usableEnvelopsOfPartialTakeKept() throws Exception {
+        final ExertionEnvelop usable = envelop();
+        SpaceTaker.SpaceTakerData data = data(false);
+        SpaceTaker taker = new SpaceTaker(data, pool, false) {
+            @Override
+            protected Collection<?> takeEnvelops(Transaction txn, long timeout, int count)
+                    throws UnusableEntriesException {
+                throw new UnusableEntriesException("partial take", Collections.singletonList(usable),
+                        Arrays.asList(new UnusableEntryException(new IOException("unusable"))));
+            }
+        };
+
+        Collection<?> taken = taker.takeUsableEnvelops(JavaSpace.NO_WAIT, 2);
+        assertEquals(1, taken.size());
+        assertSame(usable, taken.iterator().next());
+    }
+
+    @Test
+    public void batchCommittedOnceAllWritten() throws Exception {
+        SpaceTaker.TxnBatch batch = batch(3);
+        batch.done(true);
+        batch.done(true);
+        assertTrue(manager.completed.isEmpty());
+        batch.done(true);
+        assertEquals(Collections.singletonList("commit"), manager.completed);
+    }
+
+    @Test
+    public void batchAbortedIfAnyNotWritten() throws Exception {
+        SpaceTaker.TxnBatch batch = batch(3);
+        batch.done(true);
+        batch.done(false);
+        assertTrue(manager.completed.isEmpty());
+        batch.done(true);
+        assertEquals(Collections.singletonList("abort"), manager.completed);
+    }
+
+    private SpaceTaker.TxnBatch batch(int size) {
+        manager.install();
+        Transaction.Created txn = TX.createTransaction(60000);
+        assertNotNull(txn);
+        return taker(pool, false).new TxnBatch(txn, size);
+    }
+
+    private SpaceTaker taker(ExecutorService pool, boolean noQueue) {
+        SpaceTaker taker = new SpaceTaker(data(noQueue), pool, false);
+        taker.space = space;
+        return taker;
+    }
+
+    private SpaceTaker.SpaceTakerData data(boolean noQueue) {
+        SpaceTaker.SpaceTakerData data = new SpaceTaker.SpaceTakerData();
+        data.entry = ExertionEnvelop.getTemplate(Service.class, null);
+        data.provider = new ServiceExerter();
+        data.noQueue = noQueue;
+        return data;
+    }
+
+    private ExertionEnvelop envelop() {
+        return ExertionEnvelop.getTemplate(Service.class, null);
+    }
+
+    // submits workers waiting to be released, once running or queued
+    private void occupy(int count) throws InterruptedException {
+        int busy = pool.getActiveCount() + pool.getQueue().size() + count;
+        for (int i = 0; i < count; i++) {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        while (pool.getActiveCount() + pool.getQueue().size() < busy)
+            Thread.sleep(10);
+    }
+
+    // transaction manager of TX recording the completions of its transactions
+    private static class Manager extends TransactionManagerAccessor implements InvocationHandler {
+        private final List<String> completed = new CopyOnWriteArrayList<String>();
+        private final TransactionManager proxy = (TransactionManager) Proxy.newProxyInstance(
+                TransactionManager.class.getClassLoader(), new Class[] { TransactionManager.class }, this);
+        private TransactionManagerAccessor previous;
+
+        void install() {
+            previous = instance;
+            instance = this;
+        }
+
+        void uninstall() {
+            if (previous != null)
+                instance = previous;
+        }
+
+        @Override
+        public TransactionManager doGetTransactionManager() {
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("create")) {
+                return new TransactionManager.Created(1, lease());
+            } else if (method.getName().equals("commit") || method.getName().equals("abort")) {
+                completed.add(method.getName());
+                return null;
+            } else if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            } else if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return method.getName().equals("toString") ? "manager" : null;
+        }
+
+        private Lease lease() {
+            return (Lease) Proxy.newProxyInstance(Lease.class.getClassLoader(), new Class[] { Lease.class },
+                    new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if (method.getName().equals("getExpiration"))
+                                return Long.MAX_VALUE;
+                            else if (method.getName().equals("canBatch") || method.getName().equals("equals"))
+                                return proxy == (args != null ? args[0] : null);
+                            else if (method.getName().equals("hashCode"))
+                                return System.identityHashCode(proxy);
+                            return method.getName().equals("toString") ? "lease" : null;
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package sorcer.core.provider;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VirtualWorkerPoolTest {
+    private final VirtualWorkerPool pool = new VirtualWorkerPool(Executors.newCachedThreadPool(), 20);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void shutdown() {
+        release.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void busyPoolRejectsWorkers() throws Exception {
+        CountDownLatch started = occupy(20);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(20, pool.getActiveCount());
+        try {
+            pool.execute(blocked(new CountDownLatch(1)));
+            fail("worker not rejected");
+        } catch (RejectedExecutionException e) {
+            assertEquals(20, pool.getActiveCount());
+        }
+    }
+
+    @Test
+    public void idleCountRestoredWhenWorkersDone() throws Exception {
+        occupy(5);
+        assertEquals(15, pool.getIdleCount());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getIdleCount() < 20 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(20, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    public void takeCountBoundedByIdleWorkers() throws Exception {
+        SpaceTaker taker = new SpaceTaker(new SpaceTaker.SpaceTakerData(), pool, false);
+        assertEquals(SpaceTaker.TAKE_SIZE, taker.getTakeCount());
+        assertFalse(taker.isPoolBusy());
+        occupy(10);
+        assertEquals(10, taker.getTakeCount());
+        occupy(10);
+        assertEquals(0, taker.getTakeCount());
+        assertTrue(taker.isPoolBusy());
+    }
+
+    private CountDownLatch occupy(int workers) {
+        CountDownLatch started = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++)
+            pool.execute(blocked(started));
+        return started;
+    }
+
+    private Runnable blocked(final CountDownLatch started) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package sorcer.core.provider.exerter;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class AsyncExerterTest {
+
+    @Test
+    public void requestCompleted() throws Exception {
+        AsyncExerter exerter = new AsyncExerter(2, 10, false);
+        CompletableFuture<Integer> result = exerter.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 1;
+            }
+        });
+        assertEquals(Integer.valueOf(1), result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancelInterruptsRunningRequest() throws Exception {
+        AsyncExerter exerter = new AsyncExerter(1, 10, false);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Integer> result = exerter.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(result.cancel(true));
+        assertTrue(result.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void timedOutRequestCompletedAndCancelled() throws Exception {
+        AsyncExerter exerter = new AsyncExerter(1, 10, false);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Integer> result = exerter.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("request not timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void saturatedRequestsRejected() throws Exception {
+        AsyncExerter exerter = new AsyncExerter(1, 1, false);
+        final CountDownLatch release = new CountDownLatch(1);
+        Callable<Integer> blocked = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                release.await();
+                return 1;
+            }
+        };
+        CompletableFuture<Integer> running = exerter.submit(blocked);
+        CompletableFuture<Integer> queued = exerter.submit(blocked);
+        CompletableFuture<Integer> rejected = exerter.submit(blocked);
+        assertTrue(rejected.isCompletedExceptionally());
+        try {
+            rejected.get();
+            fail("request not rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        release.countDown();
+        assertEquals(Integer.valueOf(1), running.get(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(1), queued.get(5, TimeUnit.SECONDS));
+    }
+}
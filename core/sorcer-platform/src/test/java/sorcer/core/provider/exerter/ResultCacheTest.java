@@ -0,0 +1,155 @@
+package sorcer.core.provider.exerter;
+
+import org.junit.Test;
+import sorcer.core.context.ControlContext;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.exertion.ObjectTask;
+import sorcer.core.provider.NonCacheable;
+import sorcer.core.provider.ProviderDelegate;
+import sorcer.core.signature.LocalSignature;
+import sorcer.service.Context;
+import sorcer.service.Exec;
+import sorcer.service.Task;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+
+    public interface Adder {
+        Context add(Context cxt);
+
+        @NonCacheable
+        Context random(Context cxt);
+    }
+
+    public static class AdderImpl implements Adder {
+        public Context add(Context cxt) {
+            return cxt;
+        }
+
+        public Context random(Context cxt) {
+            return cxt;
+        }
+    }
+
+    @Test
+    public void equalInputsEqualKeys() throws Exception {
+        ResultCache cache = new ResultCache(10, null, 0);
+        assertEquals(cache.getKey(task("add", 1.0, 2.0)), cache.getKey(task("add", 1.0, 2.0)));
+        assertNotEquals(cache.getKey(task("add", 1.0, 2.0)), cache.getKey(task("add", 1.0, 3.0)));
+        assertNotEquals(cache.getKey(task("add", 1.0, 2.0)), cache.getKey(task("random", 1.0, 2.0)));
+    }
+
+    @Test
+    public void unmarkedInputsKeyed() throws Exception {
+        ResultCache cache = new ResultCache(10, null, 0);
+        Task t1 = task("add", new ServiceContext("add"));
+        t1.getContext().putValue("arg/x1", 1.0);
+        Task t2 = task("add", new ServiceContext("add"));
+        t2.getContext().putValue("arg/x1", 2.0);
+        assertNotEquals(cache.getKey(t1), cache.getKey(t2));
+    }
+
+    @Test
+    public void mapsAndSetsKeyedCanonically() throws Exception {
+        Map<String, Integer> m1 = new HashMap<String, Integer>();
+        Map<String, Integer> m2 = new LinkedHashMap<String, Integer>();
+        Set<String> s1 = new HashSet<String>(4);
+        Set<String> s2 = new LinkedHashSet<String>(64);
+        for (int i = 0; i < 20; i++) {
+            m1.put("k" + i, i);
+            m2.put("k" + (19 - i), 19 - i);
+            s1.add("e" + i);
+            s2.add("e" + (19 - i));
+        }
+        assertArrayEquals(ResultCache.encode(m1), ResultCache.encode(m2));
+        assertArrayEquals(ResultCache.encode(s1), ResultCache.encode(s2));
+        m2.put("k0", 1);
+        assertFalse(java.util.Arrays.equals(ResultCache.encode(m1), ResultCache.encode(m2)));
+    }
+
+    @Test
+    public void leastRecentlyUsedEvicted() throws Exception {
+        ResultCache cache = new ResultCache(2, null, 0);
+        Task t1 = done(task("add", 1.0, 1.0));
+        Task t2 = done(task("add", 1.0, 2.0));
+        Task t3 = done(task("add", 1.0, 3.0));
+        cache.put(cache.getKey(t1), t1);
+        cache.put(cache.getKey(t2), t2);
+        assertTrue(cache.restore(cache.getKey(t1), task("add", 1.0, 1.0)));
+        cache.put(cache.getKey(t3), t3);
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(cache.restore(cache.getKey(t2), task("add", 1.0, 2.0)));
+        assertTrue(cache.restore(cache.getKey(t1), task("add", 1.0, 1.0)));
+        assertTrue(cache.restore(cache.getKey(t3), task("add", 1.0, 3.0)));
+    }
+
+    @Test
+    public void evictedResultsSpilled() throws Exception {
+        File dir = Files.createTempDirectory("result-cache").toFile();
+        ResultCache cache = new ResultCache(1, dir, 10);
+        Task t1 = done(task("add", 1.0, 1.0));
+        t1.getContext().putValue("result/y", 2.0);
+        Task t2 = done(task("add", 1.0, 2.0));
+        String k1 = cache.getKey(t1);
+        cache.put(k1, t1);
+        cache.put(cache.getKey(t2), t2);
+        assertTrue(new File(dir, k1).exists());
+
+        Task restored = task("add", 1.0, 1.0);
+        Context cxt = restored.getContext();
+        assertTrue(cache.restore(k1, restored));
+        assertSame(cxt, restored.getContext());
+        assertEquals(2.0, restored.getContext().getValue("result/y"));
+        assertEquals(Exec.DONE, restored.getStatus());
+        assertEquals(1, cache.getDiskHitCount());
+        assertFalse(new File(dir, k1).exists());
+
+        cache.clear();
+        assertEquals(0, dir.list().length);
+        dir.delete();
+    }
+
+    @Test
+    public void failedResultsNotCached() throws Exception {
+        ResultCache cache = new ResultCache(10, null, 0);
+        Task t1 = task("add", 1.0, 1.0);
+        t1.setStatus(Exec.FAILED);
+        cache.put(cache.getKey(t1), t1);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void nonCacheableOperations() throws Exception {
+        ProviderDelegate delegate = new ProviderDelegate();
+        assertTrue(delegate.isCacheable(AdderImpl.class, "add"));
+        assertFalse(delegate.isCacheable(AdderImpl.class, "random"));
+    }
+
+    private static Task task(String selector, double x1, double x2) throws Exception {
+        ServiceContext cxt = new ServiceContext(selector);
+        cxt.putInValue("arg/x1", x1);
+        cxt.putInValue("arg/x2", x2);
+        return task(selector, cxt);
+    }
+
+    private static Task task(String selector, ServiceContext cxt) throws Exception {
+        Task task = new ObjectTask(new LocalSignature(selector, AdderImpl.class), cxt);
+        ((ControlContext) task.getControlContext()).setCacheable(true);
+        return task;
+    }
+
+    private static Task done(Task task) {
+        task.setStatus(Exec.DONE);
+        return task;
+    }
+}
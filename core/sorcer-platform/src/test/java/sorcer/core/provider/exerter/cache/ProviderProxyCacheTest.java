@@ -0,0 +1,173 @@
+package sorcer.core.provider.exerter.cache;
+
+import net.jini.core.lookup.ServiceTemplate;
+import net.jini.lookup.LookupCache;
+import net.jini.lookup.ServiceDiscoveryListener;
+import org.junit.Test;
+import sorcer.core.signature.RemoteSignature;
+import sorcer.service.DynamicAccessor;
+import sorcer.service.Exerter;
+import sorcer.service.Service;
+import sorcer.service.Signature;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ProviderProxyCacheTest {
+    // providers returned by the stub accessor, in lookup order
+    private final List<Provider> providers = new CopyOnWriteArrayList<Provider>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private final List<String> terminated = new CopyOnWriteArrayList<String>();
+
+    @Test
+    public void cachedProviderReturnedWithoutLookup() throws Exception {
+        Provider provider = provider();
+        ProviderProxyCache cache = cache(10, 30000);
+        Signature sig = signature("a");
+
+        assertSame(provider.proxy, cache.getProvider(sig));
+        assertSame(provider.proxy, cache.getProvider(sig));
+        assertSame(provider.proxy, cache.getProvider(signature("a")));
+        assertEquals(1, lookups.get());
+        assertEquals(0, provider.checks.get());
+    }
+
+    @Test
+    public void livenessCheckedOncePerInterval() throws Exception {
+        Provider provider = provider();
+        ProviderProxyCache cache = cache(10, 200);
+        Signature sig = signature("a");
+
+        cache.getProvider(sig);
+        cache.getProvider(sig);
+        assertEquals(0, provider.checks.get());
+        Thread.sleep(300);
+        for (int i = 0; i < 5; i++)
+            assertSame(provider.proxy, cache.getProvider(sig));
+        assertEquals(1, provider.checks.get());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void deadProviderEvicted() throws Exception {
+        Provider dead = provider();
+        Provider alive = provider();
+        ProviderProxyCache cache = cache(10, 100);
+        Signature sig = signature("a");
+
+        assertSame(dead.proxy, cache.getProvider(sig));
+        dead.dead = true;
+        Thread.sleep(200);
+        assertSame(alive.proxy, cache.getProvider(sig));
+        assertEquals(1, dead.checks.get());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void failedProviderEvicted() throws Exception {
+        Provider failed = provider();
+        Provider other = provider();
+        ProviderProxyCache cache = cache(10, 30000);
+        Signature sig = signature("a");
+
+        assertSame(failed.proxy, cache.getProvider(sig));
+        cache.evict(sig, failed.proxy);
+        assertSame(other.proxy, cache.getProvider(sig));
+        assertSame(other.proxy, cache.getProvider(sig));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedLookupCacheTerminated() throws Exception {
+        provider();
+        ProviderProxyCache cache = cache(2, 30000);
+
+        cache.getProvider(signature("a"));
+        cache.getProvider(signature("b"));
+        cache.getProvider(signature("a"));
+        assertTrue(terminated.isEmpty());
+        cache.getProvider(signature("c"));
+        // the one of the signature b
+        assertEquals(Collections.singletonList("lookup cache 2"), terminated);
+    }
+
+    private ProviderProxyCache cache(int size, long livenessInterval) {
+        final DynamicAccessor accessor = (DynamicAccessor) Proxy.newProxyInstance(
+                DynamicAccessor.class.getClassLoader(), new Class[] { DynamicAccessor.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getService") && args[0] instanceof Signature) {
+                            int i = lookups.getAndIncrement();
+                            return providers.get(Math.min(i, providers.size() - 1)).proxy;
+                        }
+                        return null;
+                    }
+                });
+        return new ProviderProxyCache(size, livenessInterval) {
+            @Override
+            protected DynamicAccessor getAccessor() {
+                return accessor;
+            }
+
+            @Override
+            protected LookupCache createLookupCache(ServiceTemplate template, ServiceDiscoveryListener listener) {
+                return lookupCache("lookup cache " + created.incrementAndGet());
+            }
+        };
+    }
+
+    private LookupCache lookupCache(final String name) {
+        return (LookupCache) Proxy.newProxyInstance(LookupCache.class.getClassLoader(),
+                new Class[] { LookupCache.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("terminate"))
+                            terminated.add(name);
+                        return method.getName().equals("toString") ? name : null;
+                    }
+                });
+    }
+
+    private Signature signature(String name) {
+        return new RemoteSignature("add", Service.class, name);
+    }
+
+    private Provider provider() {
+        Provider provider = new Provider();
+        providers.add(provider);
+        return provider;
+    }
+
+    // provider proxy answering liveness checks
+    private static class Provider implements InvocationHandler {
+        private final Exerter proxy = (Exerter) Proxy.newProxyInstance(Exerter.class.getClassLoader(),
+                new Class[] { Exerter.class }, this);
+        private final AtomicInteger checks = new AtomicInteger();
+        private volatile boolean dead;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getProviderName")) {
+                checks.incrementAndGet();
+                if (dead)
+                    throw new RemoteException("dead");
+                return "provider";
+            } else if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            } else if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return method.getName().equals("toString") ? "provider" : null;
+        }
+    }
+}
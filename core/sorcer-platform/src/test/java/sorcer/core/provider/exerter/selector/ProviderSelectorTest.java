@@ -0,0 +1,104 @@
+package sorcer.core.provider.exerter.selector;
+
+import org.junit.Test;
+import sorcer.core.analytics.AnalyticsProducer;
+import sorcer.core.analytics.MethodAnalytics;
+import sorcer.core.analytics.SystemAnalytics;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProviderSelectorTest {
+
+    @Test
+    public void roundRobinReturnsCandidatesInTurn() {
+        RoundRobinSelector selector = new RoundRobinSelector();
+        List<String> candidates = Arrays.asList("a", "b", "c");
+        assertEquals("a", selector.select("add", candidates));
+        assertEquals("b", selector.select("add", candidates));
+        assertEquals("c", selector.select("add", candidates));
+        assertEquals("a", selector.select("add", candidates));
+        assertNull(selector.select("add", Collections.emptyList()));
+    }
+
+    @Test
+    public void leastOutstandingSelectsIdleProvider() {
+        Producer busy = new Producer(5, 10);
+        Producer idle = new Producer(0, 10);
+        LeastOutstandingSelector selector = new LeastOutstandingSelector();
+        for (int i = 0; i < 5; i++)
+            assertSame(idle, selector.select("add", Arrays.asList(busy, idle)));
+    }
+
+    @Test
+    public void selectionsCountAsOutstanding() {
+        Producer first = new Producer(0, 10);
+        Producer second = new Producer(0, 10);
+        LeastOutstandingSelector selector = new LeastOutstandingSelector();
+        Object selected = selector.select("add", Arrays.asList(first, second));
+        Object next = selector.select("add", Arrays.asList(first, second));
+        assertNotSame(selected, next);
+    }
+
+    @Test
+    public void powerOfTwoChoicesPrefersFasterProvider() {
+        Producer slow = new Producer(1, 1000);
+        Producer fast = new Producer(1, 10);
+        PowerOfTwoChoicesSelector selector = new PowerOfTwoChoicesSelector();
+        assertSame(fast, selector.select("add", Arrays.asList(slow, fast)));
+    }
+
+    @Test
+    public void unreachableProviderSelectedLast() {
+        Producer busy = new Producer(100, 10);
+        Producer unreachable = new Producer(0, 10);
+        unreachable.reachable = false;
+        LeastOutstandingSelector selector = new LeastOutstandingSelector();
+        assertSame(busy, selector.select(null, Arrays.asList(unreachable, busy)));
+    }
+
+    @Test
+    public void unrecordedOperationUsesAllOperationsLoad() {
+        Producer busy = new Producer(5, 10);
+        Producer idle = new Producer(0, 10);
+        LeastOutstandingSelector selector = new LeastOutstandingSelector();
+        for (int i = 0; i < 5; i++)
+            assertSame(idle, selector.select("multiply", Arrays.asList(busy, idle)));
+    }
+
+    static class Producer implements AnalyticsProducer {
+        final int active;
+        final double averageExecTime;
+        boolean reachable = true;
+
+        Producer(int active, double averageExecTime) {
+            this.active = active;
+            this.averageExecTime = averageExecTime;
+        }
+
+        @Override
+        public Map<String, MethodAnalytics> getMethodAnalytics() throws IOException {
+            return Collections.singletonMap("add", getMethodAnalytics("add"));
+        }
+
+        @Override
+        public MethodAnalytics getMethodAnalytics(String name) throws IOException {
+            if (!reachable)
+                throw new IOException("unreachable");
+            if (!name.equals("add"))
+                return null;
+            return new MethodAnalytics(null, averageExecTime, 10, 0, "localhost", name, active, null,
+                                       (long) (averageExecTime * 10), 10);
+        }
+
+        @Override
+        public SystemAnalytics getSystemAnalytics() throws IOException {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package sorcer.space;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.event.RemoteEvent;
+import net.jini.core.event.RemoteEventListener;
+import net.jini.core.lease.Lease;
+import net.jini.space.AvailabilityEvent;
+import net.jini.space.JavaSpace;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LocalSpaceTest {
+    private final LocalSpace space = new LocalSpace();
+
+    public static class Job implements Entry {
+        public String name;
+        public Integer state;
+        public int[] data;
+
+        public Job() {
+        }
+
+        Job(String name, Integer state) {
+            this.name = name;
+            this.state = state;
+        }
+    }
+
+    @After
+    public void destroy() {
+        space.destroy();
+    }
+
+    @Test
+    public void takeMatchingEntry() throws Exception {
+        space.write(new Job("a", 1), null, Lease.FOREVER);
+        space.write(new Job("b", 1), null, Lease.FOREVER);
+        space.write(new Job("b", 2), null, Lease.FOREVER);
+
+        Job taken = (Job) space.take(new Job("b", 2), null, JavaSpace.NO_WAIT);
+        assertEquals("b", taken.name);
+        assertEquals(Integer.valueOf(2), taken.state);
+        assertNull(space.takeIfExists(new Job("b", 2), null, JavaSpace.NO_WAIT));
+        assertNotNull(space.readIfExists(new Job(null, 1), null, JavaSpace.NO_WAIT));
+        assertEquals(2, space.size());
+    }
+
+    @Test
+    public void readReturnsCopy() throws Exception {
+        Job job = new Job("a", 1);
+        job.data = new int[] { 1, 2 };
+        space.write(job, null, Lease.FOREVER);
+        job.data[0] = 3;
+
+        Job read = (Job) space.read(new Job(), null, JavaSpace.NO_WAIT);
+        assertArrayEquals(new int[] { 1, 2 }, read.data);
+        read.data[0] = 4;
+        assertEquals(1, ((Job) space.read(new Job(), null, JavaSpace.NO_WAIT)).data[0]);
+    }
+
+    @Test
+    public void batchTakeOldestFirst() throws Exception {
+        for (int i = 0; i < 5; i++)
+            space.write(new Job("a", i), null, Lease.FOREVER);
+
+        Collection<?> taken = space.take(Collections.singletonList(new Job("a", null)), null,
+                JavaSpace.NO_WAIT, 3);
+        assertEquals(3, taken.size());
+        assertEquals(Integer.valueOf(0), ((Job) taken.iterator().next()).state);
+        assertEquals(2, space.size());
+    }
+
+    @Test
+    public void takeWaitsForWrite() throws Exception {
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                    space.write(new Job("a", 1), null, Lease.FOREVER);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }.start();
+        assertNotNull(space.take(new Job("a", null), null, 5000));
+    }
+
+    @Test
+    public void cancelledEntryIsRemoved() throws Exception {
+        Lease lease = space.write(new Job("a", 1), null, Lease.FOREVER);
+        lease.cancel();
+        assertNull(space.readIfExists(new Job(), null, JavaSpace.NO_WAIT));
+    }
+
+    @Test
+    public void expiredEntryIsNotMatched() throws Exception {
+        space.write(new Job("a", 1), null, 10);
+        Thread.sleep(50);
+        assertNull(space.readIfExists(new Job(), null, JavaSpace.NO_WAIT));
+        assertEquals(0, space.size());
+    }
+
+    @Test
+    public void availabilityEvent() throws Exception {
+        final CountDownLatch notified = new CountDownLatch(1);
+        final Job[] available = new Job[1];
+        space.registerForAvailabilityEvent(Arrays.asList(new Job("a", null)), null, true,
+                new RemoteEventListener() {
+                    @Override
+                    public void notify(RemoteEvent event) {
+                        try {
+                            available[0] = (Job) ((AvailabilityEvent) event).getEntry();
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                        notified.countDown();
+                    }
+                }, Lease.FOREVER, null);
+        space.write(new Job("b", 1), null, Lease.FOREVER);
+        space.write(new Job("a", 2), null, Lease.FOREVER);
+
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(2), available[0].state);
+    }
+}
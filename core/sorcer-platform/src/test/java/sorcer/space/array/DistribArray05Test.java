@@ -0,0 +1,62 @@
+package sorcer.space.array;
+
+import org.junit.After;
+import org.junit.Test;
+import sorcer.space.LocalSpace;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DistribArray05Test {
+    private final LocalSpace space = new LocalSpace();
+
+    @After
+    public void destroy() {
+        space.destroy();
+    }
+
+    @Test
+    public void appendAndReadRange() throws Exception {
+        DistribArray05 array = new DistribArray05(space, "results");
+        array.create();
+        assertEquals(0, array.append("a"));
+        assertArrayEquals(new int[] { 1, 2 }, array.appendAll(Arrays.asList("b", "c")));
+        assertEquals(3, array.size(null));
+        assertArrayEquals(new Object[] { "b", "c", null }, array.readRange(1, 4));
+    }
+
+    @Test
+    public void stripedAppends() throws Exception {
+        DistribArray05 array = new DistribArray05(space, "striped", 4);
+        array.create();
+        int[] positions = array.appendAll(Arrays.asList("a", "b"));
+        assertEquals(4, positions[1] - positions[0]);
+        array.append("c");
+        array.append("d");
+        assertEquals(4, array.size(null));
+        assertEquals("b", array.readElement(positions[1]));
+
+        int found = 0;
+        for (Object data : array.readRange(0, 12))
+            if (data != null)
+                found++;
+        assertEquals(4, found);
+    }
+
+    @Test
+    public void openedWithStoredStripes() throws Exception {
+        new DistribArray05(space, "striped", 4).create();
+        DistribArray05 array = new DistribArray05(space, "striped");
+        assertEquals(4, array.getStripes(null));
+        int[] positions = array.appendAll(Arrays.asList("a", "b"));
+        assertEquals(4, positions[1] - positions[0]);
+        assertEquals(2, array.size(null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void mismatchedStripesRejected() throws Exception {
+        new DistribArray05(space, "striped", 4).create();
+        new DistribArray05(space, "striped", 2).create();
+    }
+}
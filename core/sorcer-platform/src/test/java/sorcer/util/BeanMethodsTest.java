@@ -0,0 +1,103 @@
+package sorcer.util;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+public class BeanMethodsTest {
+
+    public static class Bean {
+        public String concat(String s, Integer i) {
+            return s + i;
+        }
+
+        public String concat(String s, String t) {
+            return s + "+" + t;
+        }
+
+        public String describe(Object o) {
+            return "object";
+        }
+
+        public String describe(String s) {
+            return "string";
+        }
+
+        public int length(CharSequence s) {
+            return s.length();
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public static double square(double x) {
+            return x * x;
+        }
+    }
+
+    @Test
+    public void invokeExactMethod() throws Exception {
+        BeanMethods.Invoker m = BeanMethods.get(Bean.class, "concat", String.class, Integer.class);
+        assertEquals("a1", m.invoke(new Bean(), "a", 1));
+        assertSame(m, BeanMethods.get(Bean.class, "concat", String.class, Integer.class));
+    }
+
+    @Test
+    public void overloadsCachedSeparately() throws Exception {
+        BeanMethods.Invoker number = BeanMethods.get(Bean.class, "concat", String.class, Integer.class);
+        BeanMethods.Invoker text = BeanMethods.get(Bean.class, "concat", String.class, String.class);
+        assertNotSame(number, text);
+        assertEquals(Bean.class.getMethod("concat", String.class, String.class), text.getMethod());
+        assertEquals("a+b", text.invoke(new Bean(), "a", "b"));
+        assertEquals("a1", BeanMethods.get(Bean.class, "concat", String.class, Integer.class)
+                .invoke(new Bean(), "a", 1));
+        assertSame(text, BeanMethods.get(Bean.class, "concat", String.class, String.class));
+    }
+
+    @Test
+    public void exactAndAssignableLookupsCachedSeparately() throws Exception {
+        BeanMethods.Invoker exact = BeanMethods.get(Bean.class, "describe", Object.class);
+        BeanMethods.Invoker string = BeanMethods.get(Bean.class, "describe", String.class);
+        assertEquals("object", exact.invoke(new Bean(), "s"));
+        assertEquals("string", string.invoke(new Bean(), "s"));
+        assertEquals(Bean.class.getMethod("describe", Object.class), exact.getMethod());
+        assertSame(exact, BeanMethods.get(Bean.class, "describe", Object.class));
+    }
+
+    @Test
+    public void findAssignableMethod() throws Exception {
+        BeanMethods.Invoker m = BeanMethods.find(Bean.class, "length", String.class);
+        assertEquals(3, m.invoke(new Bean(), "abc"));
+    }
+
+    @Test
+    public void invokeStaticMethod() throws Exception {
+        BeanMethods.Invoker m = BeanMethods.getDeclared(Bean.class, "square", double.class);
+        assertTrue(m.isStatic());
+        assertEquals(4.0, m.invoke(null, 2.0));
+        assertSame(m.getMethod(), BeanMethods.getNamed(Bean.class, "square").getMethod());
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void missingMethod() throws Exception {
+        try {
+            BeanMethods.get(Bean.class, "length", String.class);
+        } catch (NoSuchMethodException e) {
+            // misses are cached too
+            BeanMethods.get(Bean.class, "length", String.class);
+        }
+    }
+
+    @Test
+    public void targetExceptionIsWrapped() throws Exception {
+        try {
+            BeanMethods.get(Bean.class, "fail", String.class).invoke(new Bean(), "failed");
+            fail("expected InvocationTargetException");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
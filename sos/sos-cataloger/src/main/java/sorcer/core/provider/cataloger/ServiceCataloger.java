@@ -44,6 +44,7 @@ import sorcer.service.Exerter;
 import sorcer.core.provider.ServiceExerter;
 import sorcer.core.provider.cataloger.ServiceCataloger.CatalogerInfo.InterfaceList;
 import sorcer.core.provider.cataloger.ui.CatalogerUI;
+import sorcer.core.provider.exerter.ProviderSelector;
 import sorcer.jini.lookup.entry.SorcerServiceInfo;
 import sorcer.service.Context;
 import sorcer.service.Service;
@@ -424,6 +425,8 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		Cataloger cataloger = null;
 		final ConcurrentMap<InterfaceList, List<ServiceItem>> interfaceListMap = new ConcurrentHashMap<CatalogerInfo.InterfaceList, List<ServiceItem>>();
 
+		private final ProviderSelector selector = ProviderSelector.get();
+
         public ConcurrentMap<InterfaceList, List<ServiceItem>> getInterfaceListMap() {
             return interfaceListMap;
         }
@@ -624,9 +627,9 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 		 * first parameter = String[] of interfaces<br>
 		 * second parameter = providerName if any
 		 * <p>
-		 * This method provides automatic load balancing by providing the
-		 * serviceItem from the beginning and by removing it and adding to the
-		 * end upon each request.
+		 * This method provides automatic load balancing by selecting the
+		 * serviceItem among the matching ones with the configured
+		 * {@link ProviderSelector} upon each request.
 		 */
 		public ServiceItem getServiceItem(Class[] interfaces,
 				String providerName) {
@@ -641,47 +644,45 @@ public class ServiceCataloger extends ServiceExerter implements Cataloger {
 			if (list == null)
 				return null;
 
-			ServiceItem sItem;
+			List<ServiceItem> candidates = new ArrayList<ServiceItem>();
+			for (ServiceItem item : list) {
+				if (item != null && (providerName == null || providerName.length() == 0
+						|| hasName(item, providerName)))
+					candidates.add(item);
+			}
 			// provide load balancing and check if still alive
-			if (providerName == null || providerName.length() == 0) {
-				do {
-					if (list.size() == 0)
-						return null;
-					sItem = list.remove(0);
-					if (sItem != null) {
-						if (isAlive(sItem)) {
-							list.add(sItem);
-							return sItem;
-						} else {
-							// not Alive anymore removing from cataloger
-							removeServiceItem(sItem);
-						}
-					}
-				} while (sItem != null);
-			} else {
-				net.jini.core.entry.Entry[] attrs;
-				for (int i = 0; i < list.size(); i++) {
-					attrs = list.get(i).attributeSets;
-					for (net.jini.core.entry.Entry et : attrs) {
-						if (et instanceof Name
-								&& providerName.equals(((Name) et).name)) {
-							sItem = list.remove(i);
-                            if (sItem != null) {
-                                if (isAlive(sItem)) {
-                                    list.add(sItem);
-                                    return sItem;
-                                } else {
-                                    // not Alive anymore removing from cataloger
-                                    removeServiceItem(sItem);
-                                }
-                            }
-						}
-					}
-				}
+			while (candidates.size() > 0) {
+				ServiceItem sItem = select(candidates);
+				if (isAlive(sItem))
+					return sItem;
+				// not Alive anymore removing from cataloger
+				removeServiceItem(sItem);
 			}
 			return null;
 		}
 
+		/**
+		 * Removes and returns the candidate chosen by the provider selector.
+		 */
+		private ServiceItem select(List<ServiceItem> candidates) {
+			int index = 0;
+			if (candidates.size() > 1) {
+				List<Object> proxies = new ArrayList<Object>(candidates.size());
+				for (ServiceItem item : candidates)
+					proxies.add(item.service);
+				index = Math.max(0, proxies.indexOf(selector.select(null, proxies)));
+			}
+			return candidates.remove(index);
+		}
+
+		private boolean hasName(ServiceItem item, String providerName) {
+			for (net.jini.core.entry.Entry et : item.attributeSets) {
+				if (et instanceof Name && providerName.equals(((Name) et).name))
+					return true;
+			}
+			return false;
+		}
+
 		// there's no other better way of doing this because of the structure we
 		// maintain.
 		// we need to iterate through each and every one of the list and getValue the